@@ -0,0 +1,13 @@
+#!/bin/bash
+# Executado pelo entrypoint do MySQL na primeira inicialização da réplica (perfil "replica" do docker-compose).
+# Aponta a replicação para o serviço "db" usando GTID, de forma que a réplica copie todo o histórico do banco principal.
+docker_process_sql <<-SQL
+	CHANGE REPLICATION SOURCE TO
+		SOURCE_HOST = 'db',
+		SOURCE_PORT = 3306,
+		SOURCE_USER = 'root',
+		SOURCE_PASSWORD = '',
+		SOURCE_AUTO_POSITION = 1,
+		GET_SOURCE_PUBLIC_KEY = 1;
+	START REPLICA;
+SQL
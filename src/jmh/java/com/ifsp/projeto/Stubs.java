@@ -0,0 +1,28 @@
+package com.ifsp.projeto;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
+/**
+ * Repositórios falsos para os benchmarks: medem só o processamento em memória dos serviços, sem banco e sem Spring.
+ */
+public final class Stubs {
+
+	private Stubs() {
+	}
+
+	/**
+	 * @param tipo     A interface do repositório.
+	 * @param metodo   O único método atendido; os demais lançam {@link UnsupportedOperationException}.
+	 * @param resposta Calcula o retorno do método a partir dos argumentos.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T repositorio(Class<T> tipo, String metodo, Function<Object[], Object> resposta) {
+		return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, method, args) -> {
+			if (method.getName().equals(metodo)) {
+				return resposta.apply(args);
+			}
+			throw new UnsupportedOperationException(tipo.getSimpleName() + "." + method.getName());
+		});
+	}
+}
@@ -0,0 +1,82 @@
+package com.ifsp.projeto.controller;
+
+import com.ifsp.projeto.controller.dto.RelatorioVendasDTO;
+import com.ifsp.projeto.model.ItemVenda;
+import com.ifsp.projeto.model.Venda;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totais das telas de vendas ({@link VendaController#vendas} e {@link VendaController#relatorioVendas}), calculados
+ * pelo {@link RelatorioVendasDTO} sobre as vendas do relatório, com um a cinco itens cada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RelatorioVendasBenchmark {
+
+	@Param({"1000", "100000"})
+	int vendas;
+
+	RelatorioVendasDTO relatorio;
+
+	@Setup
+	public void preparar() {
+		Random random = new Random(42);
+		LocalDate hoje = LocalDate.now();
+		List<Venda> lista = new ArrayList<>(vendas);
+		for (int i = 0; i < vendas; i++) {
+			Venda venda = new Venda();
+			venda.setDataVenda(hoje.minusDays(random.nextInt(365)));
+			List<ItemVenda> itens = new ArrayList<>();
+			int quantidade = 0;
+			double valor = 0;
+			for (int j = 1 + random.nextInt(5); j > 0; j--) {
+				ItemVenda item = new ItemVenda();
+				item.setQuantidade(1 + random.nextInt(6));
+				item.setValorUnitario(5 + random.nextInt(60));
+				item.setValorTotal(item.getQuantidade() * item.getValorUnitario());
+				item.setVenda(venda);
+				itens.add(item);
+				quantidade += item.getQuantidade();
+				valor += item.getValorTotal();
+			}
+			venda.setItens(itens);
+			venda.setQuantidade(quantidade);
+			venda.setValorVenda(valor);
+			lista.add(venda);
+		}
+		relatorio = new RelatorioVendasDTO(lista, List.of());
+	}
+
+	@Benchmark
+	public void totaisVendas(Blackhole blackhole) {
+		blackhole.consume(relatorio.totalQuantidade());
+		blackhole.consume(relatorio.totalValor());
+	}
+
+	@Benchmark
+	public void totaisRelatorioPorPeriodo(Blackhole blackhole) {
+		blackhole.consume(relatorio.totalQuantidadeItens());
+		blackhole.consume(relatorio.totalValor());
+	}
+}
@@ -0,0 +1,79 @@
+package com.ifsp.projeto.service;
+
+import com.ifsp.projeto.Stubs;
+import com.ifsp.projeto.controller.dto.ProducaoEventoDTO;
+import com.ifsp.projeto.controller.dto.VendaEventoDTO;
+import com.ifsp.projeto.model.Producao;
+import com.ifsp.projeto.model.Venda;
+import com.ifsp.projeto.repository.ProducaoRepository;
+import com.ifsp.projeto.repository.VendaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrupamento por dia dos calendários de produção e de vendas ({@link ProducaoService#getProducaoEventos} e
+ * {@link VendaService#getVendaEventos}), sobre registros espalhados por três anos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalendarioBenchmark {
+
+	private static final int DIAS = 3 * 365;
+
+	@Param({"10000", "100000"})
+	int registros;
+
+	ProducaoService producaoService;
+	VendaService vendaService;
+
+	@Setup
+	public void preparar() {
+		Random random = new Random(42);
+		LocalDate inicio = LocalDate.now().minusDays(DIAS);
+		List<Producao> producoes = new ArrayList<>(registros);
+		List<Venda> vendas = new ArrayList<>(registros);
+		for (int i = 0; i < registros; i++) {
+			Producao producao = new Producao();
+			producao.setDataProducao(inicio.plusDays(random.nextInt(DIAS)));
+			producao.setQuantidade(1 + random.nextInt(40));
+			producoes.add(producao);
+
+			Venda venda = new Venda();
+			venda.setDataVenda(inicio.plusDays(random.nextInt(DIAS)));
+			venda.setQuantidade(1 + random.nextInt(5));
+			vendas.add(venda);
+		}
+		producaoService = new ProducaoService(Stubs.repositorio(ProducaoRepository.class, "findAllWithProduto", args -> producoes),
+				null, null, null, null, null, null, null);
+		vendaService = new VendaService(Stubs.repositorio(VendaRepository.class, "findAll", args -> vendas), null, null);
+	}
+
+	@Benchmark
+	public List<ProducaoEventoDTO> producaoEventos() {
+		return producaoService.getProducaoEventos();
+	}
+
+	@Benchmark
+	public List<VendaEventoDTO> vendaEventos() {
+		return vendaService.getVendaEventos();
+	}
+}
@@ -0,0 +1,57 @@
+package com.ifsp.projeto.service;
+
+import com.ifsp.projeto.model.Ingrediente;
+import com.ifsp.projeto.model.MateriaPrima;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo total de uma receita ({@link ProdutoService#calcularCustoTotal}), usado ao salvar produtos e ao recalcular todos os preços.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustoProdutoBenchmark {
+
+	@Param({"10", "100", "1000"})
+	int ingredientes;
+
+	List<Ingrediente> receita;
+
+	@Setup
+	public void preparar() {
+		Random random = new Random(42);
+		receita = new ArrayList<>(ingredientes);
+		for (int i = 0; i < ingredientes; i++) {
+			MateriaPrima materiaPrima = new MateriaPrima();
+			materiaPrima.setNome("Matéria-prima " + i);
+			materiaPrima.setValor(0.01 + random.nextDouble() * 0.5);
+			Ingrediente ingrediente = new Ingrediente();
+			ingrediente.setMateriaPrima(materiaPrima);
+			ingrediente.setQuantidade(1 + random.nextInt(500) * 1.0);
+			receita.add(ingrediente);
+		}
+	}
+
+	@Benchmark
+	public double calcularCustoTotal() {
+		return ProdutoService.calcularCustoTotal(receita);
+	}
+}
@@ -0,0 +1,70 @@
+package com.ifsp.projeto.service;
+
+import com.ifsp.projeto.Stubs;
+import com.ifsp.projeto.controller.dto.MateriaPrimaComAlertaDTO;
+import com.ifsp.projeto.controller.dto.MateriaPrimaResumo;
+import com.ifsp.projeto.repository.MateriaPrimaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem de matérias-primas com alerta de estoque baixo ({@link MateriaPrimaService#findAllWithAlert}): filtro por
+ * nome e unidade, ordenação e conversão para DTO, sobre a lista completa de resumos devolvida pelo repositório.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MateriasPrimasAlertaBenchmark {
+
+	private static final String[] NOMES = {"Farinha", "Açúcar", "Manteiga", "Ovo", "Leite", "Chocolate", "Fermento", "Creme de leite"};
+	private static final String[] UNIDADES = {"g", "ml", "un"};
+
+	@Param({"100", "10000"})
+	int materiasPrimas;
+
+	MateriaPrimaService materiaPrimaService;
+
+	@Setup
+	public void preparar() {
+		Random random = new Random(42);
+		List<MateriaPrimaResumo> cadastro = new ArrayList<>(materiasPrimas);
+		for (int i = 0; i < materiasPrimas; i++) {
+			cadastro.add(new MateriaPrimaResumo((long) i, NOMES[random.nextInt(NOMES.length)] + " " + i, UNIDADES[random.nextInt(UNIDADES.length)],
+					random.nextInt(10_000) * 1.0, 0.01 + random.nextDouble(), random.nextInt(2_000) * 1.0));
+		}
+		MateriaPrimaRepository materiaPrimaRepository = Stubs.repositorio(MateriaPrimaRepository.class, "findResumos", args -> cadastro);
+		materiaPrimaService = new MateriaPrimaService(materiaPrimaRepository, null, null, null);
+	}
+
+	@Benchmark
+	public List<MateriaPrimaComAlertaDTO> semFiltro() {
+		return materiaPrimaService.findAllWithAlert(null, null, null, null);
+	}
+
+	@Benchmark
+	public List<MateriaPrimaComAlertaDTO> filtroPorNomeOrdenadoPorQuantidade() {
+		return materiaPrimaService.findAllWithAlert("choco", null, "quantidade", "desc");
+	}
+
+	@Benchmark
+	public List<MateriaPrimaComAlertaDTO> filtroPorUnidadeOrdenadoPorValor() {
+		return materiaPrimaService.findAllWithAlert(null, "g", "valor", "asc");
+	}
+}
@@ -0,0 +1,94 @@
+package com.ifsp.projeto.service;
+
+import com.ifsp.projeto.Stubs;
+import com.ifsp.projeto.controller.dto.ProducaoDTO;
+import com.ifsp.projeto.model.IngredienteReceita;
+import com.ifsp.projeto.model.MateriaPrima;
+import com.ifsp.projeto.model.Produto;
+import com.ifsp.projeto.model.ReceitaVersao;
+import com.ifsp.projeto.repository.ReceitaVersaoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conferência do estoque antes de registrar a produção do dia ({@link ProducaoService#validarEstoque}): para cada produto,
+ * a quantidade de cada ingrediente da receita atual contra o estoque da matéria-prima. Com estoque insuficiente, mede
+ * também a montagem das mensagens de erro.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidacaoEstoqueBenchmark {
+
+	private static final int MATERIAS_PRIMAS = 200;
+	private static final int INGREDIENTES_POR_RECEITA = 20;
+
+	@Param({"10", "100"})
+	int produtos;
+
+	@Param({"suficiente", "insuficiente"})
+	String estoque;
+
+	ProducaoService producaoService;
+	List<ProducaoDTO> producaoDoDia;
+
+	@Setup
+	public void preparar() {
+		Random random = new Random(42);
+		double quantidadeEmEstoque = estoque.equals("suficiente") ? 1_000_000 : 10;
+		List<MateriaPrima> materiasPrimas = new ArrayList<>(MATERIAS_PRIMAS);
+		for (int i = 0; i < MATERIAS_PRIMAS; i++) {
+			MateriaPrima materiaPrima = new MateriaPrima();
+			materiaPrima.setNome("Matéria-prima " + i);
+			materiaPrima.setQuantidade(quantidadeEmEstoque);
+			materiasPrimas.add(materiaPrima);
+		}
+
+		Map<Long, ReceitaVersao> receitas = new HashMap<>();
+		producaoDoDia = new ArrayList<>(produtos);
+		for (long id = 1; id <= produtos; id++) {
+			Produto produto = new Produto();
+			produto.setId(id);
+			produto.setNome("Produto " + id);
+			List<IngredienteReceita> ingredientes = new ArrayList<>(INGREDIENTES_POR_RECEITA);
+			for (int i = 0; i < INGREDIENTES_POR_RECEITA; i++) {
+				ingredientes.add(new IngredienteReceita(materiasPrimas.get(random.nextInt(MATERIAS_PRIMAS)), 10 + random.nextInt(490) * 1.0));
+			}
+			receitas.put(id, new ReceitaVersao(produto, 1, ingredientes));
+
+			ProducaoDTO dto = new ProducaoDTO();
+			dto.setProdutoId(id);
+			dto.setQuantidade(1 + random.nextInt(30));
+			producaoDoDia.add(dto);
+		}
+
+		ReceitaVersaoRepository receitaVersaoRepository = Stubs.repositorio(ReceitaVersaoRepository.class, "findAtualByProdutoId",
+				args -> Optional.ofNullable(receitas.get((Long) args[0])));
+		producaoService = new ProducaoService(null, receitaVersaoRepository, null, null, null, null, null, null);
+	}
+
+	@Benchmark
+	public List<String> validarEstoque() {
+		return producaoService.validarEstoque(producaoDoDia);
+	}
+}
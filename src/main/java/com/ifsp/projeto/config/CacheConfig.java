@@ -0,0 +1,74 @@
+package com.ifsp.projeto.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PROXIMOS_PEDIDOS = "proximosPedidos";
+    public static final String CATALOGO_PRODUTOS = "catalogoProdutos";
+    public static final String MATERIAS_PRIMAS = "materiasPrimas";
+    public static final String USUARIOS = "usuarios";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${confeitaria.pedidos.proximos.cache-ttl}") Duration proximosPedidosTtl,
+                                     @Value("${confeitaria.cache.tamanho-maximo}") long tamanhoMaximo,
+                                     @Value("${confeitaria.cache.ttl}") Duration ttl,
+                                     @Value("${confeitaria.cache.desativados:}") Set<String> desativados) {
+        // Caches desativados (ex: no perfil "cluster", em que cada instância teria a sua cópia) não guardam nada
+        Map<String, Cache> semCache = desativados.stream().collect(Collectors.toMap(Function.identity(), NoOpCache::new));
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            public Cache getCache(String name) {
+                Cache desativado = semCache.get(name);
+                return desativado != null ? desativado : super.getCache(name);
+            }
+        };
+        // Todos os caches são criados aqui, limitados em tamanho e tempo e com estatísticas de acertos/falhas para o actuator
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setCacheNames(List.of(MATERIAS_PRIMAS, USUARIOS));
+        cacheManager.registerCustomCache(PROXIMOS_PEDIDOS, Caffeine.newBuilder()
+                .expireAfterWrite(proximosPedidosTtl)
+                .maximumSize(1)
+                .recordStats()
+                .build());
+        // Catálogo inteiro em uma única entrada; invalidado pelas escritas em ProdutoService
+        cacheManager.registerCustomCache(CATALOGO_PRODUTOS, Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(1)
+                .recordStats()
+                .build());
+        // Dentro de uma transação, inclusões e remoções só chegam ao cache depois do commit: um @CacheEvict antes do commit
+        // deixaria uma leitura concorrente guardar de novo os dados antigos
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    // Usuários autenticáveis por login (incluindo logins inexistentes). O CacheUsuarios espera o commit por conta própria,
+    // então recebe o cache sem o decorador transacional
+    @Bean
+    public CacheUsuarios userCache(CacheManager cacheManager) {
+        Cache usuarios = cacheManager.getCache(USUARIOS);
+        return new CacheUsuarios(usuarios instanceof TransactionAwareCacheDecorator decorador ? decorador.getTargetCache() : usuarios);
+    }
+}
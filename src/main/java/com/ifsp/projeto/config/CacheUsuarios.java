@@ -0,0 +1,84 @@
+package com.ifsp.projeto.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.cache.SpringCacheBasedUserCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link UserCache} dos usuários autenticáveis, por login. Inclusões e remoções só chegam ao cache depois do commit
+ * da transação em andamento, e um usuário lido do banco antes de uma remoção não é guardado depois dela.
+ * Sem isso, um login que leu a conta antes de o administrador alterá-la gravaria os dados antigos depois da remoção
+ * feita pelo administrador, e eles valeriam até o cache expirar. Quem lê o banco anota a {@link #geracao()} antes da
+ * consulta e a informa em {@link #putUserInCache(UserDetails, long)}; cada remoção avança a geração.
+ */
+public class CacheUsuarios implements UserCache {
+
+    private final SpringCacheBasedUserCache cache;
+    private long geracao;
+
+    /**
+     * @param cache O cache de destino, sem o decorador transacional: a espera pelo commit é feita aqui.
+     */
+    public CacheUsuarios(Cache cache) {
+        this.cache = new SpringCacheBasedUserCache(cache);
+    }
+
+    /**
+     * Retorna a geração atual, a ser anotada antes de consultar o usuário no banco.
+     */
+    public synchronized long geracao() {
+        return geracao;
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return cache.getUserFromCache(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        putUserInCache(user, geracao());
+    }
+
+    /**
+     * Guarda o usuário depois do commit, a menos que algum login tenha sido removido do cache desde a geração informada.
+     *
+     * @param user        O usuário lido do banco.
+     * @param geracaoLida A {@link #geracao()} anotada antes da consulta ao banco.
+     */
+    public void putUserInCache(UserDetails user, long geracaoLida) {
+        depoisDoCommit(() -> {
+            synchronized (this) {
+                if (geracao == geracaoLida) {
+                    cache.putUserInCache(user);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        depoisDoCommit(() -> {
+            synchronized (this) {
+                geracao++;
+                cache.removeUserFromCache(username);
+            }
+        });
+    }
+
+    private static void depoisDoCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
@@ -16,14 +16,41 @@ import java.io.IOException;
 public class CustomAuthenticationFailureHandler implements AuthenticationFailureHandler {
 
     private static final Logger log = LoggerFactory.getLogger(CustomAuthenticationFailureHandler.class);
+    private static final int TAMANHO_MAXIMO_LOG = 64;
+
+    private final LoginThrottle loginThrottle;
+
+    public CustomAuthenticationFailureHandler(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
 
     @Override
     public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response, AuthenticationException exception) throws IOException, ServletException {
-        log.error("Authentication failed: ", exception);
+        if (exception instanceof SenhaIndisponivelException) {
+            // Falha do servidor, não do usuário: não conta como tentativa
+            log.warn("Authentication rejected: {}", exception.getMessage());
+            response.sendRedirect(request.getContextPath() + "/login?error=ocupado");
+            return;
+        }
+        // Sem stack trace: em uma rajada de tentativas erradas o log não deve virar gargalo
+        log.warn("Authentication failed for '{}' from {}: {}", paraLog(request.getParameter("username")), request.getRemoteAddr(), exception.getMessage());
+        loginThrottle.registrarFalha(request.getParameter("username"), request.getRemoteAddr());
         if (exception instanceof DisabledException) {
             response.sendRedirect(request.getContextPath() + "/login?error=disabled");
         } else {
             response.sendRedirect(request.getContextPath() + "/login?error");
         }
     }
+
+    /**
+     * Prepara o login digitado para o log: o valor vem do formulário, então quebras de linha e outros caracteres de
+     * controle viram '_' (não dá para forjar linhas no log) e o tamanho é limitado.
+     */
+    static String paraLog(String login) {
+        if (login == null) {
+            return "";
+        }
+        String limpo = login.replaceAll("[\\p{Cc}\\p{Zl}\\p{Zp}]", "_");
+        return limpo.length() > TAMANHO_MAXIMO_LOG ? limpo.substring(0, TAMANHO_MAXIMO_LOG) + "..." : limpo;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.ifsp.projeto.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Pools de conexões da aplicação, escolhidos a cada transação pelo {@link RoteamentoDataSource}:
+ * <ul>
+ *     <li>o pool principal, configurado por {@code spring.datasource.*}, para vendas, produção e demais telas;</li>
+ *     <li>um pool pequeno no mesmo banco, só para os relatórios do {@link ExecutorRelatorios}, para que relatórios
+ *     pesados não esgotem as conexões do caixa;</li>
+ *     <li>opcionalmente, uma réplica de leitura ({@code confeitaria.datasource.replica.url}) para as transações somente leitura,
+ *     que então não usam os caches do Hibernate ({@link ReplicaJpaDialect}).</li>
+ * </ul>
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private final DataSourceProperties dataSourceProperties;
+
+    public DataSourceConfig(DataSourceProperties dataSourceProperties) {
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource() {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    // Uma conexão por thread de relatório; fora da injeção por tipo para não concorrer com o pool principal
+    @Bean(autowireCandidate = false)
+    public HikariDataSource relatoriosDataSource(RelatorioProperties relatorioProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("relatorios");
+        dataSource.setMaximumPoolSize(relatorioProperties.threads());
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    // A reserva de um bloco de IDs é curta e o Hibernate faz uma por vez para cada entidade; duas conexões bastam
+    @Bean(autowireCandidate = false)
+    public HikariDataSource idsDataSource() {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("ids");
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setMinimumIdle(0);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primarioDataSource, RelatorioProperties relatorioProperties, ObjectProvider<MonitorReplica> monitorReplica) {
+        RoteamentoDataSource roteamento = new RoteamentoDataSource(primarioDataSource, relatoriosDataSource(relatorioProperties), idsDataSource(),
+                monitorReplica.getIfAvailable());
+        roteamento.afterPropertiesSet();
+        // Adia a escolha da conexão até o primeiro comando, quando a transação já foi marcada como somente leitura
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    /**
+     * Réplica de leitura, com pool Hikari próprio e somente leitura. Só é criada quando {@code confeitaria.datasource.replica.url} estiver definida.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "confeitaria.datasource.replica", name = "url")
+    static class ReplicaConfig {
+
+        // Fora da injeção por tipo e do /actuator/health: réplica fora do ar só faz as leituras voltarem para o banco principal
+        @Bean(autowireCandidate = false)
+        public HikariDataSource replicaDataSource(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(replicaProperties.url())
+                    .username(replicaProperties.username())
+                    .password(replicaProperties.password())
+                    .build();
+            dataSource.setPoolName("replica");
+            dataSource.setMaximumPoolSize(replicaProperties.tamanhoPool());
+            dataSource.setReadOnly(true);
+            return dataSource;
+        }
+
+        @Bean
+        public MonitorReplica monitorReplica(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties, MeterRegistry meterRegistry) {
+            return new MonitorReplica(replicaDataSource(dataSourceProperties, replicaProperties), replicaProperties, meterRegistry);
+        }
+
+        // Leituras que podem ir para a réplica não usam os caches do Hibernate. O dialeto é trocado depois da inicialização,
+        // porque o JpaTransactionManager copia o da fábrica de EntityManagers no afterPropertiesSet
+        @Bean
+        static BeanPostProcessor dialetoReplica() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof JpaTransactionManager transactionManager) {
+                        transactionManager.setJpaDialect(new ReplicaJpaDialect());
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ifsp.projeto.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link PasswordEncoder} que executa o encoder delegado (BCrypt) em um pool de threads próprio, com fila limitada.
+ * As threads do Tomcat apenas aguardam o resultado: uma rajada de logins ocupa no máximo as threads do pool,
+ * e o que não couber na fila é recusado imediatamente com {@link SenhaIndisponivelException}, sem consumir CPU.
+ * Quando o tempo de espera se esgota, a verificação que ainda está na fila é retirada dela e nunca roda; a que já
+ * começou vai até o fim na thread do pool, porque o BCrypt não atende a interrupções, e o resultado é descartado.
+ * O gasto de CPU continua limitado ao número de threads, mas uma verificação recusada por tempo pode ter sido calculada.
+ * O pool, a fila e as recusas aparecem nas métricas {@code executor.*} (nome {@code bcrypt}) e {@code confeitaria.bcrypt.recusas}.
+ */
+public class ExecutorPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final Counter recusas;
+
+    public ExecutorPasswordEncoder(PasswordEncoder delegate, LoginProperties.Bcrypt properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeoutNanos = properties.timeout().toNanos();
+        this.executor = new ThreadPoolExecutor(properties.threads(), properties.threads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.fila()), new CustomizableThreadFactory("bcrypt-"), new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "bcrypt");
+        this.recusas = Counter.builder("confeitaria.bcrypt.recusas")
+                .description("Cálculos de senha recusados por fila cheia ou tempo esgotado").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executar(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executar(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        Future<T> resultado;
+        try {
+            resultado = executor.submit(tarefa);
+        } catch (RejectedExecutionException e) {
+            recusas.increment();
+            throw new SenhaIndisponivelException("Sistema ocupado verificando senhas. Tente novamente em instantes.", e);
+        }
+        try {
+            return resultado.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Libera a vaga na fila se ainda não começou; se já começou, o cálculo termina e o resultado é ignorado
+            resultado.cancel(false);
+            executor.remove((Runnable) resultado);
+            recusas.increment();
+            throw new SenhaIndisponivelException("Tempo esgotado verificando a senha. Tente novamente em instantes.", e);
+        } catch (InterruptedException e) {
+            resultado.cancel(false);
+            executor.remove((Runnable) resultado);
+            Thread.currentThread().interrupt();
+            throw new SenhaIndisponivelException("Verificação de senha interrompida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
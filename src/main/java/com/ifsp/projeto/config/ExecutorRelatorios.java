@@ -0,0 +1,114 @@
+package com.ifsp.projeto.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Faixa separada (bulkhead) para os relatórios: um pool de threads pequeno, com fila limitada, em que cada relatório
+ * roda em uma transação somente leitura com tempo máximo. As consultas feitas nessas threads usam o pool de conexões
+ * dos relatórios (veja {@link RoteamentoDataSource}), de forma que um relatório de vários anos não ocupa as conexões
+ * das vendas e da produção. Quando a faixa está cheia, o relatório é recusado na hora com {@link RelatorioIndisponivelException}.
+ * O pool, a fila e as recusas aparecem nas métricas {@code executor.*} (nome {@code relatorios}) e {@code confeitaria.relatorios.recusas}.
+ */
+@Component
+public class ExecutorRelatorios implements AutoCloseable {
+
+    private static final ThreadLocal<Boolean> EM_EXECUCAO = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate transacao;
+    private final long timeoutNanos;
+    private final Duration retryAfter;
+    private final Counter recusas;
+
+    public ExecutorRelatorios(RelatorioProperties properties, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(properties.threads(), properties.threads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.fila()), new CustomizableThreadFactory("relatorio-"), new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "relatorios");
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacao.setReadOnly(true);
+        this.transacao.setTimeout((int) properties.timeout().toSeconds());
+        this.timeoutNanos = properties.timeout().toNanos();
+        this.retryAfter = properties.retryAfter();
+        this.recusas = Counter.builder("confeitaria.relatorios.recusas")
+                .description("Relatórios recusados por faixa cheia ou tempo esgotado").register(meterRegistry);
+    }
+
+    /**
+     * @return {@code true} se a thread atual está gerando um relatório desta faixa.
+     */
+    public static boolean emExecucao() {
+        return Boolean.TRUE.equals(EM_EXECUCAO.get());
+    }
+
+    /**
+     * Gera um relatório na faixa de relatórios e aguarda o resultado.
+     * A consulta roda em outra thread, fora da sessão JPA da requisição: o resultado deve vir completo
+     * (DTOs ou entidades com as associações usadas pela tela já carregadas).
+     *
+     * @param consulta A geração do relatório.
+     * @return O resultado da consulta.
+     * @throws RelatorioIndisponivelException Se a faixa estiver cheia ou o relatório passar do tempo máximo.
+     */
+    public <T> T executar(Supplier<T> consulta) {
+        Future<T> resultado;
+        try {
+            resultado = executor.submit(() -> {
+                EM_EXECUCAO.set(Boolean.TRUE);
+                try {
+                    return transacao.execute(status -> consulta.get());
+                } finally {
+                    EM_EXECUCAO.remove();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            recusas.increment();
+            throw new RelatorioIndisponivelException("Muitos relatórios sendo gerados no momento. Tente novamente em instantes.", retryAfter, e);
+        }
+        try {
+            return resultado.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            throw tempoEsgotado(e);
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RelatorioIndisponivelException("Geração do relatório interrompida.", retryAfter, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof QueryTimeoutException || e.getCause() instanceof TransactionTimedOutException) {
+                throw tempoEsgotado(e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private RelatorioIndisponivelException tempoEsgotado(Throwable cause) {
+        recusas.increment();
+        return new RelatorioIndisponivelException("O relatório demorou demais para ser gerado. Tente um período menor.", retryAfter, cause);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
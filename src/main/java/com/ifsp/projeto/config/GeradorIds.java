@@ -0,0 +1,33 @@
+package com.ifsp.projeto.config;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.TableGenerator;
+
+/**
+ * Gerador dos IDs das entidades, em blocos reservados na tabela {@code sequencia_id} (veja {@code model/package-info.java}).
+ * Quando um bloco acaba, o Hibernate reserva o próximo em uma conexão à parte, com transação própria, enquanto a
+ * transação que pediu o ID continua segurando a sua. Durante essa reserva a thread fica marcada ({@link #emExecucao()})
+ * e o {@link RoteamentoDataSource} entrega uma conexão do pool dos IDs: se ela viesse do pool principal, requisições
+ * ocupando todas as conexões enquanto esperam um bloco de IDs travariam umas às outras até o tempo limite do pool.
+ */
+public class GeradorIds extends TableGenerator {
+
+    private static final ThreadLocal<Boolean> EM_EXECUCAO = new ThreadLocal<>();
+
+    /**
+     * @return {@code true} se a thread atual está reservando um bloco de IDs.
+     */
+    public static boolean emExecucao() {
+        return Boolean.TRUE.equals(EM_EXECUCAO.get());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        EM_EXECUCAO.set(Boolean.TRUE);
+        try {
+            return super.generate(session, object);
+        } finally {
+            EM_EXECUCAO.remove();
+        }
+    }
+}
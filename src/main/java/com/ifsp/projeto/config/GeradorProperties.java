@@ -0,0 +1,28 @@
+package com.ifsp.projeto.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDate;
+
+/**
+ * Volume do histórico sintético gravado pelo {@link com.ifsp.projeto.gerador.GeradorDados} (perfil {@code gerador}).
+ *
+ * @param dias             Dias de histórico, terminando em {@code fim}.
+ * @param fim              Último dia com produção e vendas; vazio para ontem. Há pedidos pendentes também nas duas semanas seguintes.
+ * @param materiasPrimas   Matérias-primas cadastradas.
+ * @param produtos         Produtos cadastrados, cada um com receita de 3 a 8 matérias-primas.
+ * @param vendasPorDia     Vendas em um dia médio; o número de cada dia varia com o mês e o dia da semana.
+ * @param pedidosPorDia    Pedidos com entrega em um dia médio.
+ * @param orcamentosPorDia Orçamentos em um dia médio.
+ * @param threads          Meses gravados ao mesmo tempo, cada um em uma conexão; deve ficar abaixo do tamanho do pool.
+ * @param lote             Linhas por lote JDBC.
+ * @param semente          Semente dos sorteios: a mesma semente e os mesmos parâmetros geram os mesmos dados.
+ */
+@ConfigurationProperties(prefix = "confeitaria.gerador")
+public record GeradorProperties(int dias, LocalDate fim, int materiasPrimas, int produtos, int vendasPorDia, int pedidosPorDia,
+                                int orcamentosPorDia, int threads, int lote, long semente) {
+
+    public GeradorProperties {
+        fim = fim != null ? fim : LocalDate.now().minusDays(1);
+    }
+}
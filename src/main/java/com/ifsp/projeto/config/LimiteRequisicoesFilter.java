@@ -0,0 +1,85 @@
+package com.ifsp.projeto.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * No perfil {@code virtual}, limita as requisições em andamento ao tamanho do pool de conexões principal.
+ * Com threads virtuais o Tomcat não tem mais o limite de threads, e é este filtro que segura o excesso: a espera pela vez
+ * é barata (a thread virtual fica estacionada) e, passado {@code confeitaria.requisicoes.espera}, a requisição recebe 503
+ * com {@code Retry-After}. As esperas e recusas aparecem em {@code confeitaria.requisicoes.espera} e {@code confeitaria.requisicoes.recusas}.
+ * <p>
+ * Não passam pelo limite as requisições que não usam o pool principal: os arquivos estáticos e os relatórios, que rodam
+ * no {@link ExecutorRelatorios} com pool de conexões próprio e recusam o excesso pela própria faixa. A reserva de blocos
+ * de IDs também não usa o pool principal ({@link GeradorIds}), por isso o limite não precisa deixar conexões livres.
+ */
+@Component
+@Profile("virtual")
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+    // Rotas que executam pelo ExecutorRelatorios
+    private static final Set<String> RELATORIOS = Set.of("/vendas", "/relatorio/vendas", "/api/vendas/eventos", "/api/producao/eventos");
+
+    private final Semaphore vagas;
+    private final long esperaNanos;
+    private final long retryAfterSegundos;
+    private final Counter recusas;
+
+    public LimiteRequisicoesFilter(HikariDataSource primarioDataSource, RequisicoesProperties properties, MeterRegistry meterRegistry) {
+        this.vagas = new Semaphore(primarioDataSource.getMaximumPoolSize(), true);
+        this.esperaNanos = properties.espera().toNanos();
+        this.retryAfterSegundos = Math.max(1, properties.retryAfter().toSeconds());
+        Gauge.builder("confeitaria.requisicoes.espera", vagas, Semaphore::getQueueLength)
+                .description("Requisições aguardando a vez de serem atendidas").register(meterRegistry);
+        this.recusas = Counter.builder("confeitaria.requisicoes.recusas")
+                .description("Requisições recusadas por espera longa demais").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getServletPath();
+        return caminho.endsWith(".css") || caminho.endsWith(".js") || caminho.startsWith("/images/") || RELATORIOS.contains(caminho);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean atendida;
+        try {
+            atendida = vagas.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            atendida = false;
+        }
+        if (!atendida) {
+            recusas.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSegundos));
+            response.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8).toString());
+            response.getWriter().write("Sistema ocupado no momento. Tente novamente em instantes.");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            vagas.release();
+        }
+    }
+}
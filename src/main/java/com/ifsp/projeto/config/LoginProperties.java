@@ -0,0 +1,27 @@
+package com.ifsp.projeto.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limites de tentativas de login e do executor de BCrypt, configuráveis em {@code application.properties}.
+ *
+ * @param limitePorLogin Tentativas com falha permitidas para um mesmo login dentro da janela.
+ * @param limitePorIp    Tentativas com falha permitidas para um mesmo endereço IP dentro da janela.
+ * @param janela         Tempo para recuperar todas as tentativas; elas voltam aos poucos, uma a cada {@code janela / limite}.
+ * @param maximoChaves   Quantidade máxima de logins e IPs acompanhados em memória.
+ * @param bcrypt         Executor dedicado ao cálculo e à verificação de senhas.
+ */
+@ConfigurationProperties(prefix = "confeitaria.login")
+public record LoginProperties(int limitePorLogin, int limitePorIp, Duration janela, long maximoChaves, Bcrypt bcrypt) {
+
+    /**
+     * @param threads    Threads que calculam BCrypt; limita o uso de CPU com senhas.
+     * @param fila       Verificações que podem aguardar uma thread livre; as excedentes são recusadas na hora.
+     * @param timeout    Tempo máximo de espera pelo resultado antes de recusar a verificação.
+     * @param retryAfter Tempo sugerido no cabeçalho {@code Retry-After} quando um cadastro ou troca de senha é recusado.
+     */
+    public record Bcrypt(int threads, int fila, Duration timeout, Duration retryAfter) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.ifsp.projeto.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita as tentativas de login com falha por login e por endereço IP, usando um balde de fichas para cada chave.
+ * Cada balde é um único {@link AtomicLong} com o instante teórico em que voltará a estar cheio (algoritmo GCRA):
+ * verificar e consumir uma ficha é um compare-and-set, sem travas. Os baldes ficam em um cache Caffeine limitado
+ * em tamanho e expiram quando ficam cheios de novo, então uma rajada de logins inventados não esgota a memória.
+ */
+@Component
+public class LoginThrottle {
+
+    private final long intervaloPorLogin;
+    private final long intervaloPorIp;
+    private final long janela;
+    private final Cache<String, AtomicLong> baldes;
+    private final Ticker relogio;
+
+    private final Counter bloqueiosPorLogin;
+    private final Counter bloqueiosPorIp;
+    private final Counter falhas;
+
+    @Autowired
+    public LoginThrottle(LoginProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    /**
+     * @param relogio Fonte do tempo em nanossegundos, usada pelos baldes e pela expiração do cache (nos testes, um relógio controlado).
+     */
+    LoginThrottle(LoginProperties properties, MeterRegistry meterRegistry, Ticker relogio) {
+        this.relogio = relogio;
+        this.janela = properties.janela().toNanos();
+        this.intervaloPorLogin = janela / properties.limitePorLogin();
+        this.intervaloPorIp = janela / properties.limitePorIp();
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(properties.maximoChaves())
+                .expireAfterAccess(properties.janela())
+                .ticker(relogio)
+                .build();
+
+        this.bloqueiosPorLogin = Counter.builder("confeitaria.login.bloqueios").tag("chave", "login")
+                .description("Tentativas de login recusadas antes da verificação da senha").register(meterRegistry);
+        this.bloqueiosPorIp = Counter.builder("confeitaria.login.bloqueios").tag("chave", "ip")
+                .description("Tentativas de login recusadas antes da verificação da senha").register(meterRegistry);
+        this.falhas = Counter.builder("confeitaria.login.falhas")
+                .description("Tentativas de login com falha").register(meterRegistry);
+        Gauge.builder("confeitaria.login.chaves", baldes, Cache::estimatedSize)
+                .description("Logins e IPs com tentativas recentes").register(meterRegistry);
+    }
+
+    /**
+     * Indica se uma tentativa de login deve ser recusada sem verificar a senha, por ter esgotado as tentativas
+     * do login ou do IP. Não consome fichas: só as falhas consomem.
+     *
+     * @param login O login informado (pode ser nulo).
+     * @param ip    O endereço de origem da requisição.
+     * @return true se a tentativa deve ser recusada.
+     */
+    public boolean bloqueado(String login, String ip) {
+        long agora = relogio.read();
+        if (login != null && !login.isBlank() && !temFicha(chaveLogin(login), intervaloPorLogin, agora)) {
+            bloqueiosPorLogin.increment();
+            return true;
+        }
+        if (ip != null && !temFicha(chaveIp(ip), intervaloPorIp, agora)) {
+            bloqueiosPorIp.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Registra uma tentativa com falha, consumindo uma ficha do login e uma do IP.
+     */
+    public void registrarFalha(String login, String ip) {
+        falhas.increment();
+        long agora = relogio.read();
+        if (login != null && !login.isBlank()) {
+            consumir(chaveLogin(login), intervaloPorLogin, agora);
+        }
+        if (ip != null) {
+            consumir(chaveIp(ip), intervaloPorIp, agora);
+        }
+    }
+
+    /**
+     * Um login bem-sucedido devolve todas as tentativas daquele login. As do IP continuam valendo.
+     */
+    @EventListener
+    public void aoAutenticar(AuthenticationSuccessEvent event) {
+        baldes.invalidate(chaveLogin(event.getAuthentication().getName()));
+    }
+
+    private boolean temFicha(String chave, long intervalo, long agora) {
+        AtomicLong balde = baldes.getIfPresent(chave);
+        // O balde tem ficha se, consumindo mais uma, não ultrapassar a janela
+        return balde == null || Math.max(balde.get(), agora) + intervalo - agora <= janela;
+    }
+
+    private void consumir(String chave, long intervalo, long agora) {
+        AtomicLong balde = baldes.get(chave, k -> new AtomicLong(agora));
+        balde.accumulateAndGet(agora, (cheioEm, instante) -> Math.min(Math.max(cheioEm, instante) + intervalo, instante + janela));
+    }
+
+    private static String chaveLogin(String login) {
+        return "login:" + login.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String chaveIp(String ip) {
+        return "ip:" + ip;
+    }
+}
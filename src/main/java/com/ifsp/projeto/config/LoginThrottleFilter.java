@@ -0,0 +1,36 @@
+package com.ifsp.projeto.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Recusa o POST de login antes da consulta ao usuário e do BCrypt quando o login ou o IP esgotaram as tentativas
+ * no {@link LoginThrottle}. Registrado na cadeia do Spring Security por {@link SecurityConfig}.
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private final LoginThrottle loginThrottle;
+
+    public LoginThrottleFilter(LoginThrottle loginThrottle) {
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !"/login".equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (loginThrottle.bloqueado(request.getParameter("username"), request.getRemoteAddr())) {
+            response.sendRedirect(request.getContextPath() + "/login?error=bloqueado");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
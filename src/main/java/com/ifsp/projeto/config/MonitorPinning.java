@@ -0,0 +1,95 @@
+package com.ifsp.projeto.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Com as requisições em threads virtuais, acompanha pelo JFR (evento {@code jdk.VirtualThreadPinned}) os bloqueios em que
+ * a thread virtual ficou presa à thread carregadora, por exemplo um {@code synchronized} em volta de I/O no driver do
+ * MySQL ou no Hibernate. Enquanto presa, a thread carregadora não atende outras requisições; com poucas carregadoras
+ * (uma por núcleo), alguns bloqueios assim bastam para a aplicação parar de responder.
+ * Cada bloqueio acima de {@code confeitaria.threads.pinning.limite} entra na métrica {@code confeitaria.threads.pinning},
+ * com a origem ({@code mysql}, {@code hibernate}, {@code hikari}, {@code aplicacao} ou {@code outros}) tirada da pilha.
+ * A primeira ocorrência de cada ponto do código sai no log com a pilha, para indicar o que trocar.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class MonitorPinning implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorPinning.class);
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final int FRAMES_NO_LOG = 20;
+
+    // Pacote -> origem; vale o primeiro frame da pilha, a partir do mais recente, que estiver em um desses pacotes
+    private static final Map<String, String> ORIGENS = Map.of(
+            "com.mysql.", "mysql",
+            "org.hibernate.", "hibernate",
+            "com.zaxxer.hikari.", "hikari",
+            "com.ifsp.projeto.", "aplicacao");
+
+    private final MeterRegistry meterRegistry;
+    private final RecordingStream stream;
+    private final Set<String> pontosRegistrados = ConcurrentHashMap.newKeySet();
+
+    public MonitorPinning(PinningProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.stream = new RecordingStream();
+        this.stream.enable(EVENTO).withThreshold(properties.limite()).withStackTrace();
+        this.stream.onEvent(EVENTO, this::registrar);
+        this.stream.startAsync();
+    }
+
+    void registrar(RecordedEvent evento) {
+        List<RecordedFrame> frames = evento.getStackTrace() != null ? evento.getStackTrace().getFrames() : List.of();
+        String origem = "outros";
+        RecordedFrame ponto = frames.isEmpty() ? null : frames.get(0);
+        busca:
+        for (RecordedFrame frame : frames) {
+            String classe = frame.getMethod().getType().getName();
+            for (Map.Entry<String, String> pacote : ORIGENS.entrySet()) {
+                if (classe.startsWith(pacote.getKey())) {
+                    origem = pacote.getValue();
+                    ponto = frame;
+                    break busca;
+                }
+            }
+        }
+
+        Timer.builder("confeitaria.threads.pinning").tag("origem", origem)
+                .description("Bloqueios com a thread virtual presa à thread carregadora")
+                .register(meterRegistry)
+                .record(evento.getDuration());
+
+        String local = ponto != null ? descrever(ponto) : "desconhecido";
+        if (pontosRegistrados.add(local)) {
+            log.warn("Thread virtual presa à thread carregadora por {} ms em {} (origem: {}):\n\t{}", evento.getDuration().toMillis(), local, origem,
+                    frames.stream().limit(FRAMES_NO_LOG).map(MonitorPinning::descrever).collect(Collectors.joining("\n\t")));
+        } else {
+            log.debug("Thread virtual presa à thread carregadora por {} ms em {}", evento.getDuration().toMillis(), local);
+        }
+    }
+
+    private static String descrever(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
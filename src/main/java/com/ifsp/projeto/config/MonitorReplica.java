@@ -0,0 +1,95 @@
+package com.ifsp.projeto.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta periodicamente o atraso de replicação da réplica de leitura ({@code SHOW REPLICA STATUS}) e informa ao
+ * {@link RoteamentoDataSource} se ela pode receber leituras. A réplica fica indisponível quando o atraso passa do
+ * limite, quando a replicação está parada ou quando a consulta falha; as leituras voltam para ela na próxima
+ * verificação em que o atraso estiver dentro do limite.
+ * O atraso e a disponibilidade aparecem nas métricas {@code confeitaria.replica.atraso} e {@code confeitaria.replica.disponivel}.
+ */
+public class MonitorReplica implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplica.class);
+
+    private final DataSource replica;
+    private final JdbcTemplate jdbcTemplate;
+    private final long atrasoMaximoSegundos;
+    private final ScheduledExecutorService agendador;
+
+    // -1 enquanto o atraso for desconhecido (replicação parada ou réplica inacessível)
+    private volatile long atrasoSegundos = -1;
+    private volatile boolean disponivel;
+
+    public MonitorReplica(DataSource replica, ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.jdbcTemplate.setQueryTimeout(Math.max(1, (int) properties.intervaloVerificacao().toSeconds()));
+        this.atrasoMaximoSegundos = properties.atrasoMaximo().toSeconds();
+        Gauge.builder("confeitaria.replica.atraso", this, monitor -> monitor.atrasoSegundos < 0 ? Double.NaN : monitor.atrasoSegundos)
+                .baseUnit("seconds").description("Atraso de replicação da réplica de leitura").register(meterRegistry);
+        Gauge.builder("confeitaria.replica.disponivel", this, monitor -> monitor.disponivel ? 1 : 0)
+                .description("1 se as leituras estão indo para a réplica, 0 se voltaram para o banco principal").register(meterRegistry);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("monitor-replica-");
+        threadFactory.setDaemon(true);
+        this.agendador = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.agendador.scheduleWithFixedDelay(this::verificar, 0, properties.intervaloVerificacao().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return O DataSource da réplica monitorada.
+     */
+    public DataSource replica() {
+        return replica;
+    }
+
+    /**
+     * @return {@code true} se a última verificação encontrou a réplica replicando com atraso dentro do limite.
+     */
+    public boolean disponivel() {
+        return disponivel;
+    }
+
+    void verificar() {
+        Long atraso;
+        try {
+            atraso = jdbcTemplate.query("SHOW REPLICA STATUS", rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                long segundos = rs.getLong("Seconds_Behind_Source");
+                return rs.wasNull() ? null : segundos;
+            });
+        } catch (DataAccessException e) {
+            log.debug("Falha ao consultar o atraso da réplica", e);
+            atraso = null;
+        }
+
+        boolean estavaDisponivel = disponivel;
+        atrasoSegundos = atraso != null ? atraso : -1;
+        disponivel = atraso != null && atraso <= atrasoMaximoSegundos;
+        if (estavaDisponivel && !disponivel) {
+            log.warn("Réplica de leitura indisponível (atraso: {}); leituras voltam para o banco principal", atraso != null ? atraso + "s" : "desconhecido");
+        } else if (!estavaDisponivel && disponivel) {
+            log.info("Réplica de leitura disponível (atraso: {}s); leituras somente leitura vão para a réplica", atraso);
+        }
+    }
+
+    @Override
+    public void close() {
+        agendador.shutdownNow();
+    }
+}
@@ -0,0 +1,14 @@
+package com.ifsp.projeto.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Detecção de threads virtuais presas à thread carregadora (pinning), usada apenas com {@code spring.threads.virtual.enabled=true}.
+ *
+ * @param limite Duração mínima de um bloqueio com a thread presa para que ele seja registrado (evento JFR {@code jdk.VirtualThreadPinned}).
+ */
+@ConfigurationProperties(prefix = "confeitaria.threads.pinning")
+public record PinningProperties(Duration limite) {
+}
@@ -0,0 +1,28 @@
+package com.ifsp.projeto.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regras de precificação configuráveis em {@code application.properties}.
+ *
+ * @param markupPorTipo Markup aplicado ao custo por tipo de produto (ex: Massa → 1.40). Tipos ausentes usam {@code confeitaria.produto.markup}.
+ * @param faixas        Descontos por quantidade: a maior faixa cuja quantidade mínima for atingida é aplicada.
+ */
+@ConfigurationProperties(prefix = "confeitaria.precificacao")
+public record PrecificacaoProperties(Map<String, Double> markupPorTipo, List<Faixa> faixas) {
+
+    public PrecificacaoProperties {
+        markupPorTipo = markupPorTipo != null ? Map.copyOf(markupPorTipo) : Map.of();
+        faixas = faixas != null ? List.copyOf(faixas) : List.of();
+    }
+
+    /**
+     * @param quantidadeMinima Quantidade a partir da qual o desconto vale.
+     * @param desconto         Desconto em porcentagem sobre o preço unitário (ex: 5 para 5%).
+     */
+    public record Faixa(double quantidadeMinima, double desconto) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.ifsp.projeto.config;
+
+import java.time.Duration;
+
+/**
+ * Lançada quando a faixa de relatórios está cheia ou o relatório passou do tempo máximo.
+ * Respondida com 503 e o cabeçalho {@code Retry-After}.
+ */
+public class RelatorioIndisponivelException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RelatorioIndisponivelException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ifsp.projeto.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Faixa reservada para os relatórios (bulkhead), configurável em {@code application.properties}.
+ *
+ * @param threads    Relatórios gerados ao mesmo tempo; é também o tamanho do pool de conexões dos relatórios.
+ * @param fila       Relatórios que podem aguardar uma thread livre; os excedentes recebem 503 na hora.
+ * @param timeout    Tempo máximo de um relatório, da espera na fila ao fim das consultas (aplicado também às consultas no banco).
+ * @param retryAfter Tempo sugerido ao cliente, no cabeçalho {@code Retry-After}, antes de tentar de novo.
+ */
+@ConfigurationProperties(prefix = "confeitaria.relatorios")
+public record RelatorioProperties(int threads, int fila, Duration timeout, Duration retryAfter) {
+}
@@ -0,0 +1,61 @@
+package com.ifsp.projeto.config;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * {@link HibernateJpaDialect} usado quando há réplica de leitura. As transações somente leitura, que o
+ * {@link RoteamentoDataSource} pode mandar para a réplica, não usam o cache de segundo nível nem o de consultas
+ * ({@link CacheMode#IGNORE}): uma entidade ou um resultado lido de uma réplica atrasada ficaria no cache e seria
+ * entregue também às transações de escrita, no banco principal, até a próxima alteração.
+ * <p>
+ * {@link CacheMode#GET} (ler do cache sem gravar) não basta: no Hibernate 6.4, uma consulta cacheável que não encontra
+ * o resultado no cache grava o que leu do banco mesmo nesse modo.
+ * <p>
+ * Os modos anteriores são restaurados no fim da transação, porque com o open-in-view a mesma sessão continua sendo
+ * usada pelo resto da requisição.
+ */
+public class ReplicaJpaDialect extends HibernateJpaDialect {
+
+    private static final String MODO_LEITURA = "jakarta.persistence.cache.retrieveMode";
+    private static final String MODO_GRAVACAO = "jakarta.persistence.cache.storeMode";
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object dadosTransacao = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return dadosTransacao;
+        }
+        // As propriedades do EntityManager valem para o find() e também para o modo de cache da sessão, usado nas consultas
+        Map<String, Object> propriedades = entityManager.getProperties();
+        LeituraSemCache leitura = new LeituraSemCache(dadosTransacao, entityManager,
+                propriedades.getOrDefault(MODO_LEITURA, CacheRetrieveMode.USE), propriedades.getOrDefault(MODO_GRAVACAO, CacheStoreMode.USE));
+        entityManager.setProperty(MODO_LEITURA, CacheRetrieveMode.BYPASS);
+        entityManager.setProperty(MODO_GRAVACAO, CacheStoreMode.BYPASS);
+        return leitura;
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof LeituraSemCache leitura) {
+            leitura.entityManager().setProperty(MODO_LEITURA, leitura.modoLeitura());
+            leitura.entityManager().setProperty(MODO_GRAVACAO, leitura.modoGravacao());
+            super.cleanupTransaction(leitura.dadosTransacao());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record LeituraSemCache(Object dadosTransacao, EntityManager entityManager, Object modoLeitura, Object modoGravacao) {
+    }
+}
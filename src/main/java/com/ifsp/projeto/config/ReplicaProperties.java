@@ -0,0 +1,19 @@
+package com.ifsp.projeto.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Réplica de leitura do MySQL, usada pelas transações somente leitura quando {@code url} estiver configurada.
+ *
+ * @param url                  URL JDBC da réplica. Sem ela, todas as conexões vão para o banco principal.
+ * @param username             Usuário da réplica; precisa do privilégio REPLICATION CLIENT para consultar o atraso.
+ * @param password             Senha do usuário da réplica.
+ * @param tamanhoPool          Conexões do pool da réplica, separado do pool do banco principal.
+ * @param atrasoMaximo         Atraso de replicação acima do qual as leituras voltam para o banco principal.
+ * @param intervaloVerificacao Intervalo entre as consultas ao atraso da réplica.
+ */
+@ConfigurationProperties(prefix = "confeitaria.datasource.replica")
+public record ReplicaProperties(String url, String username, String password, int tamanhoPool, Duration atrasoMaximo, Duration intervaloVerificacao) {
+}
@@ -0,0 +1,15 @@
+package com.ifsp.projeto.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limite de requisições atendidas ao mesmo tempo, ligado ao tamanho do pool de conexões principal (ver {@link LimiteRequisicoesFilter}).
+ *
+ * @param espera     Tempo máximo que uma requisição aguarda a vez antes de ser recusada com 503.
+ * @param retryAfter Tempo sugerido ao cliente, no cabeçalho {@code Retry-After}, antes de tentar de novo.
+ */
+@ConfigurationProperties(prefix = "confeitaria.requisicoes")
+public record RequisicoesProperties(Duration espera, Duration retryAfter) {
+}
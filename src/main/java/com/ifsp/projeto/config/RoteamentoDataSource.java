@@ -0,0 +1,61 @@
+package com.ifsp.projeto.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Escolhe o pool de conexões de cada transação:
+ * <ul>
+ *     <li>a reserva de um bloco de IDs pelo {@link GeradorIds}, feita em conexão e transação próprias, usa o pool dos IDs;</li>
+ *     <li>transações {@code @Transactional(readOnly = true)} vão para a réplica de leitura, se houver uma configurada e o
+ *     {@link MonitorReplica} indicar que ela está em dia;</li>
+ *     <li>os relatórios gerados pelo {@link ExecutorRelatorios} usam o pool dos relatórios, pequeno e separado;</li>
+ *     <li>todo o resto usa o pool principal.</li>
+ * </ul>
+ * A decisão é tomada quando a conexão é obtida, por isso este DataSource precisa ficar atrás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: sem ele, a conexão seria obtida no início
+ * da transação, antes de ela ser marcada como somente leitura.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIO, RELATORIOS, IDS, REPLICA
+    }
+
+    private final MonitorReplica monitor;
+
+    /**
+     * @param primario   Pool principal.
+     * @param relatorios Pool dos relatórios, no mesmo banco do principal.
+     * @param ids        Pool da reserva de blocos de IDs, no mesmo banco do principal.
+     * @param monitor    Monitor da réplica de leitura, ou {@code null} se não houver réplica.
+     */
+    public RoteamentoDataSource(DataSource primario, DataSource relatorios, DataSource ids, MonitorReplica monitor) {
+        this.monitor = monitor;
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(Destino.PRIMARIO, primario);
+        destinos.put(Destino.RELATORIOS, relatorios);
+        destinos.put(Destino.IDS, ids);
+        if (monitor != null) {
+            destinos.put(Destino.REPLICA, monitor.replica());
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (GeradorIds.emExecucao()) {
+            return Destino.IDS;
+        }
+        if (monitor != null && monitor.disponivel() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Destino.REPLICA;
+        }
+        return ExecutorRelatorios.emExecucao() ? Destino.RELATORIOS : Destino.PRIMARIO;
+    }
+}
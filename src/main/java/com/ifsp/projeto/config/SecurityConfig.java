@@ -1,5 +1,6 @@
 package com.ifsp.projeto.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -7,22 +8,25 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     private final CustomAuthenticationFailureHandler customAuthenticationFailureHandler;
+    private final LoginThrottle loginThrottle;
 
-    public SecurityConfig(CustomAuthenticationFailureHandler customAuthenticationFailureHandler) {
+    public SecurityConfig(CustomAuthenticationFailureHandler customAuthenticationFailureHandler, LoginThrottle loginThrottle) {
         this.customAuthenticationFailureHandler = customAuthenticationFailureHandler;
+        this.loginThrottle = loginThrottle;
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(authorize -> authorize
-                        .requestMatchers("/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/admin/**", "/actuator/**").hasRole("ADMIN")
                         .requestMatchers(
                                 "/", 
                                 "/login", 
@@ -47,14 +51,16 @@ public class SecurityConfig {
                         .defaultSuccessUrl("/home", true)
                         .permitAll()
                 )
+                .addFilterBefore(new LoginThrottleFilter(loginThrottle), UsernamePasswordAuthenticationFilter.class)
                 .logout(logout -> logout
                         .logoutSuccessUrl("/login?logout")
                         .permitAll());
         return http.build();
     }
 
+    // BCrypt roda em um pool próprio e limitado, fora das threads do Tomcat (ver LoginProperties.Bcrypt)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(LoginProperties loginProperties, MeterRegistry meterRegistry) {
+        return new ExecutorPasswordEncoder(new BCryptPasswordEncoder(), loginProperties.bcrypt(), meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.ifsp.projeto.config;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Lançada quando o executor de BCrypt está saturado e a senha não pôde ser calculada ou verificada a tempo.
+ */
+public class SenhaIndisponivelException extends AuthenticationServiceException {
+
+    public SenhaIndisponivelException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
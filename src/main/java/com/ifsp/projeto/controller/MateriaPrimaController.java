@@ -1,7 +1,7 @@
 package com.ifsp.projeto.controller;
 
+import com.ifsp.projeto.controller.dto.MateriaPrimaResumo;
 import com.ifsp.projeto.model.MateriaPrima;
-import com.ifsp.projeto.repository.MateriaPrimaRepository;
 import com.ifsp.projeto.service.MateriaPrimaService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -9,17 +9,16 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Controller
 public class MateriaPrimaController {
 
     private final MateriaPrimaService materiaPrimaService;
-    private final MateriaPrimaRepository materiaPrimaRepository;
 
-    public MateriaPrimaController(MateriaPrimaService materiaPrimaService, MateriaPrimaRepository materiaPrimaRepository) {
+    public MateriaPrimaController(MateriaPrimaService materiaPrimaService) {
         this.materiaPrimaService = materiaPrimaService;
-        this.materiaPrimaRepository = materiaPrimaRepository;
     }
 
     @GetMapping("/estoque")
@@ -53,7 +52,7 @@ public class MateriaPrimaController {
     @GetMapping("/formularioMP")
     public String formularioMP(Model model) {
         model.addAttribute("materiaPrima", new MateriaPrima());
-        model.addAttribute("materiasPrimas", materiaPrimaService.findAll());
+        model.addAttribute("materiasPrimas", materiaPrimaService.findResumos());
         return "formularioMP";
     }
 
@@ -93,7 +92,10 @@ public class MateriaPrimaController {
 
     @GetMapping("/api/materia-prima/sugestoes")
     @ResponseBody
-    public List<MateriaPrima> sugerirMateriasPrimas(@RequestParam("termo") String termo) {
-        return materiaPrimaRepository.findByNomeContainingIgnoreCase(termo);
+    public List<MateriaPrimaResumo> sugerirMateriasPrimas(@RequestParam("termo") String termo) {
+        String busca = termo.toLowerCase(Locale.ROOT);
+        return materiaPrimaService.findResumos().stream()
+                .filter(materiaPrima -> materiaPrima.nome() != null && materiaPrima.nome().toLowerCase(Locale.ROOT).contains(busca))
+                .toList();
     }
 }
\ No newline at end of file
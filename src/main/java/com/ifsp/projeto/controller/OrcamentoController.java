@@ -1,9 +1,13 @@
 package com.ifsp.projeto.controller;
 
 import com.ifsp.projeto.controller.dto.OrcamentoRequest;
+import com.ifsp.projeto.controller.dto.PrecoCalculadoDTO;
+import com.ifsp.projeto.model.Pedido;
 import com.ifsp.projeto.service.OrcamentoService;
+import com.ifsp.projeto.service.PrecificacaoService;
 import com.ifsp.projeto.service.ProdutoService;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
@@ -11,27 +15,37 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.LocalDate;
+
 @Controller
 public class OrcamentoController {
 
+    private static final int ORCAMENTOS_POR_PAGINA = 20;
+
     private final OrcamentoService orcamentoService;
     private final ProdutoService produtoService;
+    private final PrecificacaoService precificacaoService;
 
-    public OrcamentoController(OrcamentoService orcamentoService, ProdutoService produtoService) {
+    public OrcamentoController(OrcamentoService orcamentoService, ProdutoService produtoService, PrecificacaoService precificacaoService) {
         this.orcamentoService = orcamentoService;
         this.produtoService = produtoService;
+        this.precificacaoService = precificacaoService;
     }
 
     @GetMapping("/orcamentos")
-    public String listarOrcamentos(Model model) {
-        model.addAttribute("orcamentos", orcamentoService.findAll());
+    public String listarOrcamentos(@RequestParam(name = "cliente", required = false) String cliente,
+                                   @RequestParam(name = "status", required = false) String status,
+                                   @RequestParam(name = "ordem", defaultValue = "desc") String ordem,
+                                   @RequestParam(name = "pagina", defaultValue = "0") int pagina,
+                                   Model model) {
+        model.addAttribute("orcamentos", orcamentoService.findResumos(cliente, status, ordem, pagina, ORCAMENTOS_POR_PAGINA));
         return "listaOrcamentos";
     }
 
     @GetMapping("/orcamento/novo")
     public String novoOrcamento(Model model) {
         model.addAttribute("orcamento", new OrcamentoRequest());
-        model.addAttribute("produtos", produtoService.findAll());
+        model.addAttribute("produtos", produtoService.findResumos());
         return "formularioOrcamento";
     }
 
@@ -63,15 +77,34 @@ public class OrcamentoController {
         return "redirect:/orcamentos";
     }
 
+    @PostMapping("/orcamento/aprovar/{id}")
+    public String aprovarOrcamento(@PathVariable Long id, @RequestParam("dataEntrega") String dataEntrega, RedirectAttributes redirectAttributes) {
+        try {
+            Pedido pedido = orcamentoService.aprovarEConverter(id, dataEntrega.isEmpty() ? null : LocalDate.parse(dataEntrega));
+            redirectAttributes.addFlashAttribute("success", "Orçamento aprovado e convertido em pedido com sucesso!");
+            return "redirect:/pedido/" + pedido.getId();
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+            return "redirect:/orcamentos";
+        }
+    }
+
     @GetMapping("/orcamento/editar/{id}")
     public String editarOrcamento(@PathVariable Long id, Model model) {
         try {
             OrcamentoRequest orcamentoRequest = orcamentoService.findOrcamentoRequestById(id);
             model.addAttribute("orcamento", orcamentoRequest);
-            model.addAttribute("produtos", produtoService.findAll());
+            model.addAttribute("produtos", produtoService.findResumos());
             return "formularioOrcamento";
         } catch (IllegalArgumentException e) {
             return "redirect:/orcamentos";
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/api/orcamento/preco")
+    @ResponseBody
+    public ResponseEntity<PrecoCalculadoDTO> calcularPreco(@RequestParam("produtoId") Long produtoId,
+                                                           @RequestParam(name = "quantidade", defaultValue = "1") double quantidade) {
+        return ResponseEntity.of(precificacaoService.calcularPreco(produtoId, quantidade));
+    }
+}
@@ -1,10 +1,13 @@
 package com.ifsp.projeto.controller;
 
+import com.ifsp.projeto.controller.dto.AtualizacaoStatusResultado;
 import com.ifsp.projeto.controller.dto.PedidoRequest;
 import com.ifsp.projeto.model.Pedido;
+import com.ifsp.projeto.model.StatusPedido;
 import com.ifsp.projeto.service.PedidoService;
 import com.ifsp.projeto.service.ProdutoService;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -16,6 +19,8 @@ import java.util.List;
 @Controller
 public class PedidoController {
 
+    private static final int PEDIDOS_POR_PAGINA = 20;
+
     private final PedidoService pedidoService;
     private final ProdutoService produtoService;
 
@@ -28,16 +33,19 @@ public class PedidoController {
     public String listarPedidos(@RequestParam(name = "cliente", required = false) String cliente,
                               @RequestParam(name = "status", required = false) String status,
                               @RequestParam(name = "data", required = false) String dataStr,
+                              @RequestParam(name = "pagina", defaultValue = "0") int pagina,
                               Model model) {
-        List<Pedido> pedidos = pedidoService.findWithFilters(cliente, status, dataStr);
+        Page<Pedido> pedidos = pedidoService.findWithFilters(cliente, status, dataStr, pagina, PEDIDOS_POR_PAGINA);
         model.addAttribute("pedidos", pedidos);
+        model.addAttribute("statusPedido", StatusPedido.values());
+        model.addAttribute("statusDestino", StatusPedido.destinos());
         return "listaPedidos";
     }
 
     @GetMapping("/pedido/novo")
     public String novoPedido(Model model) {
         model.addAttribute("pedido", new PedidoRequest());
-        model.addAttribute("produtos", produtoService.findAll());
+        model.addAttribute("produtos", produtoService.findResumos());
         return "formularioPedido";
     }
 
@@ -85,4 +93,18 @@ public class PedidoController {
         }
         return "redirect:/pedidos";
     }
-}
\ No newline at end of file
+
+    @PostMapping("/pedidos/atualizar-status")
+    public String atualizarStatusEmLote(@RequestParam(name = "ids", required = false) List<Long> ids, @RequestParam String status, RedirectAttributes redirectAttributes) {
+        try {
+            AtualizacaoStatusResultado resultado = pedidoService.atualizarStatusEmLote(ids, status);
+            redirectAttributes.addFlashAttribute("success", resultado.atualizados().size() + " pedido(s) atualizado(s) com sucesso!");
+            if (!resultado.rejeitados().isEmpty()) {
+                redirectAttributes.addFlashAttribute("error", "Pedidos não atualizados (status atual não permite a mudança): " + resultado.rejeitados());
+            }
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/pedidos";
+    }
+}
@@ -1,10 +1,10 @@
 package com.ifsp.projeto.controller;
 
+import com.ifsp.projeto.config.ExecutorRelatorios;
 import com.ifsp.projeto.controller.dto.ProducaoDTO;
 import com.ifsp.projeto.controller.dto.ProducaoEventoDTO;
 import com.ifsp.projeto.controller.dto.ProducaoRequest;
 import com.ifsp.projeto.model.Producao;
-import com.ifsp.projeto.model.Produto;
 import com.ifsp.projeto.service.ProducaoService;
 import com.ifsp.projeto.service.ProdutoService;
 import org.slf4j.Logger;
@@ -25,16 +25,17 @@ public class ProducaoController {
 
     private final ProducaoService producaoService;
     private final ProdutoService produtoService;
+    private final ExecutorRelatorios executorRelatorios;
 
-    public ProducaoController(ProducaoService producaoService, ProdutoService produtoService) {
+    public ProducaoController(ProducaoService producaoService, ProdutoService produtoService, ExecutorRelatorios executorRelatorios) {
         this.producaoService = producaoService;
         this.produtoService = produtoService;
+        this.executorRelatorios = executorRelatorios;
     }
 
     @GetMapping("/producao/registrar")
     public String registrarProducao(Model model, @RequestParam(value = "data", required = false) String data) {
-        List<Produto> produtos = produtoService.findAll();
-        model.addAttribute("produtos", produtos);
+        model.addAttribute("produtos", produtoService.findResumos());
         if (data != null) {
             model.addAttribute("dataProducao", data);
         } else {
@@ -63,10 +64,32 @@ public class ProducaoController {
             return "redirect:/producao/registrar?data=" + producaoRequest.getDataProducao();
         }
 
-        producaoService.registrarProducao(producaoRequest.getProdutos(), dataProducao);
+        try {
+            producaoService.registrarProducao(producaoRequest.getProdutos(), dataProducao);
+        } catch (IllegalStateException e) {
+            // A receita foi removida depois da validação
+            redirectAttributes.addFlashAttribute("errosDeEstoque", e.getMessage());
+            return "redirect:/producao/registrar?data=" + producaoRequest.getDataProducao();
+        }
         return "redirect:/producao/diaria?data=" + dataProducao.toString();
     }
 
+    @PostMapping("/producao/pedidos")
+    public String registrarProducaoDosPedidos(@RequestParam("data") String dataStr, RedirectAttributes redirectAttributes) {
+        LocalDate data = LocalDate.parse(dataStr);
+        try {
+            List<Producao> lotes = producaoService.registrarProducaoDosPedidos(data);
+            if (lotes.isEmpty()) {
+                redirectAttributes.addFlashAttribute("error", "Não há pedidos pendentes com entrega nesta data.");
+            } else {
+                redirectAttributes.addFlashAttribute("success", lotes.size() + " lote(s) de produção gerado(s) a partir dos pedidos.");
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/producao/diaria?data=" + data;
+    }
+
     @GetMapping("/producao/diaria")
     public String producaoDiaria(@RequestParam(value = "data", required = false) String dataStr, Model model) {
         LocalDate data;
@@ -122,7 +145,7 @@ public class ProducaoController {
     @GetMapping("/api/producao/eventos")
     @ResponseBody
     public List<ProducaoEventoDTO> getProducaoEventos() {
-        return producaoService.getProducaoEventos();
+        return executorRelatorios.executar(producaoService::getProducaoEventos);
     }
 
     @GetMapping("/api/producao/data")
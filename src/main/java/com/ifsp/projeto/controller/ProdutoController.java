@@ -1,9 +1,9 @@
 package com.ifsp.projeto.controller;
 
 import com.ifsp.projeto.controller.dto.IngredienteDetalheDTO;
+import com.ifsp.projeto.controller.dto.ProdutoResumo;
 import com.ifsp.projeto.model.Ingrediente;
 import com.ifsp.projeto.model.Produto;
-import com.ifsp.projeto.repository.ProdutoRepository;
 import com.ifsp.projeto.service.ProdutoService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +14,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Controller
@@ -22,11 +23,9 @@ public class ProdutoController {
     private static final Logger log = LoggerFactory.getLogger(ProdutoController.class);
 
     private final ProdutoService produtoService;
-    private final ProdutoRepository produtoRepository;
 
-    public ProdutoController(ProdutoService produtoService, ProdutoRepository produtoRepository) {
+    public ProdutoController(ProdutoService produtoService) {
         this.produtoService = produtoService;
-        this.produtoRepository = produtoRepository;
     }
 
     @GetMapping("/formulario-produto")
@@ -37,7 +36,7 @@ public class ProdutoController {
 
     @GetMapping("/produtos")
     public String listarProdutos(Model model) {
-        model.addAttribute("produtos", produtoService.findAll());
+        model.addAttribute("produtos", produtoService.findResumos());
         return "listaProdutos";
     }
 
@@ -121,7 +120,11 @@ public class ProdutoController {
 
     @GetMapping("/api/produtos/sugestoes")
     @ResponseBody
-    public List<Produto> sugerirProdutos(@RequestParam("termo") String termo) {
-        return produtoRepository.findByNomeContainingIgnoreCase(termo);
+    public List<ProdutoResumo> sugerirProdutos(@RequestParam("termo") String termo) {
+        // Filtra o catálogo em cache: a busca a cada tecla não chega ao banco
+        String busca = termo.toLowerCase(Locale.ROOT);
+        return produtoService.findResumos().stream()
+                .filter(produto -> produto.nome() != null && produto.nome().toLowerCase(Locale.ROOT).contains(busca))
+                .toList();
     }
 }
\ No newline at end of file
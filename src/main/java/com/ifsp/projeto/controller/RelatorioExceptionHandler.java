@@ -0,0 +1,26 @@
+package com.ifsp.projeto.controller;
+
+import com.ifsp.projeto.config.RelatorioIndisponivelException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Responde aos relatórios recusados pela faixa de relatórios com 503 e {@code Retry-After}, sem ocupar a requisição.
+ */
+@ControllerAdvice
+public class RelatorioExceptionHandler {
+
+    @ExceptionHandler(RelatorioIndisponivelException.class)
+    public ResponseEntity<String> relatorioIndisponivel(RelatorioIndisponivelException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(e.getMessage());
+    }
+}
@@ -0,0 +1,35 @@
+package com.ifsp.projeto.controller;
+
+import com.ifsp.projeto.config.LoginProperties;
+import com.ifsp.projeto.config.SenhaIndisponivelException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Responde com 503 e {@code Retry-After} quando o executor de BCrypt recusa uma senha fora do login: cadastro,
+ * troca de senha, de login ou de pergunta secreta e redefinição da senha esquecida. No login, a recusa é tratada
+ * pelo {@link com.ifsp.projeto.config.CustomAuthenticationFailureHandler}.
+ */
+@ControllerAdvice
+public class SenhaExceptionHandler {
+
+    private final long retryAfterSegundos;
+
+    public SenhaExceptionHandler(LoginProperties loginProperties) {
+        this.retryAfterSegundos = Math.max(1, loginProperties.bcrypt().retryAfter().toSeconds());
+    }
+
+    @ExceptionHandler(SenhaIndisponivelException.class)
+    public ResponseEntity<String> senhaIndisponivel(SenhaIndisponivelException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSegundos))
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body("Sistema ocupado no momento. Tente novamente em instantes.");
+    }
+}
@@ -1,16 +1,16 @@
 package com.ifsp.projeto.controller;
 
+import com.ifsp.projeto.config.ExecutorRelatorios;
 import com.ifsp.projeto.controller.dto.ItemVendaDTO;
 import com.ifsp.projeto.controller.dto.ProducaoDisponivelDTO;
+import com.ifsp.projeto.controller.dto.RelatorioVendasDTO;
 import com.ifsp.projeto.controller.dto.VendaDetalheDTO;
 import com.ifsp.projeto.controller.dto.VendaEventoDTO;
 import com.ifsp.projeto.controller.dto.VendaRequest;
-import com.ifsp.projeto.model.ItemVenda;
 import com.ifsp.projeto.model.Venda;
 import com.ifsp.projeto.service.ProducaoService;
 import com.ifsp.projeto.service.VendaService;
 import org.springframework.stereotype.Controller;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -23,23 +23,24 @@ public class VendaController {
 
     private final VendaService vendaService;
     private final ProducaoService producaoService;
+    private final ExecutorRelatorios executorRelatorios;
 
-    public VendaController(VendaService vendaService, ProducaoService producaoService) {
+    public VendaController(VendaService vendaService, ProducaoService producaoService, ExecutorRelatorios executorRelatorios) {
         this.vendaService = vendaService;
         this.producaoService = producaoService;
+        this.executorRelatorios = executorRelatorios;
     }
 
     @GetMapping("/vendas")
     public String vendas(Model model) {
-        List<Venda> vendas = vendaService.findAllWithDetails();
-        int totalQuantidade = vendas.stream().mapToInt(Venda::getQuantidade).sum();
-        double totalValor = vendas.stream().mapToDouble(Venda::getValorVenda).sum();
-
-        model.addAttribute("vendas", vendas);
+        RelatorioVendasDTO relatorio = executorRelatorios.executar(() ->
+                new RelatorioVendasDTO(vendaService.findAllWithDetails(), vendaService.findMargensByPeriod(null, null)));
+        model.addAttribute("vendas", relatorio.vendas());
         model.addAttribute("dataInicio", null);
         model.addAttribute("dataFim", null);
-        model.addAttribute("totalQuantidade", totalQuantidade);
-        model.addAttribute("totalValor", totalValor);
+        model.addAttribute("totalQuantidade", relatorio.totalQuantidade());
+        model.addAttribute("totalValor", relatorio.totalValor());
+        model.addAttribute("margens", relatorio.margens());
         return "relatorioVendas";
     }
 
@@ -47,15 +48,14 @@ public class VendaController {
     public String relatorioVendas(@RequestParam(value = "dataInicio", required = false) String dataInicioStr,
                                   @RequestParam(value = "dataFim", required = false) String dataFimStr,
                                   Model model) {
-        List<Venda> vendas = vendaService.findVendasByPeriod(dataInicioStr, dataFimStr);
-        int totalQuantidade = vendas.stream().flatMap(venda -> venda.getItens().stream()).mapToInt(ItemVenda::getQuantidade).sum();
-        double totalValor = vendas.stream().mapToDouble(Venda::getValorVenda).sum();
-
-        model.addAttribute("vendas", vendas);
+        RelatorioVendasDTO relatorio = executorRelatorios.executar(() ->
+                new RelatorioVendasDTO(vendaService.findVendasByPeriod(dataInicioStr, dataFimStr), vendaService.findMargensByPeriod(dataInicioStr, dataFimStr)));
+        model.addAttribute("vendas", relatorio.vendas());
         model.addAttribute("dataInicio", dataInicioStr != null && !dataInicioStr.isEmpty() ? LocalDate.parse(dataInicioStr) : null);
         model.addAttribute("dataFim", dataFimStr != null && !dataFimStr.isEmpty() ? LocalDate.parse(dataFimStr) : null);
-        model.addAttribute("totalQuantidade", totalQuantidade);
-        model.addAttribute("totalValor", totalValor);
+        model.addAttribute("totalQuantidade", relatorio.totalQuantidadeItens());
+        model.addAttribute("totalValor", relatorio.totalValor());
+        model.addAttribute("margens", relatorio.margens());
 
         return "relatorioVendas";
     }
@@ -63,7 +63,7 @@ public class VendaController {
     @GetMapping("/api/vendas/eventos")
     @ResponseBody
     public List<VendaEventoDTO> getVendaEventos() {
-        return vendaService.getVendaEventos();
+        return executorRelatorios.executar(vendaService::getVendaEventos);
     }
 
     @GetMapping("/api/vendas/data")
@@ -96,7 +96,6 @@ public class VendaController {
     }
 
     @PostMapping("/venda/nova")
-    @Transactional
     public String salvarVenda(@RequestParam Long producaoId,
                               @RequestParam int quantidade,
                               @RequestParam double valorVenda,
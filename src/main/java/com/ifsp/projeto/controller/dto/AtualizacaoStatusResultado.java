@@ -0,0 +1,5 @@
+package com.ifsp.projeto.controller.dto;
+
+import java.util.List;
+
+public record AtualizacaoStatusResultado(List<Long> atualizados, List<Long> rejeitados) {}
@@ -0,0 +1,3 @@
+package com.ifsp.projeto.controller.dto;
+
+public record CustoProdutoDTO(Long id, String nome, String tipo, Double custo) {}
@@ -1,11 +1,9 @@
 package com.ifsp.projeto.controller.dto;
 
-import jakarta.validation.constraints.NotNull;
-
 public class ItemOrcamentoDTO {
     private Long produtoId;
     private int quantidade;
-    @NotNull(message = "O valor unitário não pode ser nulo.")
+    // Apenas exibição: o valor gravado é sempre calculado pelo PrecificacaoService
     private Double valorUnitario;
 
     public Double getValorUnitario() {
@@ -0,0 +1,12 @@
+package com.ifsp.projeto.controller.dto;
+
+public record MargemProdutoDTO(Long produtoId, String produto, Long quantidade, Double receita, Double custo) {
+
+    public double margem() {
+        return receita - custo;
+    }
+
+    public double margemPercentual() {
+        return receita > 0 ? margem() / receita * 100 : 0.0;
+    }
+}
@@ -1,23 +1,21 @@
 package com.ifsp.projeto.controller.dto;
 
-import com.ifsp.projeto.model.MateriaPrima;
-
 public class MateriaPrimaComAlertaDTO {
-    private final MateriaPrima materiaPrima;
+    private final MateriaPrimaResumo materiaPrima;
     private final boolean lowStock;
     private final Double valorTotal;
 
-    public MateriaPrimaComAlertaDTO(MateriaPrima materiaPrima, boolean isLowStock) {
+    public MateriaPrimaComAlertaDTO(MateriaPrimaResumo materiaPrima, boolean isLowStock) {
         this.materiaPrima = materiaPrima;
         this.lowStock = isLowStock;
-        if (materiaPrima.getQuantidade() != null && materiaPrima.getValor() != null) {
-            this.valorTotal = materiaPrima.getQuantidade() * materiaPrima.getValor();
+        if (materiaPrima.quantidade() != null && materiaPrima.valor() != null) {
+            this.valorTotal = materiaPrima.quantidade() * materiaPrima.valor();
         } else {
             this.valorTotal = 0.0;
         }
     }
 
-    public MateriaPrima getMateriaPrima() {
+    public MateriaPrimaResumo getMateriaPrima() {
         return materiaPrima;
     }
 
@@ -0,0 +1,14 @@
+package com.ifsp.projeto.controller.dto;
+
+/**
+ * Cópia imutável dos dados de uma matéria-prima, usada nas listagens e guardada no cache (em vez da entidade).
+ */
+public record MateriaPrimaResumo(Long id, String nome, String unidade, Double quantidade, Double valor, Double quantidadeMinima) {
+
+    public boolean isLowStock() {
+        if (quantidade != null && quantidadeMinima != null) {
+            return Double.compare(quantidade, quantidadeMinima) <= 0;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,5 @@
+package com.ifsp.projeto.controller.dto;
+
+import java.time.LocalDate;
+
+public record OrcamentoResumo(Long id, String cliente, LocalDate dataOrcamento, String status, Double valorTotal, Double desconto, Double valorFinal, Long quantidadeItens) {}
@@ -0,0 +1,3 @@
+package com.ifsp.projeto.controller.dto;
+
+public record PrecoCalculadoDTO(Long produtoId, double quantidade, double custoUnitario, double desconto, double valorUnitario, double valorTotal) {}
@@ -0,0 +1,3 @@
+package com.ifsp.projeto.controller.dto;
+
+public record ProdutoPrecoDTO(Long id, Double preco) {}
@@ -0,0 +1,6 @@
+package com.ifsp.projeto.controller.dto;
+
+/**
+ * Dados de catálogo de um produto usados em listagens e seleções, sem a receita.
+ */
+public record ProdutoResumo(Long id, String nome, String tipo, double preco, Integer rendimento) {}
@@ -0,0 +1,30 @@
+package com.ifsp.projeto.controller.dto;
+
+import com.ifsp.projeto.model.ItemVenda;
+import com.ifsp.projeto.model.Venda;
+
+import java.util.List;
+
+public record RelatorioVendasDTO(List<Venda> vendas, List<MargemProdutoDTO> margens) {
+
+    /**
+     * @return A soma das quantidades registradas em cada venda.
+     */
+    public int totalQuantidade() {
+        return vendas.stream().mapToInt(Venda::getQuantidade).sum();
+    }
+
+    /**
+     * @return A soma das quantidades dos itens das vendas; exige os itens já carregados.
+     */
+    public int totalQuantidadeItens() {
+        return vendas.stream().flatMap(venda -> venda.getItens().stream()).mapToInt(ItemVenda::getQuantidade).sum();
+    }
+
+    /**
+     * @return A soma do valor das vendas.
+     */
+    public double totalValor() {
+        return vendas.stream().mapToDouble(Venda::getValorVenda).sum();
+    }
+}
@@ -0,0 +1,427 @@
+package com.ifsp.projeto.gerador;
+
+import com.ifsp.projeto.config.GeradorProperties;
+import com.ifsp.projeto.model.Pedido;
+import com.ifsp.projeto.model.StatusPedido;
+import com.ifsp.projeto.service.PrecificacaoService;
+import com.ifsp.projeto.service.PrecosAlteradosEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gera um histórico sintético da confeitaria direto no banco, para medir consultas, relatórios e testes de carga com
+ * anos de dados: matérias-primas, produtos com receita, produção diária, vendas com seus itens, pedidos e orçamentos.
+ * <ul>
+ *     <li>o volume de cada dia segue a sazonalidade do mês (maio e dezembro mais fortes, começo do ano mais fraco) e o
+ *     dia da semana (pico no sábado);</li>
+ *     <li>a popularidade dos produtos segue uma curva de Zipf: poucos produtos respondem pela maior parte das vendas;</li>
+ *     <li>as cestas têm em geral um ou dois itens e raramente passam de cinco;</li>
+ *     <li>a produção de cada dia cobre o que foi vendido, com uma sobra de até 15%.</li>
+ * </ul>
+ * As linhas são gravadas com JDBC em lote, sem o Hibernate, e os meses são gerados e gravados em paralelo, cada um na
+ * sua transação. Os IDs são reservados em blocos grandes na mesma tabela {@code sequencia_id} das entidades, então a
+ * aplicação continua a numeração depois deles. Como as linhas não passam pelo Hibernate, os caches desta instância
+ * (Spring e segundo nível) são limpos ao final; outras instâncias no ar só as veem quando os caches delas expirarem.
+ */
+@Component
+public class GeradorDados {
+
+    private static final Logger log = LoggerFactory.getLogger(GeradorDados.class);
+
+    // Tamanho do bloco do gerador sequencia_id das entidades (model/package-info.java)
+    private static final int ALOCACAO_IDS = 50;
+    private static final int BLOCO_IDS = 10_000;
+    private static final int PEDIDOS_FUTUROS_DIAS = 14;
+
+    // Fator de volume por mês (janeiro a dezembro) e por dia da semana
+    private static final double[] SAZONALIDADE = {0.80, 0.85, 0.95, 1.00, 1.25, 1.05, 0.95, 0.95, 1.00, 1.05, 1.10, 1.40};
+    private static final Map<DayOfWeek, Double> SEMANA = new EnumMap<>(Map.of(
+            DayOfWeek.MONDAY, 0.70, DayOfWeek.TUESDAY, 0.80, DayOfWeek.WEDNESDAY, 0.85, DayOfWeek.THURSDAY, 0.90,
+            DayOfWeek.FRIDAY, 1.15, DayOfWeek.SATURDAY, 1.45, DayOfWeek.SUNDAY, 1.15));
+
+    // Nome, unidade e valor médio por unidade
+    private static final Object[][] INSUMOS = {
+            {"Farinha de trigo", "g", 0.006}, {"Açúcar", "g", 0.005}, {"Ovo", "un", 0.80}, {"Manteiga", "g", 0.05},
+            {"Leite", "ml", 0.005}, {"Chocolate em pó", "g", 0.04}, {"Fermento", "g", 0.06}, {"Leite condensado", "g", 0.02},
+            {"Creme de leite", "g", 0.025}, {"Morango", "g", 0.03}, {"Coco ralado", "g", 0.04}, {"Doce de leite", "g", 0.03},
+            {"Castanha", "g", 0.09}, {"Essência de baunilha", "ml", 0.10}, {"Limão", "un", 0.50}, {"Maracujá", "un", 1.20}};
+    private static final String[] PRODUTOS = {"Bolo de chocolate", "Bolo de cenoura", "Brigadeiro", "Beijinho", "Torta de limão",
+            "Pão de mel", "Cupcake", "Brownie", "Cheesecake", "Bolo de pote", "Palha italiana", "Pudim", "Quindim", "Sonho"};
+    private static final String[] TIPOS = {"Massa", "Recheio", "Outros"};
+    private static final String[] MASSAS = {"Branca", "Chocolate", "Red velvet", "Cenoura"};
+    private static final String[] RECHEIOS = {"Brigadeiro", "Doce de leite", "Ninho", "Morango", "Prestígio"};
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Henrique", "Isabela",
+            "João", "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael", "Sofia", "Tiago", "Vitória", "Yuri"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Lima", "Pereira", "Costa", "Almeida", "Ferreira", "Rodrigues"};
+    // Valores do formulário de venda, com o peso de cada um
+    private static final String[] FORMAS_PAGAMENTO = {"pix", "cartao", "dinheiro", "prazo"};
+    private static final int[] PESOS_PAGAMENTO = {40, 35, 20, 5};
+
+    // Tabelas na ordem de gravação (pais antes dos filhos) e o INSERT de cada uma
+    private static final Map<String, String> INSERTS = new LinkedHashMap<>();
+
+    static {
+        INSERTS.put("materia_prima", "INSERT INTO materia_prima (quantidade, quantidade_minima, valor, id, nome, unidade) VALUES (?, ?, ?, ?, ?, ?)");
+        INSERTS.put("produto", "INSERT INTO produto (preco, rendimento, id, nome, tipo) VALUES (?, ?, ?, ?, ?)");
+        INSERTS.put("ingrediente", "INSERT INTO ingrediente (quantidade, id, materia_prima_id, produto_id) VALUES (?, ?, ?, ?)");
+        INSERTS.put("receita_versao", "INSERT INTO receita_versao (numero, data_criacao, id, produto_id) VALUES (?, ?, ?, ?)");
+        INSERTS.put("receita_versao_ingrediente", "INSERT INTO receita_versao_ingrediente (quantidade, materia_prima_id, receita_versao_id) VALUES (?, ?, ?)");
+        INSERTS.put("producao", "INSERT INTO producao (custo_unitario, data_producao, quantidade, id, produto_id, receita_versao_id) VALUES (?, ?, ?, ?, ?, ?)");
+        INSERTS.put("venda", "INSERT INTO venda (data_venda, doado, quantidade, valor_venda, id, forma_pagamento) VALUES (?, ?, ?, ?, ?, ?)");
+        INSERTS.put("item_venda", "INSERT INTO item_venda (custo_unitario, quantidade, valor_total, valor_unitario, id, producao_id, venda_id) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        INSERTS.put("pedido", "INSERT INTO pedido (data_entrega, id, cliente, cliente_busca, status) VALUES (?, ?, ?, ?, ?)");
+        INSERTS.put("item_pedido", "INSERT INTO item_pedido (quantidade, valor_unitario, id, pedido_id, produto_id, massa, recheio) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        INSERTS.put("orcamento", "INSERT INTO orcamento (data_orcamento, desconto, valor_final, valor_total, id, cliente, status) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        INSERTS.put("item_orcamento", "INSERT INTO item_orcamento (quantidade, valor_total, valor_unitario, id, orcamento_id, produto_id) VALUES (?, ?, ?, ?, ?, ?)");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PrecificacaoService precificacaoService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public GeradorDados(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, PrecificacaoService precificacaoService,
+                        ApplicationEventPublisher eventPublisher, CacheManager cacheManager, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.precificacaoService = precificacaoService;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    private record ProdutoGerado(long id, long receitaVersaoId, double preco, double custoUnitario) {
+    }
+
+    /** Produtos gerados e a popularidade acumulada de cada um, para o sorteio dos itens. */
+    private record Catalogo(List<ProdutoGerado> produtos, double[] popularidadeAcumulada) {
+
+        int sortear(Random aleatorio) {
+            int posicao = Arrays.binarySearch(popularidadeAcumulada, aleatorio.nextDouble() * popularidadeAcumulada[popularidadeAcumulada.length - 1]);
+            return posicao >= 0 ? posicao : -posicao - 1;
+        }
+    }
+
+    /**
+     * Gera e grava o histórico. Os cadastros são gravados primeiro, em uma transação; depois, cada mês do período, com
+     * {@code threads} meses ao mesmo tempo.
+     *
+     * @param parametros Volume e período do histórico.
+     * @return O número de linhas gravadas em cada tabela.
+     * @throws IllegalArgumentException Se não houver matérias-primas, produtos ou dias a gerar.
+     * @throws IllegalStateException    Se a gravação de algum mês falhar; os meses já gravados permanecem no banco.
+     */
+    public Map<String, Long> gerar(GeradorProperties parametros) {
+        if (parametros.materiasPrimas() < 1 || parametros.produtos() < 1 || parametros.dias() < 1) {
+            throw new IllegalArgumentException("O histórico precisa de pelo menos uma matéria-prima, um produto e um dia.");
+        }
+        long inicio = System.nanoTime();
+        Map<String, LongAdder> contagem = new LinkedHashMap<>();
+        INSERTS.keySet().forEach(tabela -> contagem.put(tabela, new LongAdder()));
+
+        Catalogo catalogo = gerarCatalogo(parametros, contagem);
+
+        LocalDate primeiroDia = parametros.fim().minusDays(parametros.dias() - 1L);
+        LocalDate ultimoDia = parametros.fim().plusDays(PEDIDOS_FUTUROS_DIAS);
+        try (ExecutorService executor = Executors.newFixedThreadPool(parametros.threads())) {
+            List<Future<?>> meses = new ArrayList<>();
+            for (YearMonth mes = YearMonth.from(primeiroDia); !mes.isAfter(YearMonth.from(ultimoDia)); mes = mes.plusMonths(1)) {
+                GeracaoMes geracao = new GeracaoMes(mes, parametros, catalogo);
+                LocalDate de = primeiroDia.isAfter(mes.atDay(1)) ? primeiroDia : mes.atDay(1);
+                LocalDate ate = ultimoDia.isBefore(mes.atEndOfMonth()) ? ultimoDia : mes.atEndOfMonth();
+                meses.add(executor.submit(() -> gravar(geracao.gerar(de, ate), parametros.lote(), contagem)));
+            }
+            for (Future<?> mes : meses) {
+                mes.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geração de dados interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gravar os dados gerados", e.getCause());
+        }
+
+        // Consultas em cache (catálogo, próximos pedidos) e tabela de preços ainda refletem o banco de antes da geração
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        eventPublisher.publishEvent(new PrecosAlteradosEvent());
+
+        Map<String, Long> linhas = new LinkedHashMap<>();
+        contagem.forEach((tabela, total) -> linhas.put(tabela, total.sum()));
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+        log.info("Histórico de {} dias ({} a {}) gerado em {}s ({} itens de venda/s): {}", parametros.dias(), primeiroDia, parametros.fim(),
+                duracao.toSeconds(), Math.round(linhas.get("item_venda") / Math.max(0.001, duracao.toMillis() / 1000.0)), linhas);
+        return linhas;
+    }
+
+    private Catalogo gerarCatalogo(GeradorProperties parametros, Map<String, LongAdder> contagem) {
+        Random aleatorio = new Random(parametros.semente());
+        Map<String, List<Object[]>> linhas = novasLinhas();
+
+        Ids idsMateriasPrimas = new Ids("materia_prima");
+        long[] materiasPrimas = new long[parametros.materiasPrimas()];
+        double[] valores = new double[materiasPrimas.length];
+        boolean[] unitarias = new boolean[materiasPrimas.length];
+        for (int i = 0; i < materiasPrimas.length; i++) {
+            Object[] insumo = INSUMOS[i % INSUMOS.length];
+            materiasPrimas[i] = idsMateriasPrimas.proximo();
+            valores[i] = (double) insumo[2] * (0.7 + 0.6 * aleatorio.nextDouble());
+            unitarias[i] = "un".equals(insumo[1]);
+            // Estoque folgado: o gerador não baixa estoque pela produção
+            linhas.get("materia_prima").add(new Object[]{1e9, unitarias[i] ? 50.0 : 5000.0, valores[i], materiasPrimas[i], insumo[0] + " " + materiasPrimas[i], insumo[1]});
+        }
+
+        Ids idsProdutos = new Ids("produto");
+        Ids idsIngredientes = new Ids("ingrediente");
+        Ids idsVersoes = new Ids("receita_versao");
+        List<ProdutoGerado> produtos = new ArrayList<>(parametros.produtos());
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 0; i < parametros.produtos(); i++) {
+            long id = idsProdutos.proximo();
+            long versao = idsVersoes.proximo();
+            String tipo = TIPOS[aleatorio.nextInt(TIPOS.length)];
+            int[] receita = aleatorio.ints(0, materiasPrimas.length).distinct().limit(Math.min(materiasPrimas.length, 3 + aleatorio.nextInt(6))).toArray();
+            double custo = 0;
+            for (int materiaPrima : receita) {
+                double quantidade = unitarias[materiaPrima] ? 1 + aleatorio.nextInt(6) : 20 + aleatorio.nextInt(480);
+                custo += quantidade * valores[materiaPrima];
+                linhas.get("ingrediente").add(new Object[]{quantidade, idsIngredientes.proximo(), materiasPrimas[materiaPrima], id});
+                linhas.get("receita_versao_ingrediente").add(new Object[]{quantidade, materiasPrimas[materiaPrima], versao});
+            }
+            double preco = precificacaoService.calcularPrecoBase(custo, tipo);
+            linhas.get("produto").add(new Object[]{preco, 1 + aleatorio.nextInt(20), id, PRODUTOS[i % PRODUTOS.length] + " " + id, tipo});
+            linhas.get("receita_versao").add(new Object[]{1, agora, versao, id});
+            produtos.add(new ProdutoGerado(id, versao, preco, custo));
+        }
+
+        // Zipf: o produto na posição k do ranking (sorteado) tem peso 1/k
+        List<Integer> ranking = new ArrayList<>();
+        for (int i = 0; i < produtos.size(); i++) {
+            ranking.add(i);
+        }
+        Collections.shuffle(ranking, aleatorio);
+        double[] pesos = new double[produtos.size()];
+        for (int k = 0; k < ranking.size(); k++) {
+            pesos[ranking.get(k)] = 1.0 / (k + 1);
+        }
+        Arrays.parallelPrefix(pesos, Double::sum);
+
+        gravar(linhas, parametros.lote(), contagem);
+        return new Catalogo(produtos, pesos);
+    }
+
+    /** Geração de um mês, com sorteios próprios: o resultado não depende da ordem em que os meses rodam. */
+    private final class GeracaoMes {
+
+        private final GeradorProperties parametros;
+        private final Catalogo catalogo;
+        private final Random aleatorio;
+        private final Map<String, List<Object[]>> linhas = novasLinhas();
+        private final Ids producoes = new Ids("producao");
+        private final Ids vendas = new Ids("venda");
+        private final Ids itensVenda = new Ids("item_venda");
+        private final Ids pedidos = new Ids("pedido");
+        private final Ids itensPedido = new Ids("item_pedido");
+        private final Ids orcamentos = new Ids("orcamento");
+        private final Ids itensOrcamento = new Ids("item_orcamento");
+
+        GeracaoMes(YearMonth mes, GeradorProperties parametros, Catalogo catalogo) {
+            this.parametros = parametros;
+            this.catalogo = catalogo;
+            this.aleatorio = new Random(parametros.semente() * 31 + mes.getYear() * 12L + mes.getMonthValue());
+        }
+
+        Map<String, List<Object[]>> gerar(LocalDate de, LocalDate ate) {
+            for (LocalDate dia = de; !dia.isAfter(ate); dia = dia.plusDays(1)) {
+                double fator = SAZONALIDADE[dia.getMonthValue() - 1] * SEMANA.get(dia.getDayOfWeek());
+                if (!dia.isAfter(parametros.fim())) {
+                    gerarVendas(dia, volume(parametros.vendasPorDia(), fator));
+                    gerarOrcamentos(dia, volume(parametros.orcamentosPorDia(), fator));
+                }
+                gerarPedidos(dia, volume(parametros.pedidosPorDia(), fator));
+            }
+            return linhas;
+        }
+
+        private int volume(int media, double fator) {
+            return (int) Math.round(media * fator * (0.85 + 0.3 * aleatorio.nextDouble()));
+        }
+
+        /** Vendas do dia e, depois, um lote de produção por produto vendido, com a quantidade vendida e alguma sobra. */
+        private void gerarVendas(LocalDate dia, int quantidade) {
+            long[] lotes = new long[catalogo.produtos().size()];
+            int[] vendido = new int[lotes.length];
+            for (int v = 0; v < quantidade; v++) {
+                long venda = vendas.proximo();
+                boolean doado = aleatorio.nextInt(100) == 0;
+                int itens = 1;
+                while (itens < 8 && aleatorio.nextDouble() < 0.45) {
+                    itens++;
+                }
+                int unidades = 0;
+                double valorVenda = 0;
+                for (int i = 0; i < itens; i++) {
+                    int produto = catalogo.sortear(aleatorio);
+                    ProdutoGerado gerado = catalogo.produtos().get(produto);
+                    if (lotes[produto] == 0) {
+                        lotes[produto] = producoes.proximo();
+                    }
+                    int unidadesItem = aleatorio.nextInt(10) < 7 ? 1 : 2 + aleatorio.nextInt(5);
+                    double valorUnitario = doado ? 0 : gerado.preco();
+                    vendido[produto] += unidadesItem;
+                    unidades += unidadesItem;
+                    valorVenda += valorUnitario * unidadesItem;
+                    linhas.get("item_venda").add(new Object[]{gerado.custoUnitario(), unidadesItem, valorUnitario * unidadesItem, valorUnitario,
+                            itensVenda.proximo(), lotes[produto], venda});
+                }
+                linhas.get("venda").add(new Object[]{dia, doado, unidades, valorVenda, venda, sortearPagamento()});
+            }
+            for (int produto = 0; produto < lotes.length; produto++) {
+                if (lotes[produto] != 0) {
+                    ProdutoGerado gerado = catalogo.produtos().get(produto);
+                    int sobra = (int) Math.ceil(vendido[produto] * 0.15 * aleatorio.nextDouble());
+                    linhas.get("producao").add(new Object[]{gerado.custoUnitario(), dia, vendido[produto] + sobra, lotes[produto], gerado.id(), gerado.receitaVersaoId()});
+                }
+            }
+        }
+
+        /** Pedidos com entrega no dia: entregues (ou alguns cancelados) até o fim do histórico, pendentes depois dele. */
+        private void gerarPedidos(LocalDate dia, int quantidade) {
+            for (int p = 0; p < quantidade; p++) {
+                long pedido = pedidos.proximo();
+                String cliente = sortearCliente();
+                StatusPedido status = dia.isAfter(parametros.fim()) ? StatusPedido.PENDENTE
+                        : aleatorio.nextInt(100) < 8 ? StatusPedido.CANCELADO : StatusPedido.ENTREGUE;
+                linhas.get("pedido").add(new Object[]{dia, pedido, cliente, Pedido.normalizarBusca(cliente), status.getDescricao()});
+                int itens = 1 + aleatorio.nextInt(3);
+                for (int i = 0; i < itens; i++) {
+                    ProdutoGerado produto = catalogo.produtos().get(catalogo.sortear(aleatorio));
+                    // Encomendas para festas: às vezes dezenas de unidades
+                    int unidades = 1 + aleatorio.nextInt(aleatorio.nextInt(4) == 0 ? 100 : 10);
+                    boolean personalizado = aleatorio.nextBoolean();
+                    linhas.get("item_pedido").add(new Object[]{unidades, produto.preco(), itensPedido.proximo(), pedido, produto.id(),
+                            personalizado ? MASSAS[aleatorio.nextInt(MASSAS.length)] : null,
+                            personalizado ? RECHEIOS[aleatorio.nextInt(RECHEIOS.length)] : null});
+                }
+            }
+        }
+
+        private void gerarOrcamentos(LocalDate dia, int quantidade) {
+            for (int o = 0; o < quantidade; o++) {
+                long orcamento = orcamentos.proximo();
+                int itens = 1 + aleatorio.nextInt(4);
+                double valorTotal = 0;
+                for (int i = 0; i < itens; i++) {
+                    ProdutoGerado produto = catalogo.produtos().get(catalogo.sortear(aleatorio));
+                    double unidades = 1 + aleatorio.nextInt(aleatorio.nextInt(3) == 0 ? 80 : 10);
+                    double valorUnitario = produto.preco() * (1 - precificacaoService.descontoPara(unidades) / 100);
+                    valorTotal += valorUnitario * unidades;
+                    linhas.get("item_orcamento").add(new Object[]{unidades, valorUnitario * unidades, valorUnitario, itensOrcamento.proximo(), orcamento, produto.id()});
+                }
+                double desconto = aleatorio.nextInt(5) == 0 ? 5 * (1 + aleatorio.nextInt(2)) : 0;
+                int situacao = aleatorio.nextInt(100);
+                String status = situacao < 45 ? "Aprovado" : situacao < 70 ? "Rejeitado" : "Pendente";
+                linhas.get("orcamento").add(new Object[]{dia, desconto, valorTotal * (1 - desconto / 100), valorTotal, orcamento, sortearCliente(), status});
+            }
+        }
+
+        private String sortearCliente() {
+            return NOMES[aleatorio.nextInt(NOMES.length)] + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+        }
+
+        private String sortearPagamento() {
+            int sorteio = aleatorio.nextInt(Arrays.stream(PESOS_PAGAMENTO).sum());
+            for (int i = 0; i < PESOS_PAGAMENTO.length; i++) {
+                sorteio -= PESOS_PAGAMENTO[i];
+                if (sorteio < 0) {
+                    return FORMAS_PAGAMENTO[i];
+                }
+            }
+            return FORMAS_PAGAMENTO[0];
+        }
+    }
+
+    /**
+     * IDs de uma entidade, reservados na {@code sequencia_id} em blocos de {@value #BLOCO_IDS}, como o otimizador pooled
+     * do Hibernate faz em blocos de {@value #ALOCACAO_IDS}. Cada mês tem os seus; o que sobra do último bloco fica sem uso.
+     */
+    private final class Ids {
+
+        private final String entidade;
+        private long proximo;
+        private long limite = -1;
+
+        Ids(String entidade) {
+            this.entidade = entidade;
+        }
+
+        long proximo() {
+            if (proximo > limite) {
+                proximo = reservar(entidade, BLOCO_IDS);
+                limite = proximo + BLOCO_IDS - 1;
+            }
+            return proximo++;
+        }
+    }
+
+    /**
+     * Reserva {@code quantidade} IDs seguidos de uma entidade. O valor gravado na {@code sequencia_id} é o fim do próximo
+     * bloco que o Hibernate entregaria; a reserva começa no início desse bloco e empurra o valor para depois dela.
+     *
+     * @return O primeiro ID reservado.
+     */
+    private long reservar(String entidade, int quantidade) {
+        return transactionTemplate.execute(status -> {
+            long valor = jdbcTemplate.queryForObject("SELECT proximo_valor FROM sequencia_id WHERE entidade = ? FOR UPDATE", Long.class, entidade);
+            jdbcTemplate.update("UPDATE sequencia_id SET proximo_valor = ? WHERE entidade = ?", valor + quantidade, entidade);
+            return valor - ALOCACAO_IDS + 1;
+        });
+    }
+
+    private static Map<String, List<Object[]>> novasLinhas() {
+        Map<String, List<Object[]>> linhas = new LinkedHashMap<>();
+        INSERTS.keySet().forEach(tabela -> linhas.put(tabela, new ArrayList<>()));
+        return linhas;
+    }
+
+    private void gravar(Map<String, List<Object[]>> linhas, int lote, Map<String, LongAdder> contagem) {
+        transactionTemplate.executeWithoutResult(status -> linhas.forEach((tabela, valores) -> {
+            if (!valores.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERTS.get(tabela), valores, lote, (ps, valor) -> {
+                    for (int i = 0; i < valor.length; i++) {
+                        ps.setObject(i + 1, valor[i]);
+                    }
+                });
+            }
+        }));
+        linhas.forEach((tabela, valores) -> contagem.get(tabela).add(valores.size()));
+    }
+}
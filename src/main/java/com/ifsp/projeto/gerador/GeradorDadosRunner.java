@@ -0,0 +1,29 @@
+package com.ifsp.projeto.gerador;
+
+import com.ifsp.projeto.config.GeradorProperties;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Com o perfil {@code gerador} (sem servidor web, ver {@code application-gerador.properties}), grava o histórico
+ * sintético configurado em {@code confeitaria.gerador.*} ao iniciar; a aplicação termina em seguida.
+ */
+@Component
+@Profile("gerador")
+public class GeradorDadosRunner implements ApplicationRunner {
+
+    private final GeradorDados geradorDados;
+    private final GeradorProperties properties;
+
+    public GeradorDadosRunner(GeradorDados geradorDados, GeradorProperties properties) {
+        this.geradorDados = geradorDados;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        geradorDados.gerar(properties);
+    }
+}
@@ -0,0 +1,34 @@
+package com.ifsp.projeto.model;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+
+/**
+ * Ingrediente congelado em uma {@link ReceitaVersao}: a matéria-prima e a quantidade usadas naquela versão da receita.
+ */
+@Embeddable
+public class IngredienteReceita {
+
+    @ManyToOne
+    @JoinColumn(name = "materia_prima_id")
+    private MateriaPrima materiaPrima;
+
+    private Double quantidade;
+
+    protected IngredienteReceita() {
+    }
+
+    public IngredienteReceita(MateriaPrima materiaPrima, Double quantidade) {
+        this.materiaPrima = materiaPrima;
+        this.quantidade = quantidade;
+    }
+
+    public MateriaPrima getMateriaPrima() {
+        return materiaPrima;
+    }
+
+    public Double getQuantidade() {
+        return quantidade;
+    }
+}
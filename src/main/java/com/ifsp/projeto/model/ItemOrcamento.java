@@ -6,7 +6,7 @@ import jakarta.persistence.*;
 public class ItemOrcamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "sequencia_id")
     private Long id;
 
     @ManyToOne
@@ -6,7 +6,7 @@ import jakarta.persistence.*;
 public class ItemPedido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "sequencia_id")
     private Long id;
 
     @ManyToOne
@@ -15,6 +15,9 @@ public class ItemPedido {
 
     private int quantidade;
 
+    // Preço unitário acordado no momento do pedido (cópia do orçamento ou do preço do produto na criação)
+    private Double valorUnitario;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pedido_id")
     private Pedido pedido;
@@ -23,6 +26,19 @@ public class ItemPedido {
     private String recheio;
     private String detalhes;
 
+    // Lote de produção que atendeu este item (preenchido pela produção automática dos pedidos)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producao_id")
+    private Producao producao;
+
+    public Producao getProducao() {
+        return producao;
+    }
+
+    public void setProducao(Producao producao) {
+        this.producao = producao;
+    }
+
     public String getMassa() {
         return massa;
     }
@@ -71,6 +87,19 @@ public class ItemPedido {
         this.quantidade = quantidade;
     }
 
+    public Double getValorUnitario() {
+        return valorUnitario;
+    }
+
+    public void setValorUnitario(Double valorUnitario) {
+        this.valorUnitario = valorUnitario;
+    }
+
+    @Transient
+    public Double getValorTotal() {
+        return valorUnitario != null ? valorUnitario * quantidade : null;
+    }
+
     public Pedido getPedido() {
         return pedido;
     }
@@ -6,7 +6,7 @@ import jakarta.persistence.*;
 public class ItemVenda {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "sequencia_id")
     private Long id;
 
     @ManyToOne
@@ -18,6 +18,9 @@ public class ItemVenda {
 
     private double valorTotal;
 
+    /** Custo unitário do lote vendido, copiado da produção no momento da venda. */
+    private Double custoUnitario;
+
     @ManyToOne
     @JoinColumn(name = "venda_id")
     private Venda venda;
@@ -62,6 +65,14 @@ public class ItemVenda {
         this.valorTotal = valorTotal;
     }
 
+    public Double getCustoUnitario() {
+        return custoUnitario;
+    }
+
+    public void setCustoUnitario(Double custoUnitario) {
+        this.custoUnitario = custoUnitario;
+    }
+
     public Venda getVenda() {
         return venda;
     }
@@ -5,10 +5,11 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_orcamento_data", columnList = "dataOrcamento"))
 public class Orcamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "sequencia_id")
     private Long id;
 
     private String cliente;
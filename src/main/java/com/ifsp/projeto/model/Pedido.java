@@ -1,20 +1,30 @@
 package com.ifsp.projeto.model;
 
 import jakarta.persistence.*;
+import java.text.Normalizer;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Locale;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_pedido_cliente_busca", columnList = "clienteBusca"),
+        @Index(name = "idx_pedido_status_data_entrega", columnList = "status, dataEntrega")
+})
 public class Pedido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "sequencia_id")
     private Long id;
 
     private String cliente;
+
+    // Nome do cliente em minúsculas e sem acentos, usado nas buscas por prefixo (indexado)
+    private String clienteBusca;
+
     private LocalDate dataEntrega;
-    private String status;
+    private StatusPedido status;
 
     @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ItemPedido> itens = new ArrayList<>();
@@ -33,6 +43,31 @@ public class Pedido {
 
     public void setCliente(String cliente) {
         this.cliente = cliente;
+        this.clienteBusca = normalizarBusca(cliente);
+    }
+
+    public String getClienteBusca() {
+        return clienteBusca;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void atualizarClienteBusca() {
+        this.clienteBusca = normalizarBusca(cliente);
+    }
+
+    /**
+     * Normaliza um texto para comparação na busca: remove acentos, espaços nas pontas e converte para minúsculas.
+     *
+     * @param texto O texto original (pode ser nulo).
+     * @return O texto normalizado, ou null se o texto for nulo.
+     */
+    public static String normalizarBusca(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String semAcentos = Normalizer.normalize(texto.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcentos.toLowerCase(Locale.ROOT);
     }
 
     public LocalDate getDataEntrega() {
@@ -43,11 +78,11 @@ public class Pedido {
         this.dataEntrega = dataEntrega;
     }
 
-    public String getStatus() {
+    public StatusPedido getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(StatusPedido status) {
         this.status = status;
     }
 
@@ -59,4 +94,16 @@ public class Pedido {
         this.itens = itens;
     }
 
-}
\ No newline at end of file
+    /**
+     * Soma o valor dos itens com preço registrado. Itens antigos, sem preço, não entram no total.
+     *
+     * @return O valor total do pedido.
+     */
+    @Transient
+    public double getValorTotal() {
+        return itens.stream()
+                .filter(item -> item.getValorUnitario() != null)
+                .mapToDouble(ItemPedido::getValorTotal)
+                .sum();
+    }
+}
@@ -1,5 +1,6 @@
 package com.ifsp.projeto.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -9,15 +10,23 @@ import java.util.List;
 public class Producao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "sequencia_id")
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "produto_id")
     private Produto produto;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "receita_versao_id")
+    @JsonIgnore
+    private ReceitaVersao receitaVersao;
+
     private int quantidade;
 
+    /** Custo dos ingredientes de uma unidade, fixado no registro da produção. */
+    private Double custoUnitario;
+
     private LocalDate dataProducao;
 
     private String massa;
@@ -28,6 +37,14 @@ public class Producao {
 
     // Getters and Setters
 
+    public ReceitaVersao getReceitaVersao() {
+        return receitaVersao;
+    }
+
+    public void setReceitaVersao(ReceitaVersao receitaVersao) {
+        this.receitaVersao = receitaVersao;
+    }
+
     public String getMassa() {
         return massa;
     }
@@ -68,6 +85,14 @@ public class Producao {
         this.quantidade = quantidade;
     }
 
+    public Double getCustoUnitario() {
+        return custoUnitario;
+    }
+
+    public void setCustoUnitario(Double custoUnitario) {
+        this.custoUnitario = custoUnitario;
+    }
+
     public LocalDate getDataProducao() {
         return dataProducao;
     }
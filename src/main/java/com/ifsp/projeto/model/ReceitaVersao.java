@@ -0,0 +1,77 @@
+package com.ifsp.projeto.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versão imutável da receita de um produto. Uma nova versão é criada apenas quando os ingredientes mudam,
+ * e cada {@link Producao} guarda a versão com que foi feita.
+ */
+@Entity
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "receitaVersao")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_receita_versao_produto_numero", columnNames = {"produto_id", "numero"}))
+public class ReceitaVersao {
+
+    @Id
+    @GeneratedValue(generator = "sequencia_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "produto_id")
+    private Produto produto;
+
+    private int numero;
+
+    private LocalDateTime dataCriacao;
+
+    @ElementCollection
+    @CollectionTable(name = "receita_versao_ingrediente", joinColumns = @JoinColumn(name = "receita_versao_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "receitaVersaoIngredientes")
+    private List<IngredienteReceita> ingredientes = new ArrayList<>();
+
+    protected ReceitaVersao() {
+    }
+
+    public ReceitaVersao(Produto produto, int numero, List<IngredienteReceita> ingredientes) {
+        this.produto = produto;
+        this.numero = numero;
+        this.dataCriacao = LocalDateTime.now();
+        this.ingredientes = new ArrayList<>(ingredientes);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Produto getProduto() {
+        return produto;
+    }
+
+    public int getNumero() {
+        return numero;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public List<IngredienteReceita> getIngredientes() {
+        return ingredientes;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ifsp.projeto.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Situações possíveis de um {@link Pedido} e as transições permitidas entre elas.
+ * Fluxo: Pendente → Em produção → Pronto para entrega → Entregue. Qualquer situação não finalizada pode ser cancelada.
+ */
+public enum StatusPedido {
+
+    PENDENTE("Pendente"),
+    EM_PRODUCAO("Em produção"),
+    PRONTO_PARA_ENTREGA("Pronto para entrega"),
+    ENTREGUE("Entregue"),
+    CANCELADO("Cancelado");
+
+    private final String descricao;
+
+    StatusPedido(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    /**
+     * Retorna as situações para as quais um pedido nesta situação pode ser movido.
+     *
+     * @return Conjunto (possivelmente vazio) das próximas situações válidas.
+     */
+    public Set<StatusPedido> getProximos() {
+        return switch (this) {
+            case PENDENTE -> EnumSet.of(EM_PRODUCAO, CANCELADO);
+            case EM_PRODUCAO -> EnumSet.of(PRONTO_PARA_ENTREGA, CANCELADO);
+            case PRONTO_PARA_ENTREGA -> EnumSet.of(ENTREGUE, CANCELADO);
+            case ENTREGUE, CANCELADO -> EnumSet.noneOf(StatusPedido.class);
+        };
+    }
+
+    public boolean podeMudarPara(StatusPedido novoStatus) {
+        return getProximos().contains(novoStatus);
+    }
+
+    public boolean isFinalizado() {
+        return getProximos().isEmpty();
+    }
+
+    /**
+     * Retorna as situações a partir das quais é permitido chegar à situação informada.
+     *
+     * @param destino A situação de destino.
+     * @return Conjunto das situações de origem válidas.
+     */
+    public static Set<StatusPedido> origensPermitidas(StatusPedido destino) {
+        Set<StatusPedido> origens = EnumSet.noneOf(StatusPedido.class);
+        for (StatusPedido status : values()) {
+            if (status.podeMudarPara(destino)) {
+                origens.add(status);
+            }
+        }
+        return origens;
+    }
+
+    public static Set<StatusPedido> finalizados() {
+        Set<StatusPedido> finalizados = EnumSet.noneOf(StatusPedido.class);
+        for (StatusPedido status : values()) {
+            if (status.isFinalizado()) {
+                finalizados.add(status);
+            }
+        }
+        return finalizados;
+    }
+
+    /**
+     * Retorna as situações que podem ser alcançadas a partir de alguma outra, ou seja, os destinos válidos de uma
+     * mudança de situação. {@link #PENDENTE} fica de fora por ser apenas a situação inicial.
+     *
+     * @return Conjunto das situações de destino válidas.
+     */
+    public static Set<StatusPedido> destinos() {
+        Set<StatusPedido> destinos = EnumSet.noneOf(StatusPedido.class);
+        for (StatusPedido status : values()) {
+            destinos.addAll(status.getProximos());
+        }
+        return destinos;
+    }
+
+    /**
+     * Converte um texto (nome da constante ou descrição) para a situação correspondente.
+     *
+     * @param valor O texto recebido, por exemplo de um formulário.
+     * @return A situação correspondente.
+     * @throws IllegalArgumentException Se o texto não corresponder a nenhuma situação.
+     */
+    public static StatusPedido of(String valor) {
+        if (valor != null) {
+            for (StatusPedido status : values()) {
+                if (status.name().equals(valor) || status.descricao.equalsIgnoreCase(valor.trim())) {
+                    return status;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Status de pedido inválido: " + valor);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ifsp.projeto.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Persiste {@link StatusPedido} pela sua descrição, mantendo o mesmo formato de texto já gravado na coluna {@code status}.
+ */
+@Converter(autoApply = true)
+public class StatusPedidoConverter implements AttributeConverter<StatusPedido, String> {
+
+    @Override
+    public String convertToDatabaseColumn(StatusPedido status) {
+        return status != null ? status.getDescricao() : null;
+    }
+
+    @Override
+    public StatusPedido convertToEntityAttribute(String valor) {
+        return valor != null ? StatusPedido.of(valor) : null;
+    }
+}
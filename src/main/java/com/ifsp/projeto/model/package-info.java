@@ -0,0 +1,18 @@
+/**
+ * Entidades da confeitaria. Os IDs vêm do gerador {@code sequencia_id}: blocos de 50 reservados na tabela
+ * {@code sequencia_id}, uma linha por entidade, com o nome da tabela da entidade na coluna {@code entidade}.
+ * O valor guardado é o fim do próximo bloco; quem insere sem passar pelo Hibernate precisa reservar os IDs ali.
+ */
+@GenericGenerator(name = "sequencia_id", type = GeradorIds.class, parameters = {
+        @Parameter(name = TableGenerator.TABLE_PARAM, value = "sequencia_id"),
+        @Parameter(name = TableGenerator.SEGMENT_COLUMN_PARAM, value = "entidade"),
+        @Parameter(name = TableGenerator.VALUE_COLUMN_PARAM, value = "proximo_valor"),
+        @Parameter(name = TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY, value = "true"),
+        @Parameter(name = TableGenerator.INCREMENT_PARAM, value = "50")
+})
+package com.ifsp.projeto.model;
+
+import com.ifsp.projeto.config.GeradorIds;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.TableGenerator;
@@ -2,7 +2,14 @@ package com.ifsp.projeto.repository;
 
 import com.ifsp.projeto.model.Ingrediente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface IngredienteRepository extends JpaRepository<Ingrediente, Long> {
     boolean existsByMateriaPrimaId(Long materiaPrimaId);
+
+    @Modifying
+    @Query("DELETE FROM Ingrediente i WHERE i.produto.id = :produtoId")
+    int deleteByProdutoId(@Param("produtoId") Long produtoId);
 }
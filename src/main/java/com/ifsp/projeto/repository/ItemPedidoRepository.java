@@ -1,15 +1,26 @@
 package com.ifsp.projeto.repository;
 
 import com.ifsp.projeto.model.ItemPedido;
+import com.ifsp.projeto.model.StatusPedido;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @Repository
 public interface ItemPedidoRepository extends JpaRepository<ItemPedido, Long> {
     @Modifying(clearAutomatically = true)
     @Query("DELETE FROM ItemPedido ip WHERE ip.produto.id = :produtoId")
     void deleteByProdutoId(@Param("produtoId") Long produtoId);
+
+    @Query("SELECT ip FROM ItemPedido ip JOIN FETCH ip.pedido p JOIN FETCH ip.produto WHERE p.dataEntrega = :data AND p.status = :status AND ip.producao IS NULL")
+    List<ItemPedido> findSemProducaoByDataEntregaAndStatus(@Param("data") LocalDate data, @Param("status") StatusPedido status);
+
+    @Modifying
+    @Query("UPDATE ItemPedido ip SET ip.producao = null WHERE ip.producao.id = :producaoId")
+    void desvincularProducao(@Param("producaoId") Long producaoId);
 }
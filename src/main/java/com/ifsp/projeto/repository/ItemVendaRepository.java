@@ -1,11 +1,15 @@
 package com.ifsp.projeto.repository;
 
+import com.ifsp.projeto.controller.dto.MargemProdutoDTO;
 import com.ifsp.projeto.model.ItemVenda;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.List;
+
 public interface ItemVendaRepository extends JpaRepository<ItemVenda, Long> {
     @Query("SELECT COALESCE(SUM(iv.quantidade), 0) FROM ItemVenda iv WHERE iv.producao.id = :producaoId")
     long sumQuantidadeByProducaoId(@Param("producaoId") Long producaoId);
@@ -16,4 +20,24 @@ public interface ItemVendaRepository extends JpaRepository<ItemVenda, Long> {
     @Modifying
     @Query("DELETE FROM ItemVenda iv WHERE iv.producao.id = :producaoId")
     void deleteByProducaoId(@Param("producaoId") Long producaoId);
-}
\ No newline at end of file
+
+    @Query("SELECT DISTINCT iv.venda.id FROM ItemVenda iv WHERE iv.producao.produto.id = :produtoId")
+    List<Long> findVendaIdsByProdutoId(@Param("produtoId") Long produtoId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ItemVenda iv WHERE iv.producao.id IN (SELECT p.id FROM Producao p WHERE p.produto.id = :produtoId)")
+    int deleteByProdutoId(@Param("produtoId") Long produtoId);
+
+    @Modifying
+    @Query("UPDATE ItemVenda iv SET iv.custoUnitario = (SELECT p.custoUnitario FROM Producao p WHERE p = iv.producao) WHERE iv.custoUnitario IS NULL")
+    int preencherCustoUnitario();
+
+    // Margem por produto a partir do custo gravado em cada item, sem passar pelas receitas
+    @Query("SELECT new com.ifsp.projeto.controller.dto.MargemProdutoDTO(p.id, p.nome, SUM(iv.quantidade), SUM(iv.valorTotal), SUM(iv.quantidade * COALESCE(iv.custoUnitario, 0.0))) " +
+           "FROM ItemVenda iv JOIN iv.producao pr JOIN pr.produto p GROUP BY p.id, p.nome ORDER BY p.nome")
+    List<MargemProdutoDTO> findMargensPorProduto();
+
+    @Query("SELECT new com.ifsp.projeto.controller.dto.MargemProdutoDTO(p.id, p.nome, SUM(iv.quantidade), SUM(iv.valorTotal), SUM(iv.quantidade * COALESCE(iv.custoUnitario, 0.0))) " +
+           "FROM ItemVenda iv JOIN iv.producao pr JOIN pr.produto p WHERE iv.venda.dataVenda BETWEEN :dataInicio AND :dataFim GROUP BY p.id, p.nome ORDER BY p.nome")
+    List<MargemProdutoDTO> findMargensPorProdutoBetween(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+}
@@ -1,7 +1,11 @@
 package com.ifsp.projeto.repository;
 
+import com.ifsp.projeto.controller.dto.MateriaPrimaResumo;
 import com.ifsp.projeto.model.MateriaPrima;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +15,37 @@ import java.util.Optional;
 public interface MateriaPrimaRepository extends JpaRepository<MateriaPrima, Long> {
     Optional<MateriaPrima> findByNomeAndUnidade(String nome, String unidade);
     List<MateriaPrima> findByNomeContainingIgnoreCase(String nome);
+
+    @Query("SELECT new com.ifsp.projeto.controller.dto.MateriaPrimaResumo(m.id, m.nome, m.unidade, m.quantidade, m.valor, m.quantidadeMinima) FROM MateriaPrima m ORDER BY m.nome, m.id")
+    List<MateriaPrimaResumo> findResumos();
+
+    @Query("SELECT new com.ifsp.projeto.controller.dto.MateriaPrimaResumo(m.id, m.nome, m.unidade, m.quantidade, m.valor, m.quantidadeMinima) FROM MateriaPrima m WHERE m.quantidade <= m.quantidadeMinima ORDER BY m.nome, m.id")
+    List<MateriaPrimaResumo> findResumosEstoqueBaixo();
+
+    @Query("SELECT m.quantidade FROM MateriaPrima m WHERE m.id = :id")
+    Optional<Double> findQuantidadeById(@Param("id") Long id);
+
+    // O estoque muda em um único UPDATE relativo ao valor gravado, nunca lendo e regravando a quantidade: transações
+    // concorrentes, de qualquer instância, não perdem a baixa ou a entrada uma da outra
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MateriaPrima m SET m.quantidade = m.quantidade - :quantidade WHERE m.id = :id")
+    int baixarEstoque(@Param("id") Long id, @Param("quantidade") double quantidade);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MateriaPrima m SET m.quantidade = m.quantidade - :quantidade WHERE m.id = :id AND m.quantidade >= :quantidade")
+    int baixarEstoqueSeDisponivel(@Param("id") Long id, @Param("quantidade") double quantidade);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MateriaPrima m SET m.quantidade = m.quantidade + :quantidade WHERE m.id = :id")
+    int devolverEstoque(@Param("id") Long id, @Param("quantidade") double quantidade);
+
+    // Custo médio ponderado da entrada. O valor vem antes da quantidade: o MySQL aplica as atribuições do SET em ordem,
+    // e o cálculo do valor precisa da quantidade anterior à entrada
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MateriaPrima m SET "
+            + "m.valor = CASE WHEN m.quantidade + :quantidade > 0 THEN (m.quantidade * COALESCE(m.valor, 0) + :valor) / (m.quantidade + :quantidade) ELSE COALESCE(m.valor, 0) END, "
+            + "m.quantidade = m.quantidade + :quantidade "
+            + "WHERE m.id = :id")
+    int registrarEntrada(@Param("id") Long id, @Param("quantidade") double quantidade, @Param("valor") double valor);
 }
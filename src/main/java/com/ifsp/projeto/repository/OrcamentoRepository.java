@@ -2,6 +2,18 @@ package com.ifsp.projeto.repository;
 
 import com.ifsp.projeto.model.Orcamento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface OrcamentoRepository extends JpaRepository<Orcamento, Long> {
+import java.util.Optional;
+
+public interface OrcamentoRepository extends JpaRepository<Orcamento, Long>, OrcamentoRepositoryCustom {
+
+    @Query("SELECT o FROM Orcamento o LEFT JOIN FETCH o.itens i LEFT JOIN FETCH i.produto WHERE o.id = :id")
+    Optional<Orcamento> findByIdWithItens(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Orcamento o SET o.status = :novoStatus WHERE o.id = :id AND o.status = :status")
+    int updateStatusByIdAndStatus(@Param("id") Long id, @Param("status") String status, @Param("novoStatus") String novoStatus);
 }
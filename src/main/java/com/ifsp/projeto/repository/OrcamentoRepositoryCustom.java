@@ -0,0 +1,19 @@
+package com.ifsp.projeto.repository;
+
+import com.ifsp.projeto.controller.dto.OrcamentoResumo;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface OrcamentoRepositoryCustom {
+
+    /**
+     * Busca uma página de resumos de orçamentos, sem carregar as entidades nem seus itens.
+     * Apenas os filtros informados entram na consulta; a quantidade de itens é calculada no próprio SQL.
+     *
+     * @param cliente  Início do nome do cliente (opcional, sem diferenciar maiúsculas).
+     * @param status   Status exato do orçamento (opcional).
+     * @param pageable Página e ordenação (apenas {@code dataOrcamento} é considerada).
+     * @return A página de {@link OrcamentoResumo}.
+     */
+    Page<OrcamentoResumo> findResumos(String cliente, String status, Pageable pageable);
+}
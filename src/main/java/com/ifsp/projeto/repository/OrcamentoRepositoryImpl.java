@@ -0,0 +1,74 @@
+package com.ifsp.projeto.repository;
+
+import com.ifsp.projeto.controller.dto.OrcamentoResumo;
+import com.ifsp.projeto.model.ItemOrcamento;
+import com.ifsp.projeto.model.Orcamento;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class OrcamentoRepositoryImpl implements OrcamentoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<OrcamentoResumo> findResumos(String cliente, String status, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<OrcamentoResumo> query = cb.createQuery(OrcamentoResumo.class);
+        Root<Orcamento> orcamento = query.from(Orcamento.class);
+        Subquery<Long> quantidadeItens = query.subquery(Long.class);
+        Root<ItemOrcamento> item = quantidadeItens.from(ItemOrcamento.class);
+        quantidadeItens.select(cb.count(item)).where(cb.equal(item.get("orcamento"), orcamento));
+
+        query.select(cb.construct(OrcamentoResumo.class,
+                        orcamento.get("id"), orcamento.get("cliente"), orcamento.get("dataOrcamento"), orcamento.get("status"),
+                        orcamento.get("valorTotal"), orcamento.get("desconto"), orcamento.get("valorFinal"), quantidadeItens))
+                .where(filtros(cb, orcamento, cliente, status));
+
+        Sort.Order ordemData = pageable.getSort().getOrderFor("dataOrcamento");
+        if (ordemData != null && ordemData.isAscending()) {
+            query.orderBy(cb.asc(orcamento.get("dataOrcamento")), cb.asc(orcamento.get("id")));
+        } else {
+            query.orderBy(cb.desc(orcamento.get("dataOrcamento")), cb.desc(orcamento.get("id")));
+        }
+
+        List<OrcamentoResumo> conteudo = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Orcamento> countRoot = countQuery.from(Orcamento.class);
+        countQuery.select(cb.count(countRoot)).where(filtros(cb, countRoot, cliente, status));
+        long total = entityManager.createQuery(countQuery).getSingleResult();
+
+        return new PageImpl<>(conteudo, pageable, total);
+    }
+
+    private Predicate[] filtros(CriteriaBuilder cb, Root<Orcamento> orcamento, String cliente, String status) {
+        List<Predicate> predicados = new ArrayList<>();
+        if (cliente != null && !cliente.isBlank()) {
+            // '%' e '_' digitados pelo usuário valem como texto, não como curinga (como em PedidoSpecifications.clienteComecaCom)
+            String padrao = cliente.trim().toLowerCase(Locale.ROOT).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            predicados.add(cb.like(cb.lower(orcamento.get("cliente")), padrao, '\\'));
+        }
+        if (status != null && !status.isBlank()) {
+            predicados.add(cb.equal(orcamento.get("status"), status));
+        }
+        return predicados.toArray(new Predicate[0]);
+    }
+}
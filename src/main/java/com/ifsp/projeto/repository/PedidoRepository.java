@@ -1,22 +1,41 @@
 package com.ifsp.projeto.repository;
 
 import com.ifsp.projeto.model.Pedido;
+import com.ifsp.projeto.model.StatusPedido;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.time.LocalDate;
 
 @Repository
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+public interface PedidoRepository extends JpaRepository<Pedido, Long>, JpaSpecificationExecutor<Pedido> {
 
     @Query("SELECT p FROM Pedido p LEFT JOIN FETCH p.itens WHERE p.id = :id")
     Pedido findByIdWithItens(Long id);
 
-    @Query("SELECT p FROM Pedido p WHERE p.dataEntrega >= :data AND p.status <> 'Entregue' ORDER BY p.dataEntrega ASC")
-    List<Pedido> findUpcomingPedidos(LocalDate data);
+    @Query("SELECT p.id FROM Pedido p WHERE p.dataEntrega BETWEEN :inicio AND :fim AND p.status NOT IN :finalizados ORDER BY p.dataEntrega ASC, p.id ASC")
+    List<Long> findUpcomingPedidoIds(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim, @Param("finalizados") Collection<StatusPedido> finalizados, Pageable pageable);
 
-    @Query("SELECT p FROM Pedido p WHERE (:cliente IS NULL OR lower(p.cliente) LIKE lower(concat('%', :cliente, '%'))) AND (:status IS NULL OR p.status = :status) AND (:data IS NULL OR p.dataEntrega = :data)")
-    List<Pedido> findWithFilters(@Param("cliente") String cliente, @Param("status") String status, @Param("data") LocalDate data);
+    @EntityGraph(attributePaths = {"itens", "itens.produto"})
+    @Query("SELECT p FROM Pedido p WHERE p.id IN :ids ORDER BY p.dataEntrega ASC, p.id ASC")
+    List<Pedido> findAllWithItensByIdIn(@Param("ids") Collection<Long> ids);
+
+    List<Pedido> findByClienteBuscaIsNull();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Pedido p WHERE p.id IN :ids AND p.status IN :permitidos")
+    List<Long> lockIdsByIdInAndStatusIn(@Param("ids") Collection<Long> ids, @Param("permitidos") Collection<StatusPedido> permitidos);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Pedido p SET p.status = :novoStatus WHERE p.id IN :ids AND p.status IN :permitidos")
+    int updateStatusByIdInAndStatusIn(@Param("ids") Collection<Long> ids, @Param("permitidos") Collection<StatusPedido> permitidos, @Param("novoStatus") StatusPedido novoStatus);
 }
@@ -0,0 +1,53 @@
+package com.ifsp.projeto.repository;
+
+import com.ifsp.projeto.model.Pedido;
+import com.ifsp.projeto.model.StatusPedido;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Predicados reutilizáveis para a busca dinâmica de pedidos.
+ * Cada filtro só é adicionado à consulta quando informado, evitando os predicados do tipo
+ * {@code :x IS NULL OR ...} que impedem o uso dos índices.
+ */
+public final class PedidoSpecifications {
+
+    private PedidoSpecifications() {
+    }
+
+    /**
+     * Monta a especificação com apenas os filtros fornecidos.
+     *
+     * @param clienteBusca Prefixo do nome do cliente já normalizado (ver {@link Pedido#normalizarBusca(String)}).
+     * @param status       Status exato do pedido.
+     * @param data         Data de entrega exata.
+     * @return A especificação combinada; sem filtros, retorna todos os pedidos.
+     */
+    public static Specification<Pedido> comFiltros(String clienteBusca, StatusPedido status, LocalDate data) {
+        Specification<Pedido> spec = Specification.where(null);
+        if (clienteBusca != null && !clienteBusca.isEmpty()) {
+            spec = spec.and(clienteComecaCom(clienteBusca));
+        }
+        if (status != null) {
+            spec = spec.and(comStatus(status));
+        }
+        if (data != null) {
+            spec = spec.and(comDataEntrega(data));
+        }
+        return spec;
+    }
+
+    public static Specification<Pedido> clienteComecaCom(String clienteBusca) {
+        String padrao = clienteBusca.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("clienteBusca"), padrao, '\\');
+    }
+
+    public static Specification<Pedido> comStatus(StatusPedido status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Pedido> comDataEntrega(LocalDate data) {
+        return (root, query, cb) -> cb.equal(root.get("dataEntrega"), data);
+    }
+}
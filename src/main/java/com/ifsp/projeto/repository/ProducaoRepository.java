@@ -3,6 +3,7 @@ package com.ifsp.projeto.repository;
 import com.ifsp.projeto.controller.dto.ProducaoDisponivelDTO;
 import com.ifsp.projeto.model.Producao;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -16,6 +17,10 @@ public interface ProducaoRepository extends JpaRepository<Producao, Long> {
 
     List<Producao> findByProdutoId(Long produtoId);
 
+    @Modifying
+    @Query("DELETE FROM Producao p WHERE p.produto.id = :produtoId")
+    int deleteByProdutoId(@Param("produtoId") Long produtoId);
+
     @Query("SELECT p FROM Producao p JOIN FETCH p.produto")
     List<Producao> findAllWithProduto();
 
@@ -25,4 +30,9 @@ public interface ProducaoRepository extends JpaRepository<Producao, Long> {
     @Query("SELECT new com.ifsp.projeto.controller.dto.ProducaoDisponivelDTO(p.id, p.produto.nome, p.dataProducao, p.quantidade - COALESCE((SELECT SUM(iv.quantidade) FROM ItemVenda iv WHERE iv.producao = p AND iv.venda.id != :vendaId), 0), p.produto.preco) FROM Producao p WHERE p.quantidade > COALESCE((SELECT SUM(iv.quantidade) FROM ItemVenda iv WHERE iv.producao = p AND iv.venda.id != :vendaId), 0)")
     List<ProducaoDisponivelDTO> findProducoesComEstoqueDisponivelParaVenda(@Param("vendaId") Long vendaId);
 
+    @Modifying
+    @Query("UPDATE Producao p SET p.custoUnitario = (SELECT COALESCE(SUM(i.quantidade * mp.valor), 0.0) FROM ReceitaVersao r JOIN r.ingredientes i JOIN i.materiaPrima mp WHERE r = p.receitaVersao) " +
+           "WHERE p.custoUnitario IS NULL AND p.receitaVersao IS NOT NULL")
+    int preencherCustoUnitario();
+
 }
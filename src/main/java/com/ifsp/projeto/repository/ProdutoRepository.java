@@ -1,21 +1,55 @@
 package com.ifsp.projeto.repository;
 
+import com.ifsp.projeto.controller.dto.CustoProdutoDTO;
+import com.ifsp.projeto.controller.dto.ProdutoPrecoDTO;
+import com.ifsp.projeto.controller.dto.ProdutoResumo;
 import com.ifsp.projeto.model.Produto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+// As consultas de receitas e do catálogo usam o cache de consultas do Hibernate; qualquer escrita em produto, ingrediente ou matéria-prima as invalida
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM Produto p LEFT JOIN FETCH p.ingredientes i LEFT JOIN FETCH i.materiaPrima")
     List<Produto> findAllWithIngredientes();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM Produto p LEFT JOIN FETCH p.ingredientes i LEFT JOIN FETCH i.materiaPrima WHERE p.id = :id")
     Optional<Produto> findByIdWithIngredientes(@Param("id") Long id);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT p FROM Produto p LEFT JOIN FETCH p.ingredientes i LEFT JOIN FETCH i.materiaPrima WHERE p.id IN :ids")
+    List<Produto> findAllWithIngredientesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Produto p WHERE p.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.ifsp.projeto.controller.dto.ProdutoPrecoDTO(p.id, p.preco) FROM Produto p WHERE p.id IN :ids")
+    List<ProdutoPrecoDTO> findPrecosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.ifsp.projeto.controller.dto.CustoProdutoDTO(p.id, p.nome, p.tipo, COALESCE(SUM(i.quantidade * mp.valor), 0.0)) FROM Produto p LEFT JOIN p.ingredientes i LEFT JOIN i.materiaPrima mp GROUP BY p.id, p.nome, p.tipo")
+    List<CustoProdutoDTO> findCustos();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.ifsp.projeto.controller.dto.ProdutoResumo(p.id, p.nome, p.tipo, p.preco, p.rendimento) FROM Produto p ORDER BY p.nome, p.id")
+    List<ProdutoResumo> findResumos();
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Produto p WHERE p.id = :id")
+    int excluirPorId(@Param("id") Long id);
+
     List<Produto> findByNomeContainingIgnoreCase(String nome);
 }
\ No newline at end of file
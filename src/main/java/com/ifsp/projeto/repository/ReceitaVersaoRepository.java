@@ -0,0 +1,45 @@
+package com.ifsp.projeto.repository;
+
+import com.ifsp.projeto.model.ReceitaVersao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReceitaVersaoRepository extends JpaRepository<ReceitaVersao, Long> {
+
+    @Query("SELECT r FROM ReceitaVersao r LEFT JOIN FETCH r.ingredientes i LEFT JOIN FETCH i.materiaPrima " +
+           "WHERE r.produto.id = :produtoId AND r.numero = (SELECT MAX(r2.numero) FROM ReceitaVersao r2 WHERE r2.produto.id = :produtoId)")
+    Optional<ReceitaVersao> findAtualByProdutoId(@Param("produtoId") Long produtoId);
+
+    @Query("SELECT DISTINCT r FROM ReceitaVersao r LEFT JOIN FETCH r.ingredientes i LEFT JOIN FETCH i.materiaPrima " +
+           "WHERE r.produto.id IN :produtoIds AND r.numero = (SELECT MAX(r2.numero) FROM ReceitaVersao r2 WHERE r2.produto = r.produto)")
+    List<ReceitaVersao> findAtuaisByProdutoIdIn(@Param("produtoIds") Collection<Long> produtoIds);
+
+    @Query("SELECT COALESCE(MAX(r.numero), 0) FROM ReceitaVersao r WHERE r.produto.id = :produtoId")
+    int findUltimoNumeroByProdutoId(@Param("produtoId") Long produtoId);
+
+    @Query("SELECT p.id FROM Produto p WHERE NOT EXISTS (SELECT r FROM ReceitaVersao r WHERE r.produto = p)")
+    List<Long> findProdutoIdsSemVersao();
+
+    @Query("SELECT COUNT(r) > 0 FROM ReceitaVersao r JOIN r.ingredientes i WHERE i.materiaPrima.id = :materiaPrimaId")
+    boolean existsByMateriaPrimaId(@Param("materiaPrimaId") Long materiaPrimaId);
+
+    // Produções antigas, anteriores ao versionamento, passam a apontar para a versão atual da receita do seu produto
+    @Modifying
+    @Query("UPDATE Producao p SET p.receitaVersao = (SELECT r FROM ReceitaVersao r WHERE r.produto = p.produto " +
+           "AND r.numero = (SELECT MAX(r2.numero) FROM ReceitaVersao r2 WHERE r2.produto = p.produto)) WHERE p.receitaVersao IS NULL")
+    int vincularProducoesSemVersao();
+
+    @Modifying
+    @Query(value = "DELETE FROM receita_versao_ingrediente WHERE receita_versao_id IN (SELECT id FROM receita_versao WHERE produto_id = :produtoId)", nativeQuery = true)
+    int deleteIngredientesByProdutoId(@Param("produtoId") Long produtoId);
+
+    @Modifying
+    @Query("DELETE FROM ReceitaVersao r WHERE r.produto.id = :produtoId")
+    int deleteByProdutoId(@Param("produtoId") Long produtoId);
+}
@@ -10,4 +10,5 @@ import java.util.Optional;
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByNome(String nome);
     Optional<Usuario> findByLogin(String login);
+    boolean existsByLogin(String login);
 }
\ No newline at end of file
@@ -2,10 +2,12 @@ package com.ifsp.projeto.repository;
 
 import com.ifsp.projeto.model.Venda;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface VendaRepository extends JpaRepository<Venda, Long> {
@@ -22,4 +24,9 @@ public interface VendaRepository extends JpaRepository<Venda, Long> {
 
     @Query("SELECT DISTINCT v FROM Venda v LEFT JOIN FETCH v.itens iv LEFT JOIN FETCH iv.producao p LEFT JOIN FETCH p.produto WHERE v.dataVenda BETWEEN :dataInicio AND :dataFim ORDER BY v.dataVenda DESC")
     List<Venda> findByDataVendaBetweenWithDetailsOrderByDataVendaDesc(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+
+    @Modifying
+    @Query("UPDATE Venda v SET v.valorVenda = COALESCE((SELECT SUM(iv.valorTotal) FROM ItemVenda iv WHERE iv.venda = v), 0), " +
+           "v.quantidade = COALESCE((SELECT SUM(iv.quantidade) FROM ItemVenda iv WHERE iv.venda = v), 0) WHERE v.id IN :ids")
+    int recalcularTotais(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.ifsp.projeto.service;
 
+import com.ifsp.projeto.config.CacheConfig;
 import com.ifsp.projeto.controller.dto.MateriaPrimaComAlertaDTO;
+import com.ifsp.projeto.controller.dto.MateriaPrimaResumo;
 import com.ifsp.projeto.model.MateriaPrima;
 import com.ifsp.projeto.repository.IngredienteRepository;
 import com.ifsp.projeto.repository.MateriaPrimaRepository;
+import com.ifsp.projeto.repository.ReceitaVersaoRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,20 +28,29 @@ public class MateriaPrimaService {
 
     private final MateriaPrimaRepository materiaPrimaRepository;
     private final IngredienteRepository ingredienteRepository;
+    private final ReceitaVersaoRepository receitaVersaoRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public MateriaPrimaService(MateriaPrimaRepository materiaPrimaRepository, IngredienteRepository ingredienteRepository) {
+    public MateriaPrimaService(MateriaPrimaRepository materiaPrimaRepository, IngredienteRepository ingredienteRepository, ReceitaVersaoRepository receitaVersaoRepository, ApplicationEventPublisher eventPublisher) {
         this.materiaPrimaRepository = materiaPrimaRepository;
         this.ingredienteRepository = ingredienteRepository;
+        this.receitaVersaoRepository = receitaVersaoRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * Busca todas as matérias-primas cadastradas.
+     * Busca todas as matérias-primas cadastradas, ordenadas pelo nome. O resultado fica em cache até a próxima
+     * alteração de estoque; o cache guarda cópias imutáveis ({@link MateriaPrimaResumo}), nunca as entidades gerenciadas.
+     * As consultas deste serviço que alimentam o cache usam o banco principal, para não guardar dados da réplica
+     * de leitura anteriores à alteração que invalidou o cache.
      *
-     * @return Uma lista de todas as matérias-primas.
+     * @return Uma lista imutável de {@link MateriaPrimaResumo}.
      */
-    public List<MateriaPrima> findAll() {
+    @Cacheable(cacheNames = CacheConfig.MATERIAS_PRIMAS, key = "'todas'")
+    @Transactional
+    public List<MateriaPrimaResumo> findResumos() {
 
-        return materiaPrimaRepository.findAll();
+        return List.copyOf(materiaPrimaRepository.findResumos());
     }
 
     /**
@@ -58,6 +73,7 @@ public class MateriaPrimaService {
      * @throws IllegalStateException Se já existir uma matéria-prima com o mesmo nome e unidade.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MATERIAS_PRIMAS, allEntries = true)
     public MateriaPrima salvarMP(MateriaPrima materiaPrima) {
         if (materiaPrima.getUnidade() != null) {
             String unidade = materiaPrima.getUnidade().toLowerCase();
@@ -84,20 +100,26 @@ public class MateriaPrimaService {
         if (materiaPrima.getQuantidade() != null && materiaPrima.getQuantidade() > 0 && materiaPrima.getValor() != null) {
             materiaPrima.setValor(materiaPrima.getValor() / materiaPrima.getQuantidade());
         }
-        return materiaPrimaRepository.save(materiaPrima);
+        MateriaPrima salva = materiaPrimaRepository.save(materiaPrima);
+        eventPublisher.publishEvent(new PrecosAlteradosEvent());
+        return salva;
     }
 
     /**
-     * Exclui uma matéria-prima do estoque. A exclusão só é permitida se a matéria-prima não estiver sendo utilizada como ingrediente em nenhum produto.
+     * Exclui uma matéria-prima do estoque. A exclusão só é permitida se a matéria-prima não estiver sendo utilizada como ingrediente em nenhum produto nem em versões anteriores das receitas.
      *
      * @param id O ID da matéria-prima a ser excluída.
      * @throws IllegalStateException Se a matéria-prima estiver em uso e não puder ser excluída.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MATERIAS_PRIMAS, allEntries = true)
     public void excluirMP(Long id) {
         if (ingredienteRepository.existsByMateriaPrimaId(id)) {
             throw new IllegalStateException("Não é possível excluir a matéria-prima, pois ela está sendo utilizada em um ou mais produtos.");
         }
+        if (receitaVersaoRepository.existsByMateriaPrimaId(id)) {
+            throw new IllegalStateException("Não é possível excluir a matéria-prima, pois ela faz parte do histórico de receitas de um ou mais produtos.");
+        }
         materiaPrimaRepository.deleteById(id);
     }
 
@@ -109,6 +131,7 @@ public class MateriaPrimaService {
      * @throws IllegalArgumentException Se a matéria-prima não estiver previamente cadastrada.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MATERIAS_PRIMAS, allEntries = true)
     public MateriaPrima adicionarMP(MateriaPrima materiaPrima) {
         if (materiaPrima.getUnidade() != null) {
             String unidade = materiaPrima.getUnidade().toLowerCase();
@@ -123,38 +146,29 @@ public class MateriaPrimaService {
 
         MateriaPrima materiaPrimaExistente = materiaPrimaRepository.findByNomeAndUnidade(materiaPrima.getNome(), materiaPrima.getUnidade()).orElseThrow(() -> new IllegalArgumentException("Matéria-prima não cadastrada. Cadastre-a primeiro."));
 
-        double quantidadeAdicionada = materiaPrima.getQuantidade();
-        double valorAdicionado = materiaPrima.getValor() != null ? materiaPrima.getValor() : 0;
-
-        double quantidadeAntiga = materiaPrimaExistente.getQuantidade();
-        double valorUnitarioAntigo = materiaPrimaExistente.getValor() != null ? materiaPrimaExistente.getValor() : 0;
-
-        double valorTotalAntigo = quantidadeAntiga * valorUnitarioAntigo;
-
-        double quantidadeNovaTotal = quantidadeAntiga + quantidadeAdicionada;
-        double valorTotalNovo = valorTotalAntigo + valorAdicionado;
-
-        materiaPrimaExistente.setQuantidade(quantidadeNovaTotal);
-        if (quantidadeNovaTotal > 0) {
-            materiaPrimaExistente.setValor(valorTotalNovo / quantidadeNovaTotal);
-        } else {
-            materiaPrimaExistente.setValor(valorUnitarioAntigo);
-        }
-
-        return materiaPrimaRepository.save(materiaPrimaExistente);
+        // Quantidade e custo médio calculados pelo próprio UPDATE, sobre os valores gravados no momento da entrada
+        materiaPrimaRepository.registrarEntrada(materiaPrimaExistente.getId(), materiaPrima.getQuantidade(),
+                materiaPrima.getValor() != null ? materiaPrima.getValor() : 0);
+        // Relida por consulta: o findById poderia devolver a cópia do cache de segundo nível, anterior ao UPDATE
+        MateriaPrima salva = materiaPrimaRepository.findByNomeAndUnidade(materiaPrima.getNome(), materiaPrima.getUnidade()).orElseThrow();
+        eventPublisher.publishEvent(new PrecosAlteradosEvent());
+        return salva;
     }
 
     /**
      * Encontra todas as matérias-primas que estão com estoque baixo, comparando a quantidade atual com a quantidade mínima definida.
      *
-     * @return Uma lista de matérias-primas com estoque baixo.
+     * @return Uma lista imutável de matérias-primas com estoque baixo.
      */
-    public List<MateriaPrima> findLowStock() {
-        return materiaPrimaRepository.findAll().stream().filter(MateriaPrima::isLowStock).collect(Collectors.toList());
+    @Cacheable(cacheNames = CacheConfig.MATERIAS_PRIMAS, key = "'estoqueBaixo'")
+    @Transactional
+    public List<MateriaPrimaResumo> findLowStock() {
+        return List.copyOf(materiaPrimaRepository.findResumosEstoqueBaixo());
     }
 
     /**
      * Busca todas as matérias-primas aplicando filtros e ordenação, e indica se o estoque está baixo.
+     * Não passa pelo cache: cada combinação de filtros seria uma entrada diferente, e a consulta só traz as colunas da listagem.
      *
      * @param nome    Filtro opcional para o nome da matéria-prima.
      * @param unidade Filtro opcional para a unidade de medida.
@@ -162,23 +176,24 @@ public class MateriaPrimaService {
      * @param order   Ordem opcional ('asc' ou 'desc').
      * @return Lista de {@link MateriaPrimaComAlertaDTO} com os dados e o alerta de estoque.
      */
+    @Transactional(readOnly = true)
     public List<MateriaPrimaComAlertaDTO> findAllWithAlert(String nome, String unidade, String sort, String order) {
-        List<MateriaPrima> materiasPrimas = materiaPrimaRepository.findAll();
+        List<MateriaPrimaResumo> materiasPrimas = materiaPrimaRepository.findResumos();
 
         if (nome != null && !nome.isEmpty()) {
-            materiasPrimas = materiasPrimas.stream().filter(mp -> mp.getNome().toLowerCase().contains(nome.toLowerCase())).collect(Collectors.toList());
+            materiasPrimas = materiasPrimas.stream().filter(mp -> mp.nome().toLowerCase().contains(nome.toLowerCase())).collect(Collectors.toList());
         }
 
         if (unidade != null && !unidade.isEmpty()) {
-            materiasPrimas = materiasPrimas.stream().filter(mp -> mp.getUnidade().equals(unidade)).collect(Collectors.toList());
+            materiasPrimas = materiasPrimas.stream().filter(mp -> mp.unidade().equals(unidade)).collect(Collectors.toList());
         }
 
         if (sort != null && !sort.isEmpty()) {
-            Comparator<MateriaPrima> comparator = null;
+            Comparator<MateriaPrimaResumo> comparator = null;
             if (sort.equals("quantidade")) {
-                comparator = Comparator.comparing(MateriaPrima::getQuantidade);
+                comparator = Comparator.comparing(MateriaPrimaResumo::quantidade);
             } else if (sort.equals("valor")) {
-                comparator = Comparator.comparing(MateriaPrima::getValor);
+                comparator = Comparator.comparing(MateriaPrimaResumo::valor);
             }
 
             if (comparator != null) {
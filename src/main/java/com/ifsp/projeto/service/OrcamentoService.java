@@ -1,19 +1,33 @@
 package com.ifsp.projeto.service;
 
+import com.ifsp.projeto.config.CacheConfig;
 import com.ifsp.projeto.controller.dto.ItemOrcamentoDTO;
 import com.ifsp.projeto.controller.dto.OrcamentoRequest;
+import com.ifsp.projeto.controller.dto.OrcamentoResumo;
+import com.ifsp.projeto.controller.dto.PrecoCalculadoDTO;
 import com.ifsp.projeto.model.ItemOrcamento;
+import com.ifsp.projeto.model.ItemPedido;
 import com.ifsp.projeto.model.Orcamento;
-import com.ifsp.projeto.model.Produto;
+import com.ifsp.projeto.model.Pedido;
+import com.ifsp.projeto.model.StatusPedido;
 import com.ifsp.projeto.repository.ItemOrcamentoRepository;
+import com.ifsp.projeto.repository.ItemPedidoRepository;
 import com.ifsp.projeto.repository.OrcamentoRepository;
+import com.ifsp.projeto.repository.PedidoRepository;
 import com.ifsp.projeto.repository.ProdutoRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Serviço para gerenciar a lógica de negócio relacionada a orçamentos.
@@ -25,20 +39,34 @@ public class OrcamentoService {
     private final OrcamentoRepository orcamentoRepository;
     private final ProdutoRepository produtoRepository;
     private final ItemOrcamentoRepository itemOrcamentoRepository;
+    private final PedidoRepository pedidoRepository;
+    private final ItemPedidoRepository itemPedidoRepository;
+    private final PrecificacaoService precificacaoService;
 
-    public OrcamentoService(OrcamentoRepository orcamentoRepository, ProdutoRepository produtoRepository, ItemOrcamentoRepository itemOrcamentoRepository) {
+    public OrcamentoService(OrcamentoRepository orcamentoRepository, ProdutoRepository produtoRepository, ItemOrcamentoRepository itemOrcamentoRepository, PedidoRepository pedidoRepository, ItemPedidoRepository itemPedidoRepository, PrecificacaoService precificacaoService) {
         this.orcamentoRepository = orcamentoRepository;
         this.produtoRepository = produtoRepository;
         this.itemOrcamentoRepository = itemOrcamentoRepository;
+        this.pedidoRepository = pedidoRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
+        this.precificacaoService = precificacaoService;
     }
 
     /**
-     * Busca todos os orçamentos cadastrados.
+     * Busca uma página de resumos de orçamentos, filtrando por cliente e status e ordenando pela data.
+     * Executa apenas duas consultas (dados e contagem), independentemente da quantidade de orçamentos.
      *
-     * @return Uma lista de todos os orçamentos.
+     * @param cliente Início do nome do cliente (opcional).
+     * @param status  Status do orçamento (opcional).
+     * @param ordem   'asc' para os mais antigos primeiro; qualquer outro valor ordena dos mais recentes para os mais antigos.
+     * @param pagina  Número da página (começando em 0).
+     * @param tamanho Quantidade de orçamentos por página.
+     * @return Uma {@link Page} de {@link OrcamentoResumo}.
      */
-    public List<Orcamento> findAll() {
-        return orcamentoRepository.findAll();
+    @Transactional(readOnly = true)
+    public Page<OrcamentoResumo> findResumos(String cliente, String status, String ordem, int pagina, int tamanho) {
+        Sort sort = "asc".equalsIgnoreCase(ordem) ? Sort.by("dataOrcamento").ascending() : Sort.by("dataOrcamento").descending();
+        return orcamentoRepository.findResumos(cliente, status, PageRequest.of(Math.max(pagina, 0), tamanho, sort));
     }
 
     /**
@@ -71,7 +99,9 @@ public class OrcamentoService {
      * Salva um novo orçamento ou atualiza um existente com base nos dados da requisição.
      * Se um ID for fornecido, o orçamento existente é atualizado, e seus itens antigos são removidos.
      * Caso contrário, um novo orçamento é criado com status 'Pendente'.
-     * O valor total e final (com desconto) são calculados.
+     * O preço unitário de cada item vem da tabela do {@link PrecificacaoService} (markup do tipo e desconto da faixa de quantidade);
+     * o valor enviado pelo formulário é ignorado. O valor total e o final são calculados; o final soma os preços unitários
+     * com o desconto do orçamento, arredondados para centavos, como no pedido gerado pela aprovação.
      *
      * @param orcamentoRequest O objeto de requisição ({@link OrcamentoRequest}) com os dados do orçamento.
      * @return A entidade {@link Orcamento} que foi salva.
@@ -99,31 +129,108 @@ public class OrcamentoService {
             orcamento.setItens(new ArrayList<>());
         }
 
+        List<ItemOrcamentoDTO> itensDTO = orcamentoRequest.getItens() != null ? orcamentoRequest.getItens() : List.of();
+
+        // OTIMIZAÇÃO: Verifica todos os produtos em uma única consulta e insere os itens em lote
+        Set<Long> produtosExistentes = itensDTO.isEmpty() ? Set.of() : produtoRepository.findExistingIds(
+                itensDTO.stream().map(ItemOrcamentoDTO::getProdutoId).filter(Objects::nonNull).collect(Collectors.toSet()));
+
+        double descontoPercentual = orcamentoRequest.getDesconto() != null ? orcamentoRequest.getDesconto() : 0.0;
+        List<ItemOrcamento> novosItens = new ArrayList<>();
         double valorTotal = 0;
-        if (orcamentoRequest.getItens() != null) {
-            for (ItemOrcamentoDTO itemDTO : orcamentoRequest.getItens()) {
-                Produto produto = produtoRepository.findById(itemDTO.getProdutoId()).orElse(null);
-                if (produto != null) {
-                    ItemOrcamento item = new ItemOrcamento();
-                    item.setProduto(produto);
-                    item.setQuantidade(itemDTO.getQuantidade());
-                    item.setValorUnitario(itemDTO.getValorUnitario());
-                    double valorTotalItem = itemDTO.getQuantidade() * itemDTO.getValorUnitario();
-                    item.setValorTotal(valorTotalItem);
-                    item.setOrcamento(orcamento);
-                    orcamento.getItens().add(item);
-                    valorTotal += valorTotalItem;
-                }
+        double valorFinal = 0;
+        for (ItemOrcamentoDTO itemDTO : itensDTO) {
+            if (produtosExistentes.contains(itemDTO.getProdutoId())) {
+                PrecoCalculadoDTO preco = precificacaoService.calcularPreco(itemDTO.getProdutoId(), itemDTO.getQuantidade())
+                        .orElseThrow(() -> new IllegalArgumentException("Preço indisponível para o produto " + itemDTO.getProdutoId() + ". Tente novamente."));
+                ItemOrcamento item = new ItemOrcamento();
+                item.setProduto(produtoRepository.getReferenceById(itemDTO.getProdutoId()));
+                item.setQuantidade(itemDTO.getQuantidade());
+                item.setValorUnitario(preco.valorUnitario());
+                double valorTotalItem = preco.valorTotal();
+                item.setValorTotal(valorTotalItem);
+                item.setOrcamento(orcamento);
+                novosItens.add(item);
+                valorTotal += valorTotalItem;
+                valorFinal += precoComDesconto(preco.valorUnitario(), descontoPercentual) * itemDTO.getQuantidade();
             }
         }
 
         orcamento.setValorTotal(valorTotal);
-        double descontoPercentual = orcamentoRequest.getDesconto() != null ? orcamentoRequest.getDesconto() : 0.0;
-        double valorDesconto = valorTotal * (descontoPercentual / 100);
         orcamento.setDesconto(descontoPercentual);
-        orcamento.setValorFinal(valorTotal - valorDesconto);
+        // O valor final soma os mesmos preços com desconto que o pedido convertido vai gravar
+        orcamento.setValorFinal(PrecificacaoService.arredondar(valorFinal));
+
+        Orcamento salvo = orcamentoRepository.save(orcamento);
+        itemOrcamentoRepository.saveAll(novosItens);
+        return salvo;
+    }
+
+    /**
+     * Aprova um orçamento pendente e o converte em um pedido, em uma única transação.
+     * Cada item do orçamento gera um item de pedido com o preço unitário acordado (já com o desconto do orçamento aplicado),
+     * de forma que o pedido não dependa do preço atual do produto.
+     * O status passa de 'Pendente' para 'Aprovado' por um UPDATE condicional, que trava o orçamento até o commit: uma
+     * aprovação simultânea do mesmo orçamento espera e, em seguida, é rejeitada, sem gerar um segundo pedido.
+     *
+     * @param id          O ID do orçamento a ser aprovado.
+     * @param dataEntrega A data de entrega do pedido gerado.
+     * @return O {@link Pedido} criado.
+     * @throws IllegalArgumentException Se o orçamento não for encontrado, não estiver pendente, não tiver itens ou tiver
+     *                                  item com quantidade fracionária.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROXIMOS_PEDIDOS, allEntries = true)
+    public Pedido aprovarEConverter(Long id, LocalDate dataEntrega) {
+        if (dataEntrega == null) {
+            throw new IllegalArgumentException("Informe a data de entrega do pedido.");
+        }
+        if (orcamentoRepository.updateStatusByIdAndStatus(id, "Pendente", "Aprovado") == 0) {
+            if (!orcamentoRepository.existsById(id)) {
+                throw new IllegalArgumentException("Orçamento não encontrado");
+            }
+            throw new IllegalArgumentException("Apenas orçamentos pendentes podem ser aprovados.");
+        }
+        Orcamento orcamento = orcamentoRepository.findByIdWithItens(id)
+                .orElseThrow(() -> new IllegalArgumentException("Orçamento não encontrado"));
+        if (orcamento.getItens() == null || orcamento.getItens().isEmpty()) {
+            throw new IllegalArgumentException("O orçamento não possui itens.");
+        }
+        // Itens de pedido são contados em unidades; arredondar mudaria a quantidade acordada com o cliente
+        for (ItemOrcamento itemOrcamento : orcamento.getItens()) {
+            double quantidade = itemOrcamento.getQuantidade();
+            if (quantidade < 1 || quantidade != Math.rint(quantidade)) {
+                throw new IllegalArgumentException(String.format("A quantidade de '%s' (%s) não é um número inteiro de unidades. Edite o orçamento antes de aprovar.",
+                        itemOrcamento.getProduto().getNome(), quantidade));
+            }
+        }
+
+        Pedido pedido = new Pedido();
+        pedido.setCliente(orcamento.getCliente());
+        pedido.setDataEntrega(dataEntrega);
+        pedido.setStatus(StatusPedido.PENDENTE);
+        pedidoRepository.save(pedido);
 
-        return orcamentoRepository.save(orcamento);
+        List<ItemPedido> itens = new ArrayList<>();
+        for (ItemOrcamento itemOrcamento : orcamento.getItens()) {
+            ItemPedido item = new ItemPedido();
+            item.setPedido(pedido);
+            item.setProduto(itemOrcamento.getProduto());
+            item.setQuantidade((int) itemOrcamento.getQuantidade());
+            item.setValorUnitario(precoComDesconto(itemOrcamento.getValorUnitario(), orcamento.getDesconto()));
+            itens.add(item);
+        }
+        itemPedidoRepository.saveAll(itens);
+
+        return pedido;
+    }
+
+    /**
+     * Preço unitário com o desconto do orçamento, arredondado para centavos. É o preço gravado nos itens do pedido
+     * convertido, e o valor final do orçamento é a soma desses preços vezes as quantidades.
+     */
+    private static double precoComDesconto(double valorUnitario, double descontoPercentual) {
+        return PrecificacaoService.arredondar(valorUnitario * (1 - descontoPercentual / 100));
     }
 
     /**
@@ -1,18 +1,37 @@
 package com.ifsp.projeto.service;
 
+import com.ifsp.projeto.config.CacheConfig;
+import com.ifsp.projeto.controller.dto.AtualizacaoStatusResultado;
 import com.ifsp.projeto.controller.dto.ItemPedidoDTO;
 import com.ifsp.projeto.controller.dto.PedidoRequest;
+import com.ifsp.projeto.controller.dto.ProdutoPrecoDTO;
 import com.ifsp.projeto.model.ItemPedido;
 import com.ifsp.projeto.model.Pedido;
-import com.ifsp.projeto.model.Produto;
+import com.ifsp.projeto.model.StatusPedido;
+import com.ifsp.projeto.repository.ItemPedidoRepository;
 import com.ifsp.projeto.repository.PedidoRepository;
+import com.ifsp.projeto.repository.PedidoSpecifications;
 import com.ifsp.projeto.repository.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Serviço para gerenciar a lógica de negócio relacionada a pedidos de clientes.
@@ -21,37 +40,75 @@ import java.util.List;
 @Service
 public class PedidoService {
 
+    @Value("${confeitaria.pedidos.proximos.dias}")
+    private int diasProximosPedidos;
+
+    @Value("${confeitaria.pedidos.proximos.limite}")
+    private int limiteProximosPedidos;
+
     private final PedidoRepository pedidoRepository;
     private final ProdutoRepository produtoRepository;
+    private final ItemPedidoRepository itemPedidoRepository;
 
-    public PedidoService(PedidoRepository pedidoRepository, ProdutoRepository produtoRepository) {
+    public PedidoService(PedidoRepository pedidoRepository, ProdutoRepository produtoRepository, ItemPedidoRepository itemPedidoRepository) {
         this.pedidoRepository = pedidoRepository;
         this.produtoRepository = produtoRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
     }
 
     /**
-     * Busca todos os pedidos com data de entrega a partir de hoje.
+     * Busca os próximos pedidos não entregues, com data de entrega entre hoje e os próximos dias configurados,
+     * limitados à quantidade configurada. Os itens e produtos de cada pedido já são carregados na mesma consulta.
+     * O resultado fica em cache por um curto período e é invalidado sempre que um pedido é alterado;
+     * por isso é lido do banco principal (transação de escrita), e não de uma réplica possivelmente atrasada.
      *
-     * @return Uma lista de pedidos futuros.
+     * @return Uma lista de pedidos futuros, ordenada pela data de entrega.
      */
+    @Cacheable(CacheConfig.PROXIMOS_PEDIDOS)
+    @Transactional
     public List<Pedido> findUpcomingPedidos() {
-        return pedidoRepository.findUpcomingPedidos(LocalDate.now());
+        LocalDate hoje = LocalDate.now();
+        List<Long> ids = pedidoRepository.findUpcomingPedidoIds(hoje, hoje.plusDays(diasProximosPedidos), StatusPedido.finalizados(), PageRequest.of(0, limiteProximosPedidos));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return pedidoRepository.findAllWithItensByIdIn(ids);
     }
 
     /**
-     * Busca pedidos com base em filtros de cliente, status e data de entrega.
+     * Busca uma página de pedidos com base em filtros de cliente, status e data de entrega.
+     * Apenas os filtros informados entram na consulta; o cliente é comparado por prefixo na coluna normalizada e indexada.
      *
-     * @param cliente Nome do cliente para busca (parcial).
-     * @param status  Status do pedido (ex: 'Pendente', 'Concluído').
+     * @param cliente Início do nome do cliente (sem diferenciar maiúsculas ou acentos).
+     * @param status  Status do pedido (nome ou descrição de {@link StatusPedido}).
      * @param dataStr Data de entrega no formato de string (yyyy-MM-dd).
-     * @return Lista de {@link Pedido} que correspondem aos filtros.
+     * @param pagina  Número da página (começando em 0).
+     * @param tamanho Quantidade de pedidos por página.
+     * @return Uma {@link Page} de {@link Pedido} que correspondem aos filtros, com o total de registros.
      */
-    public List<Pedido> findWithFilters(String cliente, String status, String dataStr) {
+    @Transactional(readOnly = true)
+    public Page<Pedido> findWithFilters(String cliente, String status, String dataStr, int pagina, int tamanho) {
         LocalDate data = null;
         if (dataStr != null && !dataStr.isEmpty()) {
             data = LocalDate.parse(dataStr);
         }
-        return pedidoRepository.findWithFilters(cliente, status, data);
+        PageRequest pageRequest = PageRequest.of(Math.max(pagina, 0), tamanho, Sort.by("dataEntrega").descending().and(Sort.by("id").descending()));
+        StatusPedido statusPedido = status != null && !status.isEmpty() ? StatusPedido.of(status) : null;
+        return pedidoRepository.findAll(PedidoSpecifications.comFiltros(Pedido.normalizarBusca(cliente), statusPedido, data), pageRequest);
+    }
+
+    /**
+     * Preenche a coluna de busca normalizada dos pedidos cadastrados antes da sua criação.
+     * Executado uma vez na inicialização; não faz nada quando todos os pedidos já estão preenchidos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void preencherClienteBusca() {
+        for (Pedido pedido : pedidoRepository.findByClienteBuscaIsNull()) {
+            if (pedido.getCliente() != null) {
+                pedido.setCliente(pedido.getCliente());
+            }
+        }
     }
 
     /**
@@ -66,25 +123,32 @@ public class PedidoService {
 
     /**
      * Cria e salva um novo pedido com base nos dados da requisição.
-     * Define o status inicial como 'Pendente' e associa os itens ao pedido.
+     * Define o status inicial como 'Pendente' e associa os itens ao pedido, registrando em cada item o preço atual do produto.
      *
      * @param pedidoRequest O objeto de requisição ({@link PedidoRequest}) com os dados do pedido.
      * @return A entidade {@link Pedido} que foi salva.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROXIMOS_PEDIDOS, allEntries = true)
     public Pedido salvarPedido(PedidoRequest pedidoRequest) {
         Pedido pedido = new Pedido();
         pedido.setCliente(pedidoRequest.getCliente());
         pedido.setDataEntrega(LocalDate.parse(pedidoRequest.getDataEntrega()));
-        pedido.setStatus("Pendente");
+        pedido.setStatus(StatusPedido.PENDENTE);
+        pedidoRepository.save(pedido);
+
+        // OTIMIZAÇÃO: Busca o preço de todos os produtos em uma única consulta e insere os itens em lote
+        Set<Long> produtoIds = pedidoRequest.getItens().stream().map(ItemPedidoDTO::getProdutoId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Double> precos = produtoIds.isEmpty() ? Map.of() : produtoRepository.findPrecosByIdIn(produtoIds).stream()
+                .collect(Collectors.toMap(ProdutoPrecoDTO::id, ProdutoPrecoDTO::preco));
 
         List<ItemPedido> itens = new ArrayList<>();
         for (ItemPedidoDTO itemDTO : pedidoRequest.getItens()) {
-            Produto produto = produtoRepository.findById(itemDTO.getProdutoId()).orElse(null);
-            if (produto != null) {
+            if (precos.containsKey(itemDTO.getProdutoId())) {
                 ItemPedido item = new ItemPedido();
-                item.setProduto(produto);
+                item.setProduto(produtoRepository.getReferenceById(itemDTO.getProdutoId()));
                 item.setQuantidade(itemDTO.getQuantidade());
+                item.setValorUnitario(precos.get(itemDTO.getProdutoId()));
                 item.setMassa(itemDTO.getMassa());
                 item.setRecheio(itemDTO.getRecheio());
                 item.setDetalhes(itemDTO.getDetalhes());
@@ -92,9 +156,9 @@ public class PedidoService {
                 itens.add(item);
             }
         }
-        pedido.setItens(itens);
+        itemPedidoRepository.saveAll(itens);
 
-        return pedidoRepository.save(pedido);
+        return pedido;
     }
 
     /**
@@ -103,23 +167,61 @@ public class PedidoService {
      * @param id O ID do pedido a ser excluído.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROXIMOS_PEDIDOS, allEntries = true)
     public void excluirPedido(Long id) {
         pedidoRepository.deleteById(id);
     }
 
     /**
-     * Atualiza o status de um pedido existente.
+     * Atualiza o status de um pedido existente, respeitando as transições permitidas em {@link StatusPedido}.
      *
      * @param id     O ID do pedido a ser atualizado.
-     * @param status O novo status do pedido.
+     * @param status O novo status do pedido (nome ou descrição).
      * @return O pedido com o status atualizado.
-     * @throws IllegalArgumentException Se o pedido com o ID fornecido não for encontrado.
+     * @throws IllegalArgumentException Se o pedido não for encontrado, o status for inválido ou a transição não for permitida.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROXIMOS_PEDIDOS, allEntries = true)
     public Pedido atualizarStatus(Long id, String status) {
+        StatusPedido novoStatus = StatusPedido.of(status);
         Pedido pedido = pedidoRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado!"));
-        pedido.setStatus(status);
+        if (!pedido.getStatus().podeMudarPara(novoStatus)) {
+            throw new IllegalArgumentException("Não é possível mudar o pedido de '" + pedido.getStatus().getDescricao() + "' para '" + novoStatus.getDescricao() + "'.");
+        }
+        pedido.setStatus(novoStatus);
         return pedidoRepository.save(pedido);
     }
+
+    /**
+     * Aplica a mesma mudança de status a vários pedidos com um único UPDATE.
+     * Somente os pedidos cuja situação atual permite a transição são alterados; os demais (inexistentes
+     * ou em situação incompatível) são devolvidos como rejeitados.
+     *
+     * @param ids    Os IDs dos pedidos a serem atualizados.
+     * @param status O novo status (nome ou descrição).
+     * @return Um {@link AtualizacaoStatusResultado} com os IDs atualizados e os rejeitados.
+     * @throws IllegalArgumentException Se nenhum pedido for informado ou o status for inválido.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROXIMOS_PEDIDOS, allEntries = true)
+    public AtualizacaoStatusResultado atualizarStatusEmLote(List<Long> ids, String status) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum pedido foi selecionado.");
+        }
+        StatusPedido novoStatus = StatusPedido.of(status);
+        Set<StatusPedido> permitidos = StatusPedido.origensPermitidas(novoStatus);
+        Set<Long> solicitados = new LinkedHashSet<>(ids);
+
+        List<Long> atualizados = permitidos.isEmpty()
+                ? List.of()
+                : pedidoRepository.lockIdsByIdInAndStatusIn(solicitados, permitidos);
+        if (!atualizados.isEmpty()) {
+            pedidoRepository.updateStatusByIdInAndStatusIn(atualizados, permitidos, novoStatus);
+        }
+
+        Set<Long> aceitos = new HashSet<>(atualizados);
+        List<Long> rejeitados = solicitados.stream().filter(id -> !aceitos.contains(id)).toList();
+        return new AtualizacaoStatusResultado(atualizados, rejeitados);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.ifsp.projeto.service;
+
+import com.ifsp.projeto.config.PrecificacaoProperties;
+import com.ifsp.projeto.controller.dto.CustoProdutoDTO;
+import com.ifsp.projeto.controller.dto.PrecoCalculadoDTO;
+import com.ifsp.projeto.repository.ProdutoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Motor de precificação dos produtos.
+ * Mantém uma tabela de preços imutável (custo e tipo de cada produto, markups e faixas de desconto) que é
+ * recalculada por inteiro e trocada atomicamente sempre que custos ou produtos mudam. As consultas de preço
+ * apenas leem a tabela atual, sem acessar o banco.
+ */
+@Service
+public class PrecificacaoService {
+
+    private final ProdutoRepository produtoRepository;
+    private final double markupPadrao;
+    private final Map<String, Double> markupPorTipo;
+    private final List<PrecificacaoProperties.Faixa> faixas;
+
+    private final AtomicReference<TabelaPrecos> tabela = new AtomicReference<>(new TabelaPrecos(Map.of()));
+
+    public PrecificacaoService(ProdutoRepository produtoRepository, PrecificacaoProperties properties, @Value("${confeitaria.produto.markup}") double markupPadrao) {
+        this.produtoRepository = produtoRepository;
+        this.markupPadrao = markupPadrao;
+        this.markupPorTipo = properties.markupPorTipo();
+        // Da maior para a menor quantidade mínima, para que a primeira faixa atingida seja a de maior desconto
+        this.faixas = properties.faixas().stream()
+                .sorted(Comparator.comparingDouble(PrecificacaoProperties.Faixa::quantidadeMinima).reversed())
+                .toList();
+    }
+
+    /**
+     * Retorna o markup configurado para o tipo de produto, ou o markup padrão se o tipo não tiver um específico.
+     *
+     * @param tipo O tipo do produto (ex: 'Massa', 'Recheio', 'Outros').
+     * @return O fator multiplicado pelo custo para obter o preço de venda.
+     */
+    public double markupPara(String tipo) {
+        return tipo != null ? markupPorTipo.getOrDefault(tipo, markupPadrao) : markupPadrao;
+    }
+
+    /**
+     * Calcula o preço de venda de tabela (sem desconto por quantidade) a partir do custo e do tipo do produto.
+     *
+     * @param custo Custo total dos ingredientes.
+     * @param tipo  O tipo do produto.
+     * @return O preço de venda unitário.
+     */
+    public double calcularPrecoBase(double custo, String tipo) {
+        return custo * markupPara(tipo);
+    }
+
+    /**
+     * Retorna o desconto percentual da maior faixa atingida pela quantidade.
+     *
+     * @param quantidade A quantidade do item.
+     * @return O desconto em porcentagem, ou 0 se nenhuma faixa for atingida.
+     */
+    public double descontoPara(double quantidade) {
+        for (PrecificacaoProperties.Faixa faixa : faixas) {
+            if (quantidade >= faixa.quantidadeMinima()) {
+                return faixa.desconto();
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Calcula o preço de um produto para a quantidade informada usando a tabela de preços atual.
+     *
+     * @param produtoId  O ID do produto.
+     * @param quantidade A quantidade do item.
+     * @return Um {@link Optional} com o {@link PrecoCalculadoDTO}, ou vazio se o produto não estiver na tabela.
+     */
+    public Optional<PrecoCalculadoDTO> calcularPreco(Long produtoId, double quantidade) {
+        CustoProdutoDTO custo = tabela.get().produtos().get(produtoId);
+        if (custo == null) {
+            return Optional.empty();
+        }
+        double desconto = descontoPara(quantidade);
+        double valorUnitario = arredondar(calcularPrecoBase(custo.custo(), custo.tipo()) * (1 - desconto / 100));
+        return Optional.of(new PrecoCalculadoDTO(produtoId, quantidade, custo.custo(), desconto, valorUnitario, arredondar(valorUnitario * quantidade)));
+    }
+
+    /**
+     * Retorna o custo atual dos ingredientes de uma unidade do produto, segundo a tabela de preços.
+     *
+     * @param produtoId O ID do produto.
+     * @return Um {@link Optional} com o custo, ou vazio se o produto não estiver na tabela.
+     */
+    public Optional<Double> custoUnitario(Long produtoId) {
+        return Optional.ofNullable(tabela.get().produtos().get(produtoId)).map(CustoProdutoDTO::custo);
+    }
+
+    /**
+     * Reconstrói a tabela de preços a partir do custo atual de cada produto, calculado pelo banco em uma única consulta,
+     * e a publica de uma vez. Leitores concorrentes continuam vendo a tabela anterior até a troca.
+     * Lê sempre do banco principal: a reconstrução roda logo após o commit da alteração, que a réplica pode ainda não ter recebido.
+     * Com {@code confeitaria.precificacao.recarga} definida (perfil "cluster"), também roda periodicamente, para receber
+     * as alterações feitas pelas outras instâncias.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${confeitaria.precificacao.recarga}")
+    @Transactional
+    public synchronized void reconstruirTabela() {
+        Map<Long, CustoProdutoDTO> produtos = produtoRepository.findCustos().stream()
+                .collect(Collectors.toUnmodifiableMap(CustoProdutoDTO::id, custo -> custo));
+        tabela.set(new TabelaPrecos(produtos));
+    }
+
+    /**
+     * Reconstrói a tabela depois que a transação que alterou custos ou produtos for confirmada.
+     * Sem transação ativa, reconstrói imediatamente.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void aoAlterarPrecos(PrecosAlteradosEvent event) {
+        reconstruirTabela();
+    }
+
+    /**
+     * Arredonda um valor em reais para centavos, como em todos os preços calculados aqui.
+     */
+    public static double arredondar(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    private record TabelaPrecos(Map<Long, CustoProdutoDTO> produtos) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.ifsp.projeto.service;
+
+/**
+ * Publicado quando custos de matéria-prima ou produtos mudam, para que a tabela de preços seja reconstruída após o commit.
+ */
+public record PrecosAlteradosEvent() {
+}
@@ -1,43 +1,72 @@
 package com.ifsp.projeto.service;
 
+import com.ifsp.projeto.config.CacheConfig;
 import com.ifsp.projeto.controller.dto.ProducaoDTO;
 import com.ifsp.projeto.controller.dto.ProducaoDisponivelDTO;
 import com.ifsp.projeto.controller.dto.ProducaoEventoDTO;
-import com.ifsp.projeto.model.Ingrediente;
+import com.ifsp.projeto.model.IngredienteReceita;
+import com.ifsp.projeto.model.ItemPedido;
 import com.ifsp.projeto.model.MateriaPrima;
 import com.ifsp.projeto.model.Producao;
 import com.ifsp.projeto.model.Produto;
+import com.ifsp.projeto.model.ReceitaVersao;
+import com.ifsp.projeto.model.StatusPedido;
+import com.ifsp.projeto.repository.ItemPedidoRepository;
 import com.ifsp.projeto.repository.ItemVendaRepository;
 import com.ifsp.projeto.repository.MateriaPrimaRepository;
+import com.ifsp.projeto.repository.PedidoRepository;
 import com.ifsp.projeto.repository.ProducaoRepository;
 import com.ifsp.projeto.repository.ProdutoRepository;
+import com.ifsp.projeto.repository.ReceitaVersaoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Serviço para gerenciar a lógica de negócio da produção de itens.
  * Responsável por registrar novas produções, o que implica em consumir matéria-prima do estoque.
  * Também gerencia o ajuste e a remoção de produções, devolvendo a matéria-prima ao estoque.
+ * Cada lote guarda a versão da receita com que foi produzido, e é ela que define o que é consumido ou devolvido,
+ * mesmo que a receita do produto tenha mudado depois. O custo unitário do lote também é fixado no registro,
+ * para que o custo das vendas não dependa dos preços atuais das matérias-primas.
  */
 @Service
 public class ProducaoService {
 
     private final ProducaoRepository producaoRepository;
-    private final ProdutoRepository produtoRepository;
+    private final ReceitaVersaoRepository receitaVersaoRepository;
     private final MateriaPrimaRepository materiaPrimaRepository;
     private final ItemVendaRepository itemVendaRepository;
+    private final ItemPedidoRepository itemPedidoRepository;
+    private final PedidoRepository pedidoRepository;
+    private final ProdutoRepository produtoRepository;
+    private final PrecificacaoService precificacaoService;
 
-    public ProducaoService(ProducaoRepository producaoRepository, ProdutoRepository produtoRepository, MateriaPrimaRepository materiaPrimaRepository, ItemVendaRepository itemVendaRepository) {
+    public ProducaoService(ProducaoRepository producaoRepository, ReceitaVersaoRepository receitaVersaoRepository, MateriaPrimaRepository materiaPrimaRepository, ItemVendaRepository itemVendaRepository, ItemPedidoRepository itemPedidoRepository, PedidoRepository pedidoRepository, ProdutoRepository produtoRepository, PrecificacaoService precificacaoService) {
         this.producaoRepository = producaoRepository;
-        this.produtoRepository = produtoRepository;
+        this.receitaVersaoRepository = receitaVersaoRepository;
         this.materiaPrimaRepository = materiaPrimaRepository;
         this.itemVendaRepository = itemVendaRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
+        this.pedidoRepository = pedidoRepository;
+        this.produtoRepository = produtoRepository;
+        this.precificacaoService = precificacaoService;
     }
 
     /**
@@ -62,6 +91,7 @@ public class ProducaoService {
      * Agrupa os registros de produção por data para exibição em calendário.
      * @return Lista de {@link ProducaoEventoDTO} com o resumo da produção de cada dia.
      */
+    @Transactional(readOnly = true)
     public List<ProducaoEventoDTO> getProducaoEventos() {
         return producaoRepository.findAllWithProduto().stream()
                 .collect(Collectors.groupingBy(Producao::getDataProducao))
@@ -81,6 +111,7 @@ public class ProducaoService {
      * @param data A data no formato de string (yyyy-MM-dd).
      * @return Lista de {@link Producao} da data especificada.
      */
+    @Transactional(readOnly = true)
     public List<Producao> getProducaoPorData(String data) {
         LocalDate localDate = LocalDate.parse(data);
         return producaoRepository.findByDataProducao(localDate);
@@ -105,6 +136,7 @@ public class ProducaoService {
      * @throws IllegalArgumentException Se a produção não for encontrada ou a quantidade a remover for inválida.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MATERIAS_PRIMAS, allEntries = true)
     public void removerQuantidadeProducao(Long producaoId, int quantidadeARemover) {
         if (quantidadeARemover <= 0) {
             throw new IllegalArgumentException("A quantidade a ser removida deve ser maior que zero.");
@@ -114,45 +146,154 @@ public class ProducaoService {
                 .orElseThrow(() -> new IllegalArgumentException("Produção não encontrada."));
 
         int quantidadeAtual = producao.getQuantidade();
+        List<IngredienteReceita> receita = receitaDe(producao);
 
         if (quantidadeARemover > quantidadeAtual) {
             throw new IllegalArgumentException("Não é possível remover mais itens do que foram produzidos.");
         }
 
         if (quantidadeARemover == quantidadeAtual) {
+            itemPedidoRepository.desvincularProducao(producao.getId());
             producaoRepository.delete(producao);
         } else {
             producao.setQuantidade(quantidadeAtual - quantidadeARemover);
             producaoRepository.save(producao);
         }
 
-        Produto produto = produtoRepository.findByIdWithIngredientes(producao.getProduto().getId())
-                                           .orElse(producao.getProduto());
-
-        devolverEstoque(produto, quantidadeARemover);
+        devolverEstoque(receita, quantidadeARemover);
     }
 
     /**
      * Registra uma nova produção de um ou mais produtos, consumindo a matéria-prima necessária do estoque.
      * @param producoes Lista de {@link ProducaoDTO} com os dados dos produtos a serem produzidos.
      * @param dataProducao A data em que a produção foi realizada.
+     * @throws IllegalStateException Se algum produto não tiver receita cadastrada; nada é gravado.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MATERIAS_PRIMAS, allEntries = true)
     public void registrarProducao(List<ProducaoDTO> producoes, LocalDate dataProducao) {
+        List<Producao> lotes = new ArrayList<>();
+        Map<Long, Double> necessidade = new TreeMap<>();
         for (ProducaoDTO producaoDTO : producoes) {
             if (producaoDTO.getQuantidade() > 0) {
-                produtoRepository.findByIdWithIngredientes(producaoDTO.getProdutoId()).ifPresent(produto -> {
-                    atualizarEstoque(produto, producaoDTO.getQuantidade());
-                    Producao producao = new Producao();
-                    producao.setProduto(produto);
-                    producao.setQuantidade(producaoDTO.getQuantidade());
-                    producao.setDataProducao(dataProducao);
-                    producao.setMassa(producaoDTO.getMassa());
-                    producao.setRecheio(producaoDTO.getRecheio());
-                    producaoRepository.save(producao);
-                });
+                ReceitaVersao versao = receitaVersaoRepository.findAtualByProdutoId(producaoDTO.getProdutoId())
+                        .orElseThrow(() -> new IllegalStateException(semReceita(List.of(nomeDoProduto(producaoDTO.getProdutoId())))));
+                necessidade(versao.getIngredientes(), producaoDTO.getQuantidade()).forEach((mpId, quantidade) -> necessidade.merge(mpId, quantidade, Double::sum));
+                Producao producao = new Producao();
+                producao.setProduto(versao.getProduto());
+                producao.setReceitaVersao(versao);
+                producao.setCustoUnitario(custoUnitario(versao));
+                producao.setQuantidade(producaoDTO.getQuantidade());
+                producao.setDataProducao(dataProducao);
+                producao.setMassa(producaoDTO.getMassa());
+                producao.setRecheio(producaoDTO.getRecheio());
+                lotes.add(producao);
+            }
+        }
+        // Uma baixa por matéria-prima, em ordem de ID, como na produção dos pedidos: produções simultâneas de
+        // receitas com ingredientes em ordens diferentes não travam umas às outras
+        necessidade.forEach(materiaPrimaRepository::baixarEstoque);
+        producaoRepository.saveAll(lotes);
+    }
+
+    /**
+     * Gera a produção do dia a partir dos pedidos pendentes com entrega na data informada.
+     * Os itens iguais (mesmo produto, massa e recheio) são agrupados em um único lote de produção, a matéria-prima
+     * necessária para todos os lotes é somada e baixada do estoque uma única vez, e cada item do pedido passa a
+     * referenciar o lote que o atendeu. Os pedidos atendidos passam para 'Em produção'.
+     * Tudo ocorre em uma única transação: se faltar estoque, nada é gravado.
+     * Os pedidos ficam travados (SELECT ... FOR UPDATE) até o fim da transação; uma execução simultânea para a mesma
+     * data espera e, depois do commit desta, só encontra os pedidos que continuaram pendentes.
+     *
+     * @param data A data de entrega dos pedidos, que também será a data da produção.
+     * @return A lista de lotes de {@link Producao} criados (vazia se não houver pedidos a produzir).
+     * @throws IllegalArgumentException Se o estoque de alguma matéria-prima for insuficiente.
+     * @throws IllegalStateException Se algum produto dos pedidos não tiver receita cadastrada, ou se algum pedido
+     *                               deixar de estar pendente antes do fim da produção.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.PROXIMOS_PEDIDOS, CacheConfig.MATERIAS_PRIMAS}, allEntries = true)
+    public List<Producao> registrarProducaoDosPedidos(LocalDate data) {
+        List<ItemPedido> encontrados = itemPedidoRepository.findSemProducaoByDataEntregaAndStatus(data, StatusPedido.PENDENTE);
+        if (encontrados.isEmpty()) {
+            return List.of();
+        }
+        // A leitura dos itens não trava nada: só entram os pedidos que continuam pendentes depois de travados
+        Set<Long> pedidoIds = new HashSet<>(pedidoRepository.lockIdsByIdInAndStatusIn(
+                encontrados.stream().map(item -> item.getPedido().getId()).collect(Collectors.toSet()), EnumSet.of(StatusPedido.PENDENTE)));
+        List<ItemPedido> itens = encontrados.stream()
+                .filter(item -> pedidoIds.contains(item.getPedido().getId()))
+                .toList();
+        if (itens.isEmpty()) {
+            return List.of();
+        }
+
+        Map<ChaveLote, List<ItemPedido>> itensPorLote = itens.stream()
+                .collect(Collectors.groupingBy(item -> new ChaveLote(item.getProduto().getId(), textoOuNulo(item.getMassa()), textoOuNulo(item.getRecheio())),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        Set<Long> produtoIds = itensPorLote.keySet().stream().map(ChaveLote::produtoId).collect(Collectors.toSet());
+        Map<Long, ReceitaVersao> receitas = receitaVersaoRepository.findAtuaisByProdutoIdIn(produtoIds).stream()
+                .collect(Collectors.toMap(versao -> versao.getProduto().getId(), Function.identity()));
+        List<String> semReceita = itens.stream()
+                .map(ItemPedido::getProduto)
+                .filter(produto -> !receitas.containsKey(produto.getId()))
+                .map(Produto::getNome)
+                .distinct()
+                .toList();
+        if (!semReceita.isEmpty()) {
+            throw new IllegalStateException(semReceita(semReceita));
+        }
+
+        // Soma a necessidade de cada matéria-prima para todos os lotes antes de mexer no estoque
+        Map<Long, MateriaPrima> materiasPrimas = new LinkedHashMap<>();
+        Map<Long, Double> necessidade = new LinkedHashMap<>();
+        itensPorLote.forEach((chave, itensDoLote) -> {
+            int quantidade = itensDoLote.stream().mapToInt(ItemPedido::getQuantidade).sum();
+            for (IngredienteReceita ingrediente : receitas.get(chave.produtoId()).getIngredientes()) {
+                MateriaPrima mp = ingrediente.getMateriaPrima();
+                materiasPrimas.putIfAbsent(mp.getId(), mp);
+                necessidade.merge(mp.getId(), ingrediente.getQuantidade() * quantidade, Double::sum);
             }
+        });
+
+        // A baixa só acontece se o estoque gravado cobrir a necessidade; a verificação e a baixa são o mesmo UPDATE.
+        // As linhas são atualizadas em ordem de ID, para que execuções simultâneas não travem umas às outras em ordens cruzadas
+        List<String> erros = new ArrayList<>();
+        new TreeMap<>(necessidade).forEach((mpId, quantidadeNecessaria) -> {
+            if (materiaPrimaRepository.baixarEstoqueSeDisponivel(mpId, quantidadeNecessaria) == 0) {
+                erros.add(String.format("Estoque de '%s' insuficiente. Necessário: %.2f, Disponível: %.2f",
+                        materiasPrimas.get(mpId).getNome(), quantidadeNecessaria, materiaPrimaRepository.findQuantidadeById(mpId).orElse(0.0)));
+            }
+        });
+        if (!erros.isEmpty()) {
+            throw new IllegalArgumentException(String.join(" ", erros));
+        }
+
+        List<Producao> lotes = new ArrayList<>();
+        itensPorLote.forEach((chave, itensDoLote) -> {
+            Producao producao = new Producao();
+            ReceitaVersao receita = receitas.get(chave.produtoId());
+            producao.setProduto(receita.getProduto());
+            producao.setReceitaVersao(receita);
+            producao.setCustoUnitario(custoUnitario(receita));
+            producao.setQuantidade(itensDoLote.stream().mapToInt(ItemPedido::getQuantidade).sum());
+            producao.setDataProducao(data);
+            producao.setMassa(chave.massa());
+            producao.setRecheio(chave.recheio());
+            lotes.add(producao);
+            itensDoLote.forEach(item -> item.setProducao(producao));
+        });
+        producaoRepository.saveAll(lotes);
+        itemPedidoRepository.saveAll(itens);
+
+        int atualizados = pedidoRepository.updateStatusByIdInAndStatusIn(pedidoIds, EnumSet.of(StatusPedido.PENDENTE), StatusPedido.EM_PRODUCAO);
+        if (atualizados != pedidoIds.size()) {
+            // Desfaz os lotes e a baixa do estoque: algum pedido foi produzido ou alterado por outra operação
+            throw new IllegalStateException("Os pedidos do dia foram alterados durante a produção. Tente novamente.");
         }
+
+        return lotes;
     }
 
     /**
@@ -160,16 +301,16 @@ public class ProducaoService {
      * @param id O ID do lote de produção a ser incrementado.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MATERIAS_PRIMAS, allEntries = true)
     public void aumentarProducao(Long id) {
         Optional<Producao> producaoOpt = producaoRepository.findById(id);
         if (producaoOpt.isPresent()) {
             Producao producao = producaoOpt.get();
-            Produto produto = produtoRepository.findByIdWithIngredientes(producao.getProduto().getId()).orElse(producao.getProduto());
 
             producao.setQuantidade(producao.getQuantidade() + 1);
             producaoRepository.save(producao);
 
-            atualizarEstoque(produto, 1);
+            atualizarEstoque(receitaDe(producao), 1);
         }
     }
 
@@ -179,18 +320,20 @@ public class ProducaoService {
      * @param id O ID do lote de produção a ser decrementado.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MATERIAS_PRIMAS, allEntries = true)
     public void diminuirProducao(Long id) {
         Optional<Producao> producaoOpt = producaoRepository.findById(id);
         if (producaoOpt.isPresent()) {
             Producao producao = producaoOpt.get();
-            Produto produto = produtoRepository.findByIdWithIngredientes(producao.getProduto().getId()).orElse(producao.getProduto());
+            List<IngredienteReceita> receita = receitaDe(producao);
             if (producao.getQuantidade() > 1) {
                 producao.setQuantidade(producao.getQuantidade() - 1);
                 producaoRepository.save(producao);
-                devolverEstoque(produto, 1);
+                devolverEstoque(receita, 1);
             } else {
+                itemPedidoRepository.desvincularProducao(producao.getId());
                 producaoRepository.delete(producao);
-                devolverEstoque(produto, 1);
+                devolverEstoque(receita, 1);
             }
         }
     }
@@ -200,24 +343,25 @@ public class ProducaoService {
      * @param id O ID do lote de produção a ser removido.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MATERIAS_PRIMAS, allEntries = true)
     public void removerProducao(Long id) {
         Optional<Producao> producaoOpt = producaoRepository.findById(id);
         if (producaoOpt.isPresent()) {
             Producao producao = producaoOpt.get();
             int quantidadeProduzida = producao.getQuantidade();
-            Produto produto = producao.getProduto();
 
             itemVendaRepository.deleteByProducaoId(id);
+            itemPedidoRepository.desvincularProducao(id);
 
-            Produto produtoComIngredientes = produtoRepository.findByIdWithIngredientes(produto.getId()).orElse(produto);
-            devolverEstoque(produtoComIngredientes, quantidadeProduzida);
+            devolverEstoque(receitaDe(producao), quantidadeProduzida);
 
             producaoRepository.delete(producao);
         }
     }
 
     /**
-     * Valida se há estoque de matéria-prima suficiente para realizar uma lista de produções.
+     * Valida se há estoque de matéria-prima suficiente para realizar uma lista de produções, e se todos os produtos
+     * têm receita cadastrada.
      * @param producoes A lista de produções planejadas.
      * @return Uma lista de strings com as mensagens de erro, ou uma lista vazia se o estoque for suficiente.
      */
@@ -225,35 +369,97 @@ public class ProducaoService {
         List<String> erros = new ArrayList<>();
         for (ProducaoDTO producaoDTO : producoes) {
             if (producaoDTO.getQuantidade() > 0) {
-                produtoRepository.findByIdWithIngredientes(producaoDTO.getProdutoId()).ifPresent(produto -> {
-                    for (Ingrediente ingrediente : produto.getIngredientes()) {
-                        MateriaPrima mp = ingrediente.getMateriaPrima();
-                        double quantidadeNecessaria = ingrediente.getQuantidade() * producaoDTO.getQuantidade();
-                        if (mp.getQuantidade() < quantidadeNecessaria) {
-                            erros.add(String.format("Estoque de '%s' insuficiente para '%s'. Necessário: %.2f, Disponível: %.2f",
-                                    mp.getNome(), produto.getNome(), quantidadeNecessaria, mp.getQuantidade()));
-                        }
+                Optional<ReceitaVersao> receita = receitaVersaoRepository.findAtualByProdutoId(producaoDTO.getProdutoId());
+                if (receita.isEmpty()) {
+                    erros.add(semReceita(List.of(nomeDoProduto(producaoDTO.getProdutoId()))));
+                    continue;
+                }
+                ReceitaVersao versao = receita.get();
+                for (IngredienteReceita ingrediente : versao.getIngredientes()) {
+                    MateriaPrima mp = ingrediente.getMateriaPrima();
+                    double quantidadeNecessaria = ingrediente.getQuantidade() * producaoDTO.getQuantidade();
+                    if (mp.getQuantidade() < quantidadeNecessaria) {
+                        erros.add(String.format("Estoque de '%s' insuficiente para '%s'. Necessário: %.2f, Disponível: %.2f",
+                                mp.getNome(), versao.getProduto().getNome(), quantidadeNecessaria, mp.getQuantidade()));
                     }
-                });
+                }
             }
         }
         return erros;
     }
 
-    private void atualizarEstoque(Produto produto, int quantidade) {
-        for (Ingrediente ingrediente : produto.getIngredientes()) {
-            MateriaPrima mp = ingrediente.getMateriaPrima();
-            double quantidadeNecessaria = ingrediente.getQuantidade() * quantidade;
-            mp.setQuantidade(mp.getQuantidade() - quantidadeNecessaria);
-            materiaPrimaRepository.save(mp);
+    /**
+     * Preenche o custo unitário das produções e itens de venda registrados antes da sua criação, a partir da versão
+     * da receita de cada lote e do valor atual das matérias-primas. Executado na inicialização, depois do
+     * versionamento das receitas; não faz nada quando todos os registros já têm custo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order
+    @Transactional
+    public void preencherCustoUnitario() {
+        producaoRepository.preencherCustoUnitario();
+        itemVendaRepository.preencherCustoUnitario();
+    }
+
+    /**
+     * Custo de uma unidade produzida com a versão da receita: o custo em cache na tabela de preços, ou a soma dos
+     * ingredientes da versão se o produto ainda não estiver na tabela.
+     */
+    private double custoUnitario(ReceitaVersao versao) {
+        return precificacaoService.custoUnitario(versao.getProduto().getId())
+                .orElseGet(() -> versao.getIngredientes().stream()
+                        .mapToDouble(ingrediente -> ingrediente.getQuantidade() * ingrediente.getMateriaPrima().getValor())
+                        .sum());
+    }
+
+    /**
+     * Retorna os ingredientes da receita usada no lote. Lotes ainda não vinculados a uma versão usam a receita atual do produto.
+     */
+    private List<IngredienteReceita> receitaDe(Producao producao) {
+        if (producao.getReceitaVersao() != null) {
+            return producao.getReceitaVersao().getIngredientes();
         }
+        return receitaVersaoRepository.findAtualByProdutoId(producao.getProduto().getId())
+                .map(ReceitaVersao::getIngredientes)
+                .orElse(List.of());
+    }
+
+    /**
+     * Mensagem para produtos sem receita atual: sem ela não há o que baixar do estoque nem custo para o lote.
+     */
+    private static String semReceita(List<String> produtos) {
+        return produtos.stream().map(nome -> "'" + nome + "'").collect(Collectors.joining(", ",
+                produtos.size() == 1 ? "O produto " : "Os produtos ",
+                (produtos.size() == 1 ? " não tem" : " não têm") + " receita cadastrada. Cadastre a receita antes de registrar a produção."));
+    }
+
+    private String nomeDoProduto(Long produtoId) {
+        return produtoRepository.findById(produtoId).map(Produto::getNome).orElse("#" + produtoId);
+    }
+
+    private void atualizarEstoque(List<IngredienteReceita> receita, int quantidade) {
+        necessidade(receita, quantidade).forEach(materiaPrimaRepository::baixarEstoque);
+    }
+
+    private void devolverEstoque(List<IngredienteReceita> receita, int quantidade) {
+        necessidade(receita, quantidade).forEach(materiaPrimaRepository::devolverEstoque);
     }
 
-    private void devolverEstoque(Produto produto, int quantidade) {
-        for (Ingrediente ingrediente : produto.getIngredientes()) {
-            MateriaPrima mp = ingrediente.getMateriaPrima();
-            mp.setQuantidade(mp.getQuantidade() + (ingrediente.getQuantidade() * quantidade));
-            materiaPrimaRepository.save(mp);
+    /**
+     * Quantidade de cada matéria-prima da receita, ordenada por ID: o estoque é sempre atualizado nessa ordem.
+     */
+    private static Map<Long, Double> necessidade(List<IngredienteReceita> receita, int quantidade) {
+        Map<Long, Double> necessidade = new TreeMap<>();
+        for (IngredienteReceita ingrediente : receita) {
+            necessidade.merge(ingrediente.getMateriaPrima().getId(), ingrediente.getQuantidade() * quantidade, Double::sum);
         }
+        return necessidade;
+    }
+
+    private static String textoOuNulo(String texto) {
+        return texto == null || texto.isBlank() ? null : texto.trim();
+    }
+
+    private record ChaveLote(Long produtoId, String massa, String recheio) {
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,22 @@
 package com.ifsp.projeto.service;
 
+import com.ifsp.projeto.config.CacheConfig;
+import com.ifsp.projeto.controller.dto.ProdutoResumo;
 import com.ifsp.projeto.model.*;
 import com.ifsp.projeto.repository.*;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,28 +30,49 @@ import java.util.stream.Collectors;
 @Service
 public class ProdutoService {
 
-    @Value("${confeitaria.produto.markup}")
-    private double markup;
-
     private final ProdutoRepository produtoRepository;
     private final IngredienteRepository ingredienteRepository;
     private final MateriaPrimaRepository materiaPrimaRepository;
+    private final ItemPedidoRepository itemPedidoRepository;
+    private final ItemOrcamentoRepository itemOrcamentoRepository;
+    private final ItemVendaRepository itemVendaRepository;
+    private final ProducaoRepository producaoRepository;
+    private final VendaRepository vendaRepository;
+    private final ReceitaVersaoRepository receitaVersaoRepository;
+    private final PrecificacaoService precificacaoService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProdutoService(ProdutoRepository produtoRepository, IngredienteRepository ingredienteRepository, MateriaPrimaRepository materiaPrimaRepository) {
+    public ProdutoService(ProdutoRepository produtoRepository, IngredienteRepository ingredienteRepository, MateriaPrimaRepository materiaPrimaRepository, ItemPedidoRepository itemPedidoRepository,
+                          ItemOrcamentoRepository itemOrcamentoRepository, ItemVendaRepository itemVendaRepository, ProducaoRepository producaoRepository,
+                          VendaRepository vendaRepository, ReceitaVersaoRepository receitaVersaoRepository, PrecificacaoService precificacaoService, ApplicationEventPublisher eventPublisher) {
         this.produtoRepository = produtoRepository;
         this.ingredienteRepository = ingredienteRepository;
         this.materiaPrimaRepository = materiaPrimaRepository;
+        this.itemPedidoRepository = itemPedidoRepository;
+        this.itemOrcamentoRepository = itemOrcamentoRepository;
+        this.itemVendaRepository = itemVendaRepository;
+        this.producaoRepository = producaoRepository;
+        this.vendaRepository = vendaRepository;
+        this.receitaVersaoRepository = receitaVersaoRepository;
+        this.precificacaoService = precificacaoService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * Busca todos os produtos cadastrados no sistema.
+     * Busca o catálogo de produtos (sem receitas), ordenado pelo nome.
+     * O resultado fica em cache até que um produto seja salvo, excluído ou tenha o preço recalculado.
+     * A transação não é somente leitura para que a consulta vá ao banco principal: lida da réplica logo após
+     * a invalidação, poderia guardar no cache um catálogo ainda sem a alteração.
      *
-     * @return Uma lista de todos os produtos.
+     * @return Uma lista imutável de {@link ProdutoResumo}.
      */
-    public List<Produto> findAll() {
-        return produtoRepository.findAll();
+    @Cacheable(CacheConfig.CATALOGO_PRODUTOS)
+    @Transactional
+    public List<ProdutoResumo> findResumos() {
+        return List.copyOf(produtoRepository.findResumos());
     }
 
+
     /**
      * Busca um produto específico pelo seu ID, incluindo sua lista de ingredientes.
      *
@@ -54,8 +85,9 @@ public class ProdutoService {
 
     /**
      * Salva um novo produto ou atualiza um existente.
-     * Calcula o custo total com base nos ingredientes e define o preço de venda com uma margem de 30%.
-     * Se o produto já existe, seus ingredientes antigos são removidos antes de adicionar os novos.
+     * Calcula o custo total com base nos ingredientes e define o preço de venda com o markup configurado para o tipo do produto.
+     * Os ingredientes são comparados com a receita atual em memória: apenas os alterados, removidos ou novos são gravados,
+     * e uma nova {@link ReceitaVersao} só é criada quando a receita realmente muda (ou na primeira gravação do produto).
      *
      * @param produto O objeto {@link Produto} a ser salvo.
      * @param ingredientesIds Lista de IDs das matérias-primas que compõem o produto.
@@ -63,42 +95,70 @@ public class ProdutoService {
      * @return O produto salvo com o preço calculado e a lista de ingredientes.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATALOGO_PRODUTOS, allEntries = true)
     public Produto salvarProduto(Produto produto, List<Long> ingredientesIds, List<Double> quantidades) {
+        Produto alvo = produto;
         if (produto.getId() != null) {
-            produtoRepository.findByIdWithIngredientes(produto.getId()).ifPresent(produtoExistente -> {
-                ingredienteRepository.deleteAll(produtoExistente.getIngredientes());
-            });
+            Optional<Produto> existente = produtoRepository.findByIdWithIngredientes(produto.getId());
+            if (existente.isPresent()) {
+                alvo = existente.get();
+                alvo.setNome(produto.getNome());
+                alvo.setTipo(produto.getTipo());
+                alvo.setRendimento(produto.getRendimento());
+            }
+        }
+        if (alvo.getIngredientes() == null) {
+            alvo.setIngredientes(new ArrayList<>());
         }
 
-        List<Ingrediente> receita = new ArrayList<>();
+        Map<Long, Double> novaReceita = new LinkedHashMap<>();
         if (ingredientesIds != null && !ingredientesIds.isEmpty() && quantidades != null && ingredientesIds.size() == quantidades.size()) {
-            
-            // OTIMIZAÇÃO: Busca todas as matérias-primas de uma vez, evitando N+1 consultas
-            List<MateriaPrima> materiasPrimas = materiaPrimaRepository.findAllById(ingredientesIds);
-            Map<Long, MateriaPrima> mpMap = materiasPrimas.stream().collect(Collectors.toMap(MateriaPrima::getId, mp -> mp));
-
             for (int i = 0; i < ingredientesIds.size(); i++) {
-                Long ingredienteId = ingredientesIds.get(i);
-                Double quantidade = quantidades.get(i);
-                
-                MateriaPrima mp = mpMap.get(ingredienteId);
-                if (mp != null) {
-                    Ingrediente ingrediente = new Ingrediente();
-                    ingrediente.setProduto(produto);
-                    ingrediente.setMateriaPrima(mp);
-                    ingrediente.setQuantidade(quantidade);
-                    receita.add(ingrediente);
+                if (ingredientesIds.get(i) != null && quantidades.get(i) != null) {
+                    novaReceita.merge(ingredientesIds.get(i), quantidades.get(i), Double::sum);
                 }
             }
         }
 
-        produto.setIngredientes(receita);
+        // OTIMIZAÇÃO: Busca todas as matérias-primas de uma vez, evitando N+1 consultas
+        Map<Long, MateriaPrima> mpMap = novaReceita.isEmpty() ? Map.of() : materiaPrimaRepository.findAllById(novaReceita.keySet()).stream()
+                .collect(Collectors.toMap(MateriaPrima::getId, mp -> mp));
+        novaReceita.keySet().retainAll(mpMap.keySet());
 
-        double custoTotal = calcularCustoTotal(receita);
-        double precoFinal = custoTotal * markup;
-        produto.setPreco(precoFinal);
+        boolean receitaAlterada = aplicarReceita(alvo, novaReceita, mpMap);
+
+        double custoTotal = calcularCustoTotal(alvo.getIngredientes());
+        double precoFinal = precificacaoService.calcularPrecoBase(custoTotal, alvo.getTipo());
+        alvo.setPreco(precoFinal);
 
-        return produtoRepository.save(produto);
+        boolean produtoNovo = alvo.getId() == null;
+        Produto salvo = produtoRepository.save(alvo);
+
+        int ultimaVersao = produtoNovo ? 0 : receitaVersaoRepository.findUltimoNumeroByProdutoId(salvo.getId());
+        if (receitaAlterada || ultimaVersao == 0) {
+            receitaVersaoRepository.save(new ReceitaVersao(salvo, ultimaVersao + 1, congelarReceita(salvo)));
+        }
+
+        eventPublisher.publishEvent(new PrecosAlteradosEvent());
+        return salvo;
+    }
+
+    /**
+     * Cria a primeira versão da receita dos produtos cadastrados antes do versionamento e vincula as produções
+     * antigas à versão atual do seu produto. Executado uma vez na inicialização; não faz nada quando tudo já está versionado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void versionarReceitasExistentes() {
+        List<Long> semVersao = receitaVersaoRepository.findProdutoIdsSemVersao();
+        if (!semVersao.isEmpty()) {
+            List<ReceitaVersao> versoes = produtoRepository.findAllWithIngredientesByIdIn(semVersao).stream()
+                    .map(produto -> new ReceitaVersao(produto, 1, congelarReceita(produto)))
+                    .toList();
+            receitaVersaoRepository.saveAll(versoes);
+        }
+        receitaVersaoRepository.vincularProducoesSemVersao();
     }
 
     /**
@@ -108,6 +168,7 @@ public class ProdutoService {
      * @return O número de produtos que tiveram seus preços atualizados.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATALOGO_PRODUTOS, allEntries = true)
     public int recalcularPrecos() {
         // OTIMIZAÇÃO: Busca todos os produtos com seus ingredientes de uma só vez usando JOIN FETCH
         List<Produto> produtos = produtoRepository.findAllWithIngredientes();
@@ -117,7 +178,7 @@ public class ProdutoService {
 
         for (Produto produto : produtos) {
             double custoTotal = calcularCustoTotal(produto.getIngredientes());
-            double precoFinal = custoTotal * markup;
+            double precoFinal = precificacaoService.calcularPrecoBase(custoTotal, produto.getTipo());
 
             if (produto.getPreco() == 0.0 || Math.abs(produto.getPreco() - precoFinal) > 0.01) {
                 produto.setPreco(precoFinal);
@@ -130,6 +191,7 @@ public class ProdutoService {
         if (!produtosParaAtualizar.isEmpty()) {
             produtoRepository.saveAll(produtosParaAtualizar);
         }
+        eventPublisher.publishEvent(new PrecosAlteradosEvent());
         
         return produtosAtualizados;
     }
@@ -142,28 +204,88 @@ public class ProdutoService {
      * @throws IllegalArgumentException Se o produto com o ID fornecido não for encontrado.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATALOGO_PRODUTOS, allEntries = true)
     public Produto atualizarPrecoProduto(Long id) {
         Produto produto = produtoRepository.findByIdWithIngredientes(id)
                 .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado."));
 
         double custoTotal = calcularCustoTotal(produto.getIngredientes());
-        double precoFinal = custoTotal * markup;
+        double precoFinal = precificacaoService.calcularPrecoBase(custoTotal, produto.getTipo());
         produto.setPreco(precoFinal);
 
-        return produtoRepository.save(produto);
+        Produto salvo = produtoRepository.save(produto);
+        eventPublisher.publishEvent(new PrecosAlteradosEvent());
+        return salvo;
     }
 
     /**
-     * Exclui um produto do sistema com base no seu ID.
+     * Exclui um produto e todo o seu histórico (vendas, pedidos, produções, versões da receita, orçamentos e receita) com um DELETE em lote por tabela,
+     * sem carregar as entidades em memória. As vendas que tinham itens do produto têm valor e quantidade recalculados pelo banco.
+     * A ordem dos comandos respeita as chaves estrangeiras: os itens de pedido saem antes das produções que eles referenciam.
      *
      * @param id O ID do produto a ser excluído.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATALOGO_PRODUTOS, allEntries = true)
     public void excluirProduto(Long id) {
-        produtoRepository.deleteById(id);
+        List<Long> vendasAfetadas = itemVendaRepository.findVendaIdsByProdutoId(id);
+        itemVendaRepository.deleteByProdutoId(id);
+        if (!vendasAfetadas.isEmpty()) {
+            vendaRepository.recalcularTotais(vendasAfetadas);
+        }
+        itemPedidoRepository.deleteByProdutoId(id);
+        producaoRepository.deleteByProdutoId(id);
+        receitaVersaoRepository.deleteIngredientesByProdutoId(id);
+        receitaVersaoRepository.deleteByProdutoId(id);
+        itemOrcamentoRepository.deleteByProdutoId(id);
+        ingredienteRepository.deleteByProdutoId(id);
+        produtoRepository.excluirPorId(id);
+        eventPublisher.publishEvent(new PrecosAlteradosEvent());
+    }
+
+    /**
+     * Aplica a nova receita sobre os ingredientes atuais do produto: atualiza quantidades alteradas, remove os ausentes
+     * (orphanRemoval) e adiciona os novos. Ingredientes iguais não são tocados.
+     *
+     * @return true se algum ingrediente foi alterado, removido ou adicionado.
+     */
+    private boolean aplicarReceita(Produto produto, Map<Long, Double> novaReceita, Map<Long, MateriaPrima> mpMap) {
+        Map<Long, Double> pendentes = new LinkedHashMap<>(novaReceita);
+        boolean alterada = false;
+
+        Iterator<Ingrediente> atuais = produto.getIngredientes().iterator();
+        while (atuais.hasNext()) {
+            Ingrediente ingrediente = atuais.next();
+            Double novaQuantidade = ingrediente.getMateriaPrima() != null ? pendentes.remove(ingrediente.getMateriaPrima().getId()) : null;
+            if (novaQuantidade == null) {
+                atuais.remove();
+                alterada = true;
+            } else if (!novaQuantidade.equals(ingrediente.getQuantidade())) {
+                ingrediente.setQuantidade(novaQuantidade);
+                alterada = true;
+            }
+        }
+
+        for (Map.Entry<Long, Double> entrada : pendentes.entrySet()) {
+            Ingrediente ingrediente = new Ingrediente();
+            ingrediente.setProduto(produto);
+            ingrediente.setMateriaPrima(mpMap.get(entrada.getKey()));
+            ingrediente.setQuantidade(entrada.getValue());
+            produto.getIngredientes().add(ingrediente);
+            alterada = true;
+        }
+        return alterada;
+    }
+
+    private static List<IngredienteReceita> congelarReceita(Produto produto) {
+        return produto.getIngredientes().stream()
+                .filter(ingrediente -> ingrediente.getMateriaPrima() != null && ingrediente.getQuantidade() != null)
+                .map(ingrediente -> new IngredienteReceita(ingrediente.getMateriaPrima(), ingrediente.getQuantidade()))
+                .toList();
     }
 
-    private double calcularCustoTotal(List<Ingrediente> ingredientes) {
+    // Visível no pacote para os benchmarks (src/jmh)
+    static double calcularCustoTotal(List<Ingrediente> ingredientes) {
         double custoTotal = 0.0;
         if (ingredientes != null) {
             for (Ingrediente ingrediente : ingredientes) {
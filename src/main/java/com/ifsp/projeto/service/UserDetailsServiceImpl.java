@@ -1,14 +1,17 @@
 package com.ifsp.projeto.service;
 
+import com.ifsp.projeto.config.CacheUsuarios;
 import com.ifsp.projeto.model.Usuario;
 import com.ifsp.projeto.repository.UsuarioRepository;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
@@ -17,36 +20,70 @@ import java.util.List;
  * Implementação do serviço {@link UserDetailsService} do Spring Security.
  * Esta classe é responsável por carregar os detalhes de um usuário (como senha e permissões)
  * a partir do banco de dados, permitindo que o Spring Security realize a autenticação.
+ * Os usuários ficam em um {@link UserCache} por login, inclusive os logins inexistentes; o {@link UsuarioService}
+ * remove o login do cache sempre que a conta muda, e uma leitura feita antes dessa remoção não volta para o cache.
  */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UsuarioRepository usuarioRepository;
+    private final CacheUsuarios userCache;
 
-    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository) {
+    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository, CacheUsuarios userCache) {
         this.usuarioRepository = usuarioRepository;
+        this.userCache = userCache;
     }
 
     /**
      * Localiza um usuário pelo seu nome de login (username).
-     * Este método é chamado pelo Spring Security durante o processo de autenticação. Ele busca o usuário no repositório,
-     * verifica se a conta está ativa e converte as roles do usuário para as {@link GrantedAuthority} do Spring.
+     * Este método é chamado pelo Spring Security durante o processo de autenticação. Ele busca o usuário no {@link UserCache}
+     * e, se não estiver lá, no banco de dados; verifica se a conta está ativa e converte as roles do usuário para as {@link GrantedAuthority} do Spring.
+     * A busca usa o banco principal, para que senhas redefinidas e contas aprovadas ou bloqueadas valham imediatamente.
+     * A transação é confirmada mesmo quando o login é recusado, pois só então o {@link UserCache} grava o resultado.
      *
      * @param username O nome de login fornecido pelo usuário na tela de login.
      * @return Um objeto {@link UserDetails} contendo os dados do usuário para o Spring Security.
      * @throws UsernameNotFoundException Se o usuário não for encontrado no banco de dados ou se a conta estiver desativada.
      */
     @Override
+    @Transactional(noRollbackFor = UsernameNotFoundException.class)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Usuario usuario = usuarioRepository.findByLogin(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o login: " + username));
+        UserDetails usuario = userCache.getUserFromCache(username);
+        if (usuario == null) {
+            // Anotada antes da consulta: se a conta for alterada enquanto isso, o resultado não vai para o cache
+            long geracao = userCache.geracao();
+            usuario = usuarioRepository.findByLogin(username)
+                    .map(UserDetailsServiceImpl::paraUserDetails)
+                    .orElseGet(() -> new LoginInexistente(username));
+            // O cache é indexado pelo login do usuário; logins digitados com outra grafia não são guardados
+            if (usuario.getUsername().equals(username)) {
+                userCache.putUserInCache(usuario, geracao);
+            }
+        }
 
+        if (usuario instanceof LoginInexistente) {
+            throw new UsernameNotFoundException("Usuário não encontrado com o login: " + username);
+        }
         if (!usuario.isEnabled()) {
             throw new UsernameNotFoundException("User is disabled");
         }
 
+        // O UserDetails devolvido é sempre uma cópia: o Spring Security apaga a senha dele após a autenticação
+        return User.withUserDetails(usuario).build();
+    }
+
+    private static UserDetails paraUserDetails(Usuario usuario) {
         List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + usuario.getRole()));
+        return new User(usuario.getLogin(), usuario.getSenha(), usuario.isEnabled(), true, true, true, authorities);
+    }
 
-        return new User(usuario.getLogin(), usuario.getSenha(), authorities);
+    /**
+     * Marca no cache um login que não existe, evitando uma consulta ao banco a cada tentativa com esse login.
+     */
+    private static final class LoginInexistente extends User {
+
+        private LoginInexistente(String login) {
+            super(login, "", false, false, false, false, Collections.emptyList());
+        }
     }
 }
@@ -6,6 +6,7 @@ import com.ifsp.projeto.repository.UsuarioRepository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,16 +15,20 @@ import org.springframework.transaction.annotation.Transactional;
  * Serviço para gerenciar a lógica de negócio relacionada a usuários.
  * Responsável pelo cadastro, autenticação, atualização de dados (senha, login),
  * e gerenciamento de permissões de usuários.
+ * Toda alteração de login, senha ou situação da conta remove do {@link UserCache} apenas o login afetado,
+ * para que a próxima autenticação já veja o estado novo.
  */
 @Service
 public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
 
-    public UsuarioService(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder) {
+    public UsuarioService(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder, UserCache userCache) {
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
     }
 
     /**
@@ -48,7 +53,7 @@ public class UsuarioService {
         if (!usuario.getSenha().equals(confirmarSenha)) {
             throw new IllegalArgumentException("As senhas não coincidem.");
         }
-        if (usuarioRepository.findByLogin(usuario.getLogin()).isPresent()) {
+        if (usuarioRepository.existsByLogin(usuario.getLogin())) {
             throw new IllegalArgumentException("Login já existe.");
         }
 
@@ -62,6 +67,8 @@ public class UsuarioService {
             usuario.setEnabled(false);
         }
 
+        // O login pode estar em cache como inexistente
+        userCache.removeUserFromCache(usuario.getLogin());
         return usuarioRepository.save(usuario);
     }
 
@@ -88,6 +95,7 @@ public class UsuarioService {
 
         usuario.setSenha(passwordEncoder.encode(novaSenha));
         usuarioRepository.save(usuario);
+        userCache.removeUserFromCache(login);
     }
 
     /**
@@ -110,12 +118,14 @@ public class UsuarioService {
             throw new IllegalArgumentException("Senha incorreta.");
         }
 
-        if (usuarioRepository.findByLogin(novoLogin).isPresent()) {
+        if (usuarioRepository.existsByLogin(novoLogin)) {
             throw new IllegalArgumentException("O novo nome de usuário já está em uso.");
         }
 
         usuario.setLogin(novoLogin);
         usuarioRepository.save(usuario);
+        userCache.removeUserFromCache(login);
+        userCache.removeUserFromCache(novoLogin);
     }
 
     /**
@@ -185,6 +195,7 @@ public class UsuarioService {
 
         usuario.setSenha(passwordEncoder.encode(novaSenha));
         usuarioRepository.save(usuario);
+        userCache.removeUserFromCache(login);
     }
 
     /**
@@ -204,6 +215,7 @@ public class UsuarioService {
         Usuario usuario = usuarioRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado!"));
         usuario.setEnabled(true);
         usuarioRepository.save(usuario);
+        userCache.removeUserFromCache(usuario.getLogin());
     }
 
     /**
@@ -215,6 +227,7 @@ public class UsuarioService {
         Usuario usuario = usuarioRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado!"));
         usuario.setEnabled(false);
         usuarioRepository.save(usuario);
+        userCache.removeUserFromCache(usuario.getLogin());
     }
 
     /**
@@ -223,6 +236,9 @@ public class UsuarioService {
      */
     @Transactional
     public void excluirUsuario(Long id) {
-        usuarioRepository.deleteById(id);
+        usuarioRepository.findById(id).ifPresent(usuario -> {
+            usuarioRepository.delete(usuario);
+            userCache.removeUserFromCache(usuario.getLogin());
+        });
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.ifsp.projeto.service;
 
 import com.ifsp.projeto.controller.dto.ItemVendaDTO;
+import com.ifsp.projeto.controller.dto.MargemProdutoDTO;
 import com.ifsp.projeto.controller.dto.VendaDetalheDTO;
 import com.ifsp.projeto.controller.dto.VendaEventoDTO;
 import com.ifsp.projeto.controller.dto.VendaRequest;
@@ -40,6 +41,7 @@ public class VendaService {
      *
      * @return Lista de {@link VendaEventoDTO} contendo o título do evento e a data.
      */
+    @Transactional(readOnly = true)
     public List<VendaEventoDTO> getVendaEventos() {
         return vendaRepository.findAll().stream()
                 .collect(Collectors.groupingBy(Venda::getDataVenda))
@@ -58,6 +60,7 @@ public class VendaService {
      * @param data A data no formato de string (yyyy-MM-dd).
      * @return Lista de {@link VendaDetalheDTO} com os detalhes de cada item de venda.
      */
+    @Transactional(readOnly = true)
     public List<VendaDetalheDTO> getVendasPorData(String data) {
         LocalDate localDate = LocalDate.parse(data);
         List<Venda> vendas = vendaRepository.findByDataVendaWithProducaoAndProduto(localDate);
@@ -89,6 +92,7 @@ public class VendaService {
      * @param dataFimStr    Data de fim do período (formato yyyy-MM-dd).
      * @return Lista de vendas ({@link Venda}) encontradas no período, ordenadas da mais recente para a mais antiga.
      */
+    @Transactional(readOnly = true)
     public List<Venda> findVendasByPeriod(String dataInicioStr, String dataFimStr) {
         LocalDate dataInicio = null;
         LocalDate dataFim = null;
@@ -102,6 +106,23 @@ public class VendaService {
         }
     }
 
+    /**
+     * Calcula a receita, o custo das mercadorias vendidas (CMV) e a margem de cada produto no período.
+     * Usa apenas o custo unitário gravado em cada item de venda, em uma única consulta agregada.
+     * Se as datas de início e fim não forem fornecidas, considera todas as vendas.
+     *
+     * @param dataInicioStr Data de início do período (formato yyyy-MM-dd).
+     * @param dataFimStr    Data de fim do período (formato yyyy-MM-dd).
+     * @return Lista de {@link MargemProdutoDTO}, ordenada pelo nome do produto.
+     */
+    @Transactional(readOnly = true)
+    public List<MargemProdutoDTO> findMargensByPeriod(String dataInicioStr, String dataFimStr) {
+        if (dataInicioStr != null && !dataInicioStr.isEmpty() && dataFimStr != null && !dataFimStr.isEmpty()) {
+            return itemVendaRepository.findMargensPorProdutoBetween(LocalDate.parse(dataInicioStr), LocalDate.parse(dataFimStr));
+        }
+        return itemVendaRepository.findMargensPorProduto();
+    }
+
     /**
      * Cria e salva uma nova venda com base nos dados recebidos.
      * Antes de salvar, valida se a quantidade de cada item solicitado está disponível no estoque de produção.
@@ -171,6 +192,7 @@ public class VendaService {
         itemVenda.setProducao(producao);
         itemVenda.setQuantidade(itemDTO.getQuantidade());
         itemVenda.setVenda(venda);
+        itemVenda.setCustoUnitario(producao.getCustoUnitario());
 
         double valorUnitario = request.isDoado() ? 0 : itemDTO.getValorUnitario();
         itemVenda.setValorUnitario(valorUnitario);
@@ -0,0 +1,123 @@
+-- Esquema inicial, igual ao que o Hibernate criava com ddl-auto=update antes das migrações.
+-- Bancos já existentes, criados por essa versão, recebem baseline nesta versão (spring.flyway.baseline-on-migrate),
+-- não executam este script e seguem a partir da V2; por isso as chaves estrangeiras mantêm os nomes gerados pelo Hibernate.
+
+create table ingrediente (
+    quantidade float(53),
+    id bigint not null auto_increment,
+    materia_prima_id bigint,
+    produto_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table item_orcamento (
+    quantidade float(53) not null,
+    valor_total float(53) not null,
+    valor_unitario float(53) not null,
+    id bigint not null auto_increment,
+    orcamento_id bigint,
+    produto_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table item_pedido (
+    quantidade integer not null,
+    id bigint not null auto_increment,
+    pedido_id bigint,
+    produto_id bigint,
+    detalhes varchar(255),
+    massa varchar(255),
+    recheio varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table item_venda (
+    quantidade integer not null,
+    valor_total float(53) not null,
+    valor_unitario float(53) not null,
+    id bigint not null auto_increment,
+    producao_id bigint,
+    venda_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table materia_prima (
+    quantidade float(53),
+    quantidade_minima float(53),
+    valor float(53),
+    id bigint not null auto_increment,
+    nome varchar(255),
+    unidade varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table orcamento (
+    data_orcamento date,
+    desconto float(53) not null,
+    valor_final float(53) not null,
+    valor_total float(53) not null,
+    id bigint not null auto_increment,
+    cliente varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table pedido (
+    data_entrega date,
+    id bigint not null auto_increment,
+    cliente varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table producao (
+    data_producao date,
+    quantidade integer not null,
+    id bigint not null auto_increment,
+    produto_id bigint,
+    massa varchar(255),
+    recheio varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table produto (
+    preco float(53) not null,
+    rendimento integer,
+    id bigint not null auto_increment,
+    nome varchar(255),
+    tipo varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table usuario (
+    enabled bit not null,
+    id bigint not null auto_increment,
+    fone varchar(255),
+    login varchar(255),
+    nome varchar(255),
+    pergunta_secreta varchar(255),
+    resposta_secreta varchar(255),
+    role varchar(255),
+    senha varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table venda (
+    data_venda date,
+    doado bit not null,
+    quantidade integer not null,
+    valor_venda float(53) not null,
+    id bigint not null auto_increment,
+    forma_pagamento varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+alter table ingrediente add constraint FK8l94jwirbou208fss3xjnrgcl foreign key (materia_prima_id) references materia_prima (id);
+alter table ingrediente add constraint FKbqrd9og13hoe2htta50d8aesu foreign key (produto_id) references produto (id);
+alter table item_orcamento add constraint FK5o5q5km19rpg4rqppxlfvj16h foreign key (orcamento_id) references orcamento (id);
+alter table item_orcamento add constraint FKfrovgaxg1k0bk53sx1jl7eduh foreign key (produto_id) references produto (id);
+alter table item_pedido add constraint FK60ym08cfoysa17wrn1swyiuda foreign key (pedido_id) references pedido (id);
+alter table item_pedido add constraint FKtk55mn6d6bvl5h0no5uagi3sf foreign key (produto_id) references produto (id);
+alter table item_venda add constraint FKsjilrsdvl8ctoesiaran29cu6 foreign key (producao_id) references producao (id);
+alter table item_venda add constraint FKkiky88fkai72328rhw3r3yebx foreign key (venda_id) references venda (id);
+alter table producao add constraint FK3amh60cn20xwcnwgcoqimcwnh foreign key (produto_id) references produto (id);
@@ -0,0 +1,19 @@
+-- Alterações de pedidos e orçamentos feitas desde o esquema inicial.
+
+-- Nome do cliente normalizado (minúsculas, sem acentos) para a busca por prefixo da lista de pedidos;
+-- o PedidoService preenche os pedidos existentes na inicialização
+alter table pedido add column cliente_busca varchar(255);
+create index idx_pedido_cliente_busca on pedido (cliente_busca);
+
+-- Filtro por status (e data de entrega) da lista de pedidos
+create index idx_pedido_status_data_entrega on pedido (status, data_entrega);
+
+-- Lote de produção que atendeu o item, preenchido pela produção automática dos pedidos
+alter table item_pedido add column producao_id bigint;
+alter table item_pedido add constraint FK4tu5kp4j1mt0gsthoqnnifjwj foreign key (producao_id) references producao (id);
+
+-- Preço unitário acordado no pedido; os itens existentes ficam sem preço e não entram no total do pedido
+alter table item_pedido add column valor_unitario float(53);
+
+-- Lista de orçamentos ordenada pela data
+create index idx_orcamento_data on orcamento (data_orcamento);
@@ -0,0 +1,28 @@
+-- Versões das receitas dos produtos e custo unitário fixado na produção e na venda.
+
+create table receita_versao (
+    numero integer not null,
+    data_criacao datetime(6),
+    id bigint not null auto_increment,
+    produto_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table receita_versao_ingrediente (
+    quantidade float(53),
+    materia_prima_id bigint,
+    receita_versao_id bigint not null
+) engine=InnoDB;
+
+alter table receita_versao add constraint uk_receita_versao_produto_numero unique (produto_id, numero);
+alter table receita_versao add constraint FKm5fe45qpooh4ihcjtf958ghjk foreign key (produto_id) references produto (id);
+alter table receita_versao_ingrediente add constraint FKabiev7kv49wgyratbsaqvnnil foreign key (materia_prima_id) references materia_prima (id);
+alter table receita_versao_ingrediente add constraint FKm5o7sdinaxsd1p5lxy5bsbabf foreign key (receita_versao_id) references receita_versao (id);
+
+-- Versão da receita usada em cada lote; os lotes existentes ficam sem versão
+alter table producao add column receita_versao_id bigint;
+alter table producao add constraint FK9jt60yrdkdo0wx9vw9j5cqk80 foreign key (receita_versao_id) references receita_versao (id);
+
+-- Custo dos ingredientes de uma unidade, fixado no lote e copiado para o item vendido; vazio nos registros existentes
+alter table producao add column custo_unitario float(53);
+alter table item_venda add column custo_unitario float(53);
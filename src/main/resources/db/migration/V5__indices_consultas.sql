@@ -0,0 +1,73 @@
+-- Índices das consultas mais frequentes dos repositórios. O IndicesConsultasTest roda EXPLAIN nessas consultas
+-- e falha se alguma voltar a ler a tabela inteira.
+
+-- VendaRepository.findByDataVenda*, findByDataVendaBetween* e o relatório de margens por período
+create index idx_venda_data_venda on venda (data_venda);
+
+-- ProducaoRepository.findByDataProducao
+create index idx_producao_data_producao on producao (data_producao);
+
+-- ItemVendaRepository.sumQuantidadeByProducaoId* e o estoque disponível de cada lote (cobre a soma das quantidades)
+create index idx_item_venda_producao_quantidade on item_venda (producao_id, quantidade);
+
+-- VendaRepository.recalcularTotais e as vendas de um período por item (cobre as somas de valor e quantidade)
+create index idx_item_venda_venda_totais on item_venda (venda_id, valor_total, quantidade);
+
+-- PedidoRepository.findUpcomingPedidoIds (faixa de datas) e ItemPedidoRepository.findSemProducaoByDataEntregaAndStatus;
+-- o idx_pedido_status_data_entrega continua atendendo o filtro por status da lista de pedidos
+create index idx_pedido_data_entrega_status on pedido (data_entrega, status);
+
+-- MateriaPrimaRepository.findByNomeAndUnidade; o MateriaPrimaService já impedia duplicatas, agora o banco também.
+-- Duplicatas gravadas antes (cadastros simultâneos) são juntadas no registro de menor id: as quantidades são somadas,
+-- o valor unitário passa a ser a média ponderada pelo estoque, vale o maior mínimo, e as receitas passam a usar o registro mantido.
+create table materia_prima_duplicada (
+    id bigint not null,
+    manter_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+insert into materia_prima_duplicada (id, manter_id)
+select m.id, (select min(o.id) from materia_prima o where o.nome = m.nome and o.unidade = m.unidade)
+from materia_prima m
+where m.id > (select min(o.id) from materia_prima o where o.nome = m.nome and o.unidade = m.unidade);
+
+create table materia_prima_mesclada (
+    id bigint not null,
+    quantidade float(53),
+    quantidade_valorizada float(53),
+    valor_total float(53),
+    quantidade_minima float(53),
+    primary key (id)
+) engine=InnoDB;
+
+insert into materia_prima_mesclada (id, quantidade, quantidade_valorizada, valor_total, quantidade_minima)
+select o.id, sum(m.quantidade), sum(case when m.valor is not null then m.quantidade end), sum(m.quantidade * m.valor), max(m.quantidade_minima)
+from materia_prima o
+join materia_prima m on m.nome = o.nome and m.unidade = o.unidade
+where o.id in (select manter_id from materia_prima_duplicada)
+group by o.id;
+
+update materia_prima
+set valor = coalesce((select x.valor_total / x.quantidade_valorizada from materia_prima_mesclada x
+                      where x.id = materia_prima.id and x.quantidade_valorizada > 0), valor),
+    quantidade = (select x.quantidade from materia_prima_mesclada x where x.id = materia_prima.id),
+    quantidade_minima = (select x.quantidade_minima from materia_prima_mesclada x where x.id = materia_prima.id)
+where id in (select id from materia_prima_mesclada);
+
+update ingrediente
+set materia_prima_id = (select d.manter_id from materia_prima_duplicada d where d.id = ingrediente.materia_prima_id)
+where materia_prima_id in (select id from materia_prima_duplicada);
+
+update receita_versao_ingrediente
+set materia_prima_id = (select d.manter_id from materia_prima_duplicada d where d.id = receita_versao_ingrediente.materia_prima_id)
+where materia_prima_id in (select id from materia_prima_duplicada);
+
+delete from materia_prima where id in (select id from materia_prima_duplicada);
+
+drop table materia_prima_mesclada;
+drop table materia_prima_duplicada;
+
+alter table materia_prima add constraint uk_materia_prima_nome_unidade unique (nome, unidade);
+
+-- UsuarioRepository.findByLogin / existsByLogin (autenticação e cadastro)
+alter table usuario add constraint uk_usuario_login unique (login);
@@ -0,0 +1,24 @@
+-- IDs gerados pelo Hibernate a partir de uma tabela (@TableGenerator com otimizador pooled) em vez de AUTO_INCREMENT,
+-- para que os INSERTs possam ser enviados em lote. Cada entidade tem uma linha; o Hibernate reserva blocos de 50 IDs
+-- (allocationSize) por vez, e o valor gravado é o último ID do próximo bloco.
+-- As colunas id continuam AUTO_INCREMENT, mas a aplicação não depende mais disso.
+
+create table sequencia_id (
+    proximo_valor bigint,
+    entidade varchar(255) not null,
+    primary key (entidade)
+) engine=InnoDB;
+
+-- Continua a numeração depois dos registros existentes: o primeiro bloco vai de max(id) + 1 a max(id) + 50
+insert into sequencia_id (entidade, proximo_valor) select 'ingrediente', coalesce(max(id), 0) + 50 from ingrediente;
+insert into sequencia_id (entidade, proximo_valor) select 'item_orcamento', coalesce(max(id), 0) + 50 from item_orcamento;
+insert into sequencia_id (entidade, proximo_valor) select 'item_pedido', coalesce(max(id), 0) + 50 from item_pedido;
+insert into sequencia_id (entidade, proximo_valor) select 'item_venda', coalesce(max(id), 0) + 50 from item_venda;
+insert into sequencia_id (entidade, proximo_valor) select 'materia_prima', coalesce(max(id), 0) + 50 from materia_prima;
+insert into sequencia_id (entidade, proximo_valor) select 'orcamento', coalesce(max(id), 0) + 50 from orcamento;
+insert into sequencia_id (entidade, proximo_valor) select 'pedido', coalesce(max(id), 0) + 50 from pedido;
+insert into sequencia_id (entidade, proximo_valor) select 'producao', coalesce(max(id), 0) + 50 from producao;
+insert into sequencia_id (entidade, proximo_valor) select 'produto', coalesce(max(id), 0) + 50 from produto;
+insert into sequencia_id (entidade, proximo_valor) select 'receita_versao', coalesce(max(id), 0) + 50 from receita_versao;
+insert into sequencia_id (entidade, proximo_valor) select 'usuario', coalesce(max(id), 0) + 50 from usuario;
+insert into sequencia_id (entidade, proximo_valor) select 'venda', coalesce(max(id), 0) + 50 from venda;
@@ -0,0 +1,12 @@
+-- A situação do pedido passou a ser lida como StatusPedido, que só aceita as cinco descrições (ou os nomes das
+-- constantes). Antes, a atualização de status gravava qualquer texto recebido do formulário; esses valores são trocados
+-- pela descrição correspondente, e os que não correspondem a nenhuma situação (ou vazios) voltam para Pendente,
+-- para aparecerem no filtro de pendentes e serem revistos.
+update pedido set status = 'Pendente' where lower(trim(status)) in ('pendente');
+update pedido set status = 'Em produção' where lower(trim(status)) in ('em produção', 'em producao', 'em_producao');
+update pedido set status = 'Pronto para entrega' where lower(trim(status)) in ('pronto para entrega', 'pronto_para_entrega', 'pronto');
+update pedido set status = 'Entregue' where lower(trim(status)) in ('entregue');
+update pedido set status = 'Cancelado' where lower(trim(status)) in ('cancelado');
+
+update pedido set status = 'Pendente'
+where status is null or status not in ('Pendente', 'Em produção', 'Pronto para entrega', 'Entregue', 'Cancelado');
@@ -0,0 +1,68 @@
+package com.ifsp.projeto.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.AuthenticationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CustomAuthenticationFailureHandlerTest {
+
+	private LoginThrottle loginThrottle;
+	private CustomAuthenticationFailureHandler handler;
+
+	@BeforeEach
+	void criar() {
+		loginThrottle = mock(LoginThrottle.class);
+		handler = new CustomAuthenticationFailureHandler(loginThrottle);
+	}
+
+	@Test
+	void senhaErradaContaComoFalhaDoLoginEDoIp() throws Exception {
+		MockHttpServletResponse response = falhar("ana", new BadCredentialsException("Bad credentials"));
+
+		verify(loginThrottle).registrarFalha("ana", "10.0.0.1");
+		assertEquals("/login?error", response.getRedirectedUrl());
+	}
+
+	@Test
+	void usuarioDesativadoContaComoFalhaEVaiParaAMensagemPropria() throws Exception {
+		MockHttpServletResponse response = falhar("ana", new DisabledException("User is disabled"));
+
+		verify(loginThrottle).registrarFalha("ana", "10.0.0.1");
+		assertEquals("/login?error=disabled", response.getRedirectedUrl());
+	}
+
+	@Test
+	void servidorOcupadoNaoContaComoTentativaDoUsuario() throws Exception {
+		MockHttpServletResponse response = falhar("ana", new SenhaIndisponivelException("Sistema ocupado", null));
+
+		verify(loginThrottle, never()).registrarFalha(any(), any());
+		assertEquals("/login?error=ocupado", response.getRedirectedUrl());
+	}
+
+	@Test
+	void limpaOLoginDigitadoAntesDeIrParaOLog() {
+		assertEquals("ana_[INFO] admin logado", CustomAuthenticationFailureHandler.paraLog("ana\n[INFO] admin logado"));
+		assertEquals("a_b_c_d", CustomAuthenticationFailureHandler.paraLog("a\rb\u2028c\u0085d"));
+		assertEquals("x".repeat(64) + "...", CustomAuthenticationFailureHandler.paraLog("x".repeat(500)));
+		assertEquals("", CustomAuthenticationFailureHandler.paraLog(null));
+	}
+
+	private MockHttpServletResponse falhar(String login, AuthenticationException erro) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+		request.setParameter("username", login);
+		request.setRemoteAddr("10.0.0.1");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		handler.onAuthenticationFailure(request, response, erro);
+		return response;
+	}
+}
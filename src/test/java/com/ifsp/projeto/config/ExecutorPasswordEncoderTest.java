@@ -0,0 +1,87 @@
+package com.ifsp.projeto.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutorPasswordEncoderTest {
+
+	private final CountDownLatch comecou = new CountDownLatch(1);
+	private final CountDownLatch liberar = new CountDownLatch(1);
+	private final AtomicInteger calculos = new AtomicInteger();
+	private ExecutorPasswordEncoder encoder;
+
+	@BeforeEach
+	void criar() {
+		// Um cálculo por vez, uma vaga na fila: a senha "lenta" segura a thread até o teste liberar
+		PasswordEncoder lento = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				return rawPassword.toString();
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				calculos.incrementAndGet();
+				if (rawPassword.toString().equals("lenta")) {
+					comecou.countDown();
+					try {
+						liberar.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return rawPassword.toString().equals(encodedPassword);
+			}
+		};
+		encoder = new ExecutorPasswordEncoder(lento, new LoginProperties.Bcrypt(1, 1, Duration.ofMillis(200), Duration.ofSeconds(1)), new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void fechar() {
+		liberar.countDown();
+		encoder.close();
+	}
+
+	@Test
+	void verificacaoQueEsgotaOTempoNaFilaNuncaRoda() throws Exception {
+		CompletableFuture<Boolean> ocupada = CompletableFuture.supplyAsync(() -> encoder.matches("lenta", "lenta"));
+		assertTrue(comecou.await(5, TimeUnit.SECONDS));
+
+		// Fica na fila atrás da senha lenta, esgota o tempo e sai da fila
+		assertThrows(SenhaIndisponivelException.class, () -> encoder.matches("na fila", "na fila"));
+		// A verificação que já começou também é recusada por tempo, mas continua até o fim na thread do pool
+		assertThrows(Exception.class, ocupada::join);
+
+		liberar.countDown();
+		assertTrue(encoder.matches("depois", "depois"));
+		// A senha lenta e a de depois; a que esperava na fila não foi calculada
+		assertEquals(2, calculos.get());
+	}
+
+	@Test
+	void recusaNaHoraQuandoAFilaEstaCheia() throws Exception {
+		CompletableFuture.runAsync(() -> encoder.matches("lenta", "lenta"));
+		assertTrue(comecou.await(5, TimeUnit.SECONDS));
+		CompletableFuture<Boolean> naFila = CompletableFuture.supplyAsync(() -> encoder.matches("na fila", "na fila"));
+		// Dá tempo para a segunda verificação ocupar a vaga da fila
+		Thread.sleep(50);
+
+		long inicio = System.nanoTime();
+		assertThrows(SenhaIndisponivelException.class, () -> encoder.matches("recusada", "recusada"));
+		assertTrue(System.nanoTime() - inicio < TimeUnit.MILLISECONDS.toNanos(150), "A recusa deveria ser imediata");
+		assertThrows(Exception.class, naFila::join);
+	}
+}
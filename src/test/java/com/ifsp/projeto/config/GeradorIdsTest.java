@@ -0,0 +1,77 @@
+package com.ifsp.projeto.config;
+
+import com.ifsp.projeto.model.MateriaPrima;
+import com.ifsp.projeto.repository.MateriaPrimaRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A reserva de blocos de IDs não usa o pool principal. Com o pool principal todo ocupado (uma conexão presa pelo teste e
+ * a outra pela transação que grava), a reserva ainda consegue sua conexão; antes, ela esperava até o tempo limite do pool.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.hikari.maximum-pool-size=2",
+		"spring.datasource.hikari.connection-timeout=1000"
+})
+@ActiveProfiles("h2")
+class GeradorIdsTest {
+
+	@Autowired
+	MateriaPrimaRepository materiaPrimaRepository;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	HikariDataSource primarioDataSource;
+
+	@Test
+	void reservaBlocosDeIdsForaDoPoolPrincipal() throws SQLException {
+		long reservadoAntes = proximoValor();
+		Set<Long> ids = new HashSet<>();
+
+		try (Connection ocupada = primarioDataSource.getConnection()) {
+			// Mais de um bloco de 50, todos dentro da mesma transação, que já obteve sua conexão com a primeira consulta
+			new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				materiaPrimaRepository.count();
+				for (int i = 0; i < 120; i++) {
+					ids.add(materiaPrimaRepository.save(materiaPrima(i)).getId());
+				}
+			});
+		}
+
+		assertEquals(120, ids.size());
+		assertTrue(proximoValor() >= reservadoAntes + 100, "Os blocos devem ser reservados na linha materia_prima de sequencia_id");
+		assertTrue(ids.stream().allMatch(id -> id > reservadoAntes - 50), "Os IDs devem continuar a partir do que já estava reservado");
+	}
+
+	private long proximoValor() {
+		return jdbcTemplate.queryForObject("SELECT proximo_valor FROM sequencia_id WHERE entidade = 'materia_prima'", Long.class);
+	}
+
+	private static MateriaPrima materiaPrima(int i) {
+		MateriaPrima materiaPrima = new MateriaPrima();
+		materiaPrima.setNome("Insumo " + System.nanoTime() + "-" + i);
+		materiaPrima.setUnidade("g");
+		materiaPrima.setQuantidade(1000.0);
+		materiaPrima.setValor(0.01);
+		return materiaPrima;
+	}
+}
@@ -0,0 +1,119 @@
+package com.ifsp.projeto.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Limites do balde de fichas (GCRA) com um relógio controlado: 3 falhas por login e 6 por IP a cada 30 s,
+ * ou seja, uma tentativa de login volta a cada 10 s e uma de IP a cada 5 s.
+ */
+class LoginThrottleTest {
+
+	private final AtomicLong agora = new AtomicLong(1_000_000_000L);
+	private SimpleMeterRegistry meterRegistry;
+	private LoginThrottle loginThrottle;
+
+	@BeforeEach
+	void criar() {
+		meterRegistry = new SimpleMeterRegistry();
+		LoginProperties properties = new LoginProperties(3, 6, Duration.ofSeconds(30), 1000, null);
+		loginThrottle = new LoginThrottle(properties, meterRegistry, agora::get);
+	}
+
+	@Test
+	void bloqueiaOLoginSoDepoisDeEsgotarAsTentativas() {
+		falhar("ana", "10.0.0.1", 2);
+		assertFalse(loginThrottle.bloqueado("ana", "10.0.0.1"));
+
+		falhar("ana", "10.0.0.1", 1);
+		assertTrue(loginThrottle.bloqueado("ana", "10.0.0.1"));
+		// Maiúsculas e espaços não criam outro balde
+		assertTrue(loginThrottle.bloqueado(" ANA ", "10.0.0.2"));
+		assertFalse(loginThrottle.bloqueado("bruno", "10.0.0.1"));
+		assertEquals(2.0, meterRegistry.get("confeitaria.login.bloqueios").tag("chave", "login").counter().count());
+	}
+
+	@Test
+	void consultarNaoConsomeTentativas() {
+		falhar("ana", "10.0.0.1", 2);
+		for (int i = 0; i < 10; i++) {
+			assertFalse(loginThrottle.bloqueado("ana", "10.0.0.1"));
+		}
+	}
+
+	@Test
+	void devolveUmaTentativaACadaIntervaloSemAcumularAlemDoLimite() {
+		falhar("ana", "10.0.0.1", 3);
+
+		avancar(Duration.ofSeconds(9));
+		assertTrue(loginThrottle.bloqueado("ana", "10.0.0.1"));
+		avancar(Duration.ofSeconds(1));
+		assertFalse(loginThrottle.bloqueado("ana", "10.0.0.1"));
+		falhar("ana", "10.0.0.1", 1);
+		assertTrue(loginThrottle.bloqueado("ana", "10.0.0.1"));
+
+		// Muito tempo parado devolve no máximo o limite, não mais
+		avancar(Duration.ofMinutes(10));
+		falhar("ana", "10.0.0.1", 2);
+		assertFalse(loginThrottle.bloqueado("ana", "10.0.0.1"));
+		falhar("ana", "10.0.0.1", 1);
+		assertTrue(loginThrottle.bloqueado("ana", "10.0.0.1"));
+	}
+
+	@Test
+	void bloqueiaOIpQueErraComVariosLogins() {
+		for (int i = 0; i < 6; i++) {
+			falhar("usuario" + i, "10.0.0.1", 1);
+		}
+
+		assertTrue(loginThrottle.bloqueado("outro", "10.0.0.1"));
+		assertFalse(loginThrottle.bloqueado("outro", "10.0.0.2"));
+		assertEquals(1.0, meterRegistry.get("confeitaria.login.bloqueios").tag("chave", "ip").counter().count());
+
+		avancar(Duration.ofSeconds(5));
+		assertFalse(loginThrottle.bloqueado("outro", "10.0.0.1"));
+	}
+
+	@Test
+	void loginComSucessoDevolveAsTentativasDoLoginMasNaoAsDoIp() {
+		falhar("ana", "10.0.0.1", 3);
+		falhar("bruno", "10.0.0.1", 3);
+
+		loginThrottle.aoAutenticar(new AuthenticationSuccessEvent(UsernamePasswordAuthenticationToken.authenticated("Ana", null, List.of())));
+
+		assertFalse(loginThrottle.bloqueado("ana", null));
+		assertTrue(loginThrottle.bloqueado(null, "10.0.0.1"));
+		assertTrue(loginThrottle.bloqueado("bruno", null));
+	}
+
+	@Test
+	void ignoraLoginEmBrancoENulo() {
+		falhar(" ", "10.0.0.1", 3);
+		falhar(null, "10.0.0.2", 3);
+
+		assertFalse(loginThrottle.bloqueado(" ", "10.0.0.3"));
+		assertFalse(loginThrottle.bloqueado(null, "10.0.0.3"));
+		assertEquals(6.0, meterRegistry.get("confeitaria.login.falhas").counter().count());
+	}
+
+	private void falhar(String login, String ip, int vezes) {
+		for (int i = 0; i < vezes; i++) {
+			loginThrottle.registrarFalha(login, ip);
+		}
+	}
+
+	private void avancar(Duration duracao) {
+		agora.addAndGet(duracao.toNanos());
+	}
+}
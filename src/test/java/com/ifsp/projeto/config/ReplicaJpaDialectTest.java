@@ -0,0 +1,107 @@
+package com.ifsp.projeto.config;
+
+import com.ifsp.projeto.model.MateriaPrima;
+import com.ifsp.projeto.repository.MateriaPrimaRepository;
+import com.ifsp.projeto.repository.ProdutoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Com uma réplica configurada, as transações somente leitura não usam o cache de segundo nível nem o de consultas.
+ * Roda no H2 (perfil {@code h2}); a "réplica" é o mesmo banco e, como o H2 não responde ao {@code SHOW REPLICA STATUS},
+ * fica indisponível, o que não muda o modo de cache das transações somente leitura.
+ */
+@SpringBootTest(properties = "confeitaria.datasource.replica.url=jdbc:h2:mem:confeitaria;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class ReplicaJpaDialectTest {
+
+	@Autowired
+	JpaTransactionManager transactionManager;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	MateriaPrimaRepository materiaPrimaRepository;
+
+	@Autowired
+	ProdutoRepository produtoRepository;
+
+	private Long id;
+
+	@BeforeEach
+	void criar() {
+		MateriaPrima farinha = new MateriaPrima();
+		farinha.setNome("Farinha " + System.nanoTime());
+		farinha.setUnidade("g");
+		farinha.setQuantidade(1000.0);
+		farinha.setValor(0.004);
+		id = materiaPrimaRepository.save(farinha).getId();
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	void leituraSomenteLeituraNaoGravaNoCacheDeSegundoNivel() {
+		assertInstanceOf(ReplicaJpaDialect.class, transactionManager.getJpaDialect());
+
+		somenteLeitura().executeWithoutResult(status -> materiaPrimaRepository.findById(id).orElseThrow());
+		assertFalse(entityManagerFactory.getCache().contains(MateriaPrima.class, id));
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> materiaPrimaRepository.findById(id).orElseThrow());
+		assertTrue(entityManagerFactory.getCache().contains(MateriaPrima.class, id));
+	}
+
+	@Test
+	void consultaSomenteLeituraNaoGravaNoCacheDeConsultas() {
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long gravacoes = estatisticas.getQueryCachePutCount();
+
+		somenteLeitura().executeWithoutResult(status -> produtoRepository.findResumos());
+		assertEquals(gravacoes, estatisticas.getQueryCachePutCount());
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> produtoRepository.findResumos());
+		assertEquals(gravacoes + 1, estatisticas.getQueryCachePutCount());
+	}
+
+	@Test
+	void restauraOModoDeCacheDaSessaoAbertaPelaRequisicao() {
+		// Como o open-in-view: a sessão é aberta antes da transação e continua depois dela
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+		try {
+			somenteLeitura().executeWithoutResult(status ->
+					assertEquals(CacheMode.IGNORE, entityManager.unwrap(Session.class).getCacheMode()));
+			assertEquals(CacheMode.NORMAL, entityManager.unwrap(Session.class).getCacheMode());
+
+			new TransactionTemplate(transactionManager).executeWithoutResult(status -> materiaPrimaRepository.findById(id).orElseThrow());
+			assertTrue(entityManagerFactory.getCache().contains(MateriaPrima.class, id));
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			entityManager.close();
+		}
+	}
+
+	private TransactionTemplate somenteLeitura() {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(true);
+		return template;
+	}
+}
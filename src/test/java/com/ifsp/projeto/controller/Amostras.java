@@ -0,0 +1,49 @@
+package com.ifsp.projeto.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latências e erros de um fluxo nos testes de carga, registrados por vários clientes ao mesmo tempo
+ * (veja {@link ClienteHttp#requisitar}).
+ */
+final class Amostras {
+
+	private final List<Long> latencias = Collections.synchronizedList(new ArrayList<>());
+	private final AtomicInteger erros = new AtomicInteger();
+
+	void registrar(long nanos, boolean sucesso) {
+		latencias.add(nanos);
+		if (!sucesso) {
+			erros.incrementAndGet();
+		}
+	}
+
+	int requisicoes() {
+		return latencias.size();
+	}
+
+	int erros() {
+		return erros.get();
+	}
+
+	/**
+	 * Percentil das latências pelo método do posto mais próximo, sem interpolação.
+	 *
+	 * @param percentil Entre 0 e 1, por exemplo 0.99 para o p99.
+	 * @return A latência em milissegundos, ou 0 se não houver amostras.
+	 */
+	double percentil(double percentil) {
+		List<Long> ordenadas;
+		synchronized (latencias) {
+			ordenadas = latencias.stream().sorted().toList();
+		}
+		if (ordenadas.isEmpty()) {
+			return 0;
+		}
+		int posicao = (int) Math.ceil(percentil * ordenadas.size()) - 1;
+		return ordenadas.get(Math.max(0, posicao)) / 1e6;
+	}
+}
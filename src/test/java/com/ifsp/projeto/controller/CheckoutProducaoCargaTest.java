@@ -0,0 +1,181 @@
+package com.ifsp.projeto.controller;
+
+import com.ifsp.projeto.ProjetoApplication;
+import com.ifsp.projeto.controller.dto.ProducaoDTO;
+import com.ifsp.projeto.model.MateriaPrima;
+import com.ifsp.projeto.model.Produto;
+import com.ifsp.projeto.repository.UsuarioRepository;
+import com.ifsp.projeto.service.MateriaPrimaService;
+import com.ifsp.projeto.service.ProducaoService;
+import com.ifsp.projeto.service.ProdutoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga dos fluxos de caixa (POST /venda/nova) e de registro da produção (POST /producao/diaria), pela rede e
+ * com usuários logados, comparando a aplicação com as threads comuns do Tomcat e com o perfil {@code virtual}
+ * (threads virtuais e pool de conexões de tamanho fixo). As duas execuções usam o mesmo MySQL, os mesmos dados e a
+ * mesma carga: {@code carga.usuarios} clientes simultâneos, três em cada quatro no caixa, durante {@code carga.duracao}
+ * segundos, depois de um aquecimento. Vazão, p50 e p99 de cada fluxo, e os bloqueios com a thread virtual presa
+ * ({@code confeitaria.threads.pinning}), saem no log. Roda só com -Dbenchmark=true e Docker disponível:
+ * <pre>mvn test -Dtest=CheckoutProducaoCargaTest -Dbenchmark=true -Dcarga.usuarios=400 -Dcarga.duracao=30</pre>
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CheckoutProducaoCargaTest {
+
+	private static final Logger log = LoggerFactory.getLogger(CheckoutProducaoCargaTest.class);
+
+	private static final int USUARIOS = Integer.getInteger("carga.usuarios", 400);
+	private static final Duration DURACAO = Duration.ofSeconds(Long.getLong("carga.duracao", 30));
+	private static final Duration AQUECIMENTO = Duration.ofSeconds(10);
+	private static final String SENHA = "carga123";
+	private static final String PRODUTO = "Bolo de carga";
+
+	@Container
+	static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+			.withUrlParam("rewriteBatchedStatements", "true")
+			.withCommand("--max-connections=500");
+
+	private record Dados(long produtoId, long producaoId) {
+	}
+
+	private record Medicao(String modo, String fluxo, int requisicoes, int erros, double porSegundo, double p50, double p99) {
+	}
+
+	@Test
+	void compararThreadsComunsEVirtuais() throws Exception {
+		List<Medicao> medicoes = new ArrayList<>();
+		medicoes.addAll(medir("comuns"));
+		medicoes.addAll(medir("virtuais", "virtual"));
+
+		StringBuilder tabela = new StringBuilder(String.format("%n%-9s %-9s %12s %8s %8s %8s %7s", "threads", "fluxo", "requisições", "req/s", "p50 ms", "p99 ms", "erros"));
+		for (Medicao medicao : medicoes) {
+			tabela.append(String.format("%n%-9s %-9s %12d %8.1f %8.1f %8.1f %7d", medicao.modo(), medicao.fluxo(), medicao.requisicoes(),
+					medicao.porSegundo(), medicao.p50(), medicao.p99(), medicao.erros()));
+		}
+		log.info("Carga com {} clientes por {}s:{}", USUARIOS, DURACAO.toSeconds(), tabela);
+
+		for (Medicao medicao : medicoes) {
+			assertTrue(medicao.requisicoes() > 0, () -> "Nenhuma requisição concluída: " + medicao);
+			assertEquals(0, medicao.erros(), () -> "Requisições com erro: " + medicao);
+		}
+	}
+
+	private List<Medicao> medir(String modo, String... perfis) throws Exception {
+		try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ProjetoApplication.class)
+				.profiles(perfis)
+				.run("--server.port=0",
+						"--spring.datasource.url=" + mysql.getJdbcUrl(),
+						"--spring.datasource.username=" + mysql.getUsername(),
+						"--spring.datasource.password=" + mysql.getPassword(),
+						"--spring.jpa.show-sql=false")) {
+			Dados dados = semear(contexto);
+			ClienteHttp http = new ClienteHttp("http://localhost:" + ((WebServerApplicationContext) contexto).getWebServer().getPort());
+			List<ClienteHttp.Sessao> clientes = new ArrayList<>(USUARIOS);
+			for (int i = 0; i < USUARIOS; i++) {
+				clientes.add(http.entrar("carga-" + i, SENHA));
+			}
+
+			executar(http, clientes, dados, AQUECIMENTO);
+			Map<String, Amostras> amostras = executar(http, clientes, dados, DURACAO);
+
+			String pinning = contexto.getBean(MeterRegistry.class).find("confeitaria.threads.pinning").timers().stream()
+					.map(timer -> timer.getId().getTag("origem") + "=" + timer.count())
+					.collect(Collectors.joining(", "));
+			log.info("Threads {}: pool de conexões {}, bloqueios com a thread virtual presa: {}", modo,
+					contexto.getEnvironment().getProperty("spring.datasource.hikari.maximum-pool-size", "10"), pinning.isEmpty() ? "nenhum" : pinning);
+
+			return amostras.entrySet().stream().map(fluxo -> medicao(modo, fluxo.getKey(), fluxo.getValue())).toList();
+		}
+	}
+
+	private static Medicao medicao(String modo, String fluxo, Amostras amostras) {
+		return new Medicao(modo, fluxo, amostras.requisicoes(), amostras.erros(), amostras.requisicoes() / (double) DURACAO.toSeconds(),
+				amostras.percentil(0.50), amostras.percentil(0.99));
+	}
+
+	/** Usuários, matéria-prima, produto e um lote grande para o caixa; criados na primeira execução e reaproveitados na segunda. */
+	private Dados semear(ConfigurableApplicationContext contexto) {
+		JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+		List<Long> produtos = jdbcTemplate.queryForList("SELECT id FROM produto WHERE nome = ?", Long.class, PRODUTO);
+		if (produtos.isEmpty()) {
+			contexto.getBean(UsuarioRepository.class).saveAll(ClienteHttp.usuarios("carga", "Caixa", USUARIOS, SENHA));
+
+			MateriaPrima farinha = new MateriaPrima();
+			farinha.setNome("Farinha de carga");
+			farinha.setUnidade("g");
+			farinha.setQuantidade(1e12);
+			farinha.setValor(0.01);
+			farinha.setQuantidadeMinima(0.0);
+			farinha = contexto.getBean(MateriaPrimaService.class).salvarMP(farinha);
+
+			Produto produto = new Produto();
+			produto.setNome(PRODUTO);
+			produto.setTipo("Outros");
+			produto.setRendimento(1);
+			produto = contexto.getBean(ProdutoService.class).salvarProduto(produto, List.of(farinha.getId()), List.of(1.0));
+
+			ProducaoDTO lote = new ProducaoDTO();
+			lote.setProdutoId(produto.getId());
+			lote.setQuantidade(100_000_000);
+			contexto.getBean(ProducaoService.class).registrarProducao(List.of(lote), LocalDate.now());
+			produtos = List.of(produto.getId());
+		}
+		long produtoId = produtos.get(0);
+		Long producaoId = jdbcTemplate.queryForObject("SELECT id FROM producao WHERE produto_id = ? ORDER BY quantidade DESC LIMIT 1", Long.class, produtoId);
+		return new Dados(produtoId, producaoId);
+	}
+
+	private Map<String, Amostras> executar(ClienteHttp http, List<ClienteHttp.Sessao> clientes, Dados dados, Duration duracao) {
+		Map<String, Amostras> amostras = new LinkedHashMap<>();
+		amostras.put("caixa", new Amostras());
+		amostras.put("produção", new Amostras());
+		String hoje = LocalDate.now().toString();
+		long fim = System.nanoTime() + duracao.toNanos();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < clientes.size(); i++) {
+				ClienteHttp.Sessao cliente = clientes.get(i);
+				boolean caixa = i % 4 != 0;
+				executor.submit(() -> {
+					while (System.nanoTime() < fim) {
+						if (caixa) {
+							http.requisitar(amostras.get("caixa"), http.post("/venda/nova", cliente, Map.of(
+									"producaoId", String.valueOf(dados.producaoId()), "quantidade", "1", "valorVenda", "12.50",
+									"formaPagamento", "Dinheiro", "dataVenda", hoje)), "/vendas");
+						} else {
+							http.requisitar(amostras.get("produção"), http.post("/producao/diaria", cliente, Map.of(
+									"produtos[0].produtoId", String.valueOf(dados.produtoId()), "produtos[0].quantidade", "1",
+									"dataProducao", hoje)), "/producao/diaria");
+						}
+					}
+				});
+			}
+		}
+		return amostras;
+	}
+}
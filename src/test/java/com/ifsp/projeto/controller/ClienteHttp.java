@@ -0,0 +1,149 @@
+package com.ifsp.projeto.controller;
+
+import com.ifsp.projeto.model.Usuario;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cliente HTTP dos testes de carga: entra pelo formulário de login, como o navegador, e monta as requisições seguintes
+ * com o cookie da sessão (Spring Session) e o token CSRF do usuário. Os redirecionamentos não são seguidos, para que
+ * cada teste confira para onde a aplicação mandou o usuário.
+ */
+final class ClienteHttp {
+
+	private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+	/** Cookie da sessão e token CSRF de um usuário logado. */
+	record Sessao(String cookie, String csrf) {
+	}
+
+	private final String base;
+	private final HttpClient http = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(10))
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.build();
+
+	ClienteHttp(String base) {
+		this.base = base;
+	}
+
+	Sessao entrar(String login, String senha) throws IOException, InterruptedException {
+		HttpResponse<String> telaLogin = http.send(HttpRequest.newBuilder(URI.create(base + "/login")).build(), HttpResponse.BodyHandlers.ofString());
+		String cookie = cookie(telaLogin, null);
+
+		HttpResponse<Void> resposta = enviar(post("/login", new Sessao(cookie, csrf(telaLogin.body())), Map.of("username", login, "password", senha)));
+		assertTrue(resposta.headers().firstValue("Location").orElse("").endsWith("/home"), () -> "Login recusado para " + login);
+		cookie = cookie(resposta, cookie);
+
+		// O token CSRF é trocado no login; o novo vem no formulário de produção
+		HttpResponse<String> formulario = http.send(get("/producao/registrar", new Sessao(cookie, null)), HttpResponse.BodyHandlers.ofString());
+		return new Sessao(cookie, csrf(formulario.body()));
+	}
+
+	/**
+	 * Envia a requisição e registra a latência em {@code amostras}. Ela dá certo quando redireciona para {@code destino},
+	 * a tela do fluxo concluído (e não de volta ao formulário com erro), ou, com {@code destino} nulo, quando responde 200.
+	 */
+	void requisitar(Amostras amostras, HttpRequest requisicao, String destino) {
+		long inicio = System.nanoTime();
+		boolean sucesso;
+		try {
+			HttpResponse<Void> resposta = enviar(requisicao);
+			sucesso = destino == null
+					? resposta.statusCode() == 200
+					: resposta.statusCode() == 302 && resposta.headers().firstValue("Location").orElse("").contains(destino);
+		} catch (IOException e) {
+			sucesso = false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		amostras.registrar(System.nanoTime() - inicio, sucesso);
+	}
+
+	HttpResponse<Void> enviar(HttpRequest requisicao) throws IOException, InterruptedException {
+		return http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+	}
+
+	HttpRequest get(String caminho, Sessao sessao) {
+		return HttpRequest.newBuilder(URI.create(base + caminho))
+				.timeout(Duration.ofSeconds(30))
+				.header("Cookie", sessao.cookie())
+				.GET()
+				.build();
+	}
+
+	/** POST de formulário com o token CSRF da sessão. */
+	HttpRequest post(String caminho, Sessao sessao, Map<String, String> campos) {
+		Map<String, String> comToken = new LinkedHashMap<>(campos);
+		comToken.put("_csrf", sessao.csrf());
+		String corpo = comToken.entrySet().stream()
+				.map(campo -> URLEncoder.encode(campo.getKey(), StandardCharsets.UTF_8) + "=" + URLEncoder.encode(campo.getValue(), StandardCharsets.UTF_8))
+				.collect(Collectors.joining("&"));
+		HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(base + caminho))
+				.timeout(Duration.ofSeconds(30))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(corpo));
+		if (sessao.cookie() != null) {
+			requisicao.header("Cookie", sessao.cookie());
+		}
+		return requisicao.build();
+	}
+
+	/**
+	 * Usuários ativos com os logins {@code login-0}, {@code login-1}..., todos com a mesma senha, para entrar com
+	 * {@link #entrar}. Ainda não gravados.
+	 */
+	static List<Usuario> usuarios(String login, String nome, int quantidade, String senha) {
+		// Custo baixo do BCrypt só para os logins da preparação não dominarem o tempo do teste
+		String hash = new BCryptPasswordEncoder(4).encode(senha);
+		List<Usuario> usuarios = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			Usuario usuario = new Usuario();
+			usuario.setNome(nome + " " + i);
+			usuario.setFone("0000-0000");
+			usuario.setLogin(login + "-" + i);
+			usuario.setSenha(hash);
+			usuario.setPerguntaSecreta("Carga");
+			usuario.setRespostaSecreta("carga");
+			usuario.setRole("USER");
+			usuario.setEnabled(true);
+			usuarios.add(usuario);
+		}
+		return usuarios;
+	}
+
+	/** Cookie da sessão definido pela resposta, ou o anterior se a resposta não trocou a sessão. */
+	private static String cookie(HttpResponse<?> resposta, String anterior) {
+		return resposta.headers().allValues("Set-Cookie").stream()
+				.filter(cookie -> cookie.startsWith("SESSION="))
+				.map(cookie -> cookie.substring(0, cookie.indexOf(';')))
+				.findFirst()
+				.orElse(anterior);
+	}
+
+	private static String csrf(String html) {
+		Matcher matcher = CSRF.matcher(html);
+		assertTrue(matcher.find(), "Token CSRF não encontrado na página");
+		return matcher.group(1);
+	}
+}
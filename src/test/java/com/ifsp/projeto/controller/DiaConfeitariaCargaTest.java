@@ -0,0 +1,322 @@
+package com.ifsp.projeto.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ifsp.projeto.config.GeradorProperties;
+import com.ifsp.projeto.gerador.GeradorDados;
+import com.ifsp.projeto.model.StatusPedido;
+import com.ifsp.projeto.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga de ponta a ponta, pela rede e pelos controllers de verdade, com o banco H2 em memória do perfil
+ * {@code h2} (não precisa de Docker). O banco recebe do {@link GeradorDados} um histórico de {@code carga.historico.dias}
+ * dias (produção, vendas, pedidos e orçamentos) e, em seguida, o teste repete {@code carga.dias} dias de confeitaria, cada um em etapas:
+ * registro da produção da manhã, {@code carga.vendas} vendas no caixa, pedidos novos e mudanças de status dos pedidos
+ * a entregar, e as telas de relatório. Cada etapa roda com {@code carga.concorrencia} usuários logados ao mesmo tempo
+ * (os relatórios com menos, como a gerência usaria), antecedida por um dia de aquecimento que não entra na conta.
+ * <p>
+ * Por endpoint saem no log a vazão, p50, p95 e p99 e os comandos SQL do Hibernate por requisição (as etapas rodam uma de
+ * cada vez, então a contagem global das estatísticas do Hibernate é toda da etapa). O resultado é comparado com a
+ * referência gravada em {@code carga.baseline} (padrão {@code benchmarks/carga-dia.json}), e o teste falha se algum
+ * endpoint piorou além de {@code carga.tolerancia}. Roda só com -Dbenchmark=true:
+ * <pre>mvn test -Dtest=DiaConfeitariaCargaTest -Dbenchmark=true -Dcarga.concorrencia=8
+ * mvn test -Dtest=DiaConfeitariaCargaTest -Dbenchmark=true -Dcarga.baseline.gravar=true  # atualiza a referência</pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DiaConfeitariaCargaTest {
+
+	private static final Logger log = LoggerFactory.getLogger(DiaConfeitariaCargaTest.class);
+
+	private static final int CONCORRENCIA = Integer.getInteger("carga.concorrencia", 8);
+	private static final int DIAS = Integer.getInteger("carga.dias", 1);
+	private static final int VENDAS = Integer.getInteger("carga.vendas", 2000);
+	private static final int HISTORICO_DIAS = Integer.getInteger("carga.historico.dias", 90);
+	private static final double TOLERANCIA = Double.parseDouble(System.getProperty("carga.tolerancia", "2.0"));
+	private static final Path BASELINE = Path.of(System.getProperty("carga.baseline", "benchmarks/carga-dia.json"));
+	private static final boolean GRAVAR_BASELINE = Boolean.getBoolean("carga.baseline.gravar");
+
+	// Gerência: poucos usuários nos relatórios; acima de threads + fila de confeitaria.relatorios a resposta seria 503
+	private static final int CONCORRENCIA_RELATORIOS = 2;
+	private static final int VISUALIZACOES_RELATORIO = 10;
+	private static final int MATERIAS_PRIMAS = 40;
+	private static final int PRODUTOS = 30;
+	private static final int PRODUTOS_POR_REGISTRO = 5;
+	private static final int VENDAS_HISTORICO_DIA = 60;
+	private static final int PEDIDOS_DIA = 10;
+	private static final int ORCAMENTOS_DIA = 3;
+	private static final int PEDIDOS_NOVOS_DIA = 40;
+	private static final String SENHA = "carga123";
+	private static final List<String> FORMAS_PAGAMENTO = List.of("dinheiro", "pix", "cartao");
+
+	// Semente fixa: os mesmos dados e a mesma sequência de requisições a cada execução, para a comparação com a referência
+	private final Random aleatorio = new Random(49);
+
+	@LocalServerPort
+	int porta;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	GeradorDados geradorDados;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	/** Uma requisição e para onde ela deve redirecionar quando dá certo ({@code null}: a resposta esperada é 200). */
+	private record Chamada(HttpRequest requisicao, String destino) {
+	}
+
+	/** Parâmetros da execução; a referência só vale para uma execução com os mesmos parâmetros. */
+	record Parametros(int concorrencia, int dias, int vendas, int historicoDias) {
+	}
+
+	/** Resultado de um endpoint: latências em milissegundos e comandos SQL do Hibernate por requisição. */
+	record Medicao(int requisicoes, int erros, double porSegundo, double p50, double p95, double p99, double sqlPorRequisicao) {
+	}
+
+	record Referencia(Parametros parametros, Map<String, Medicao> endpoints) {
+	}
+
+	/** Amostras de um endpoint somadas entre os dias repetidos, com o tempo e os comandos SQL das etapas. */
+	private static final class Endpoint {
+		private final Amostras amostras = new Amostras();
+		private long nanos;
+		private long comandos;
+
+		void concluirEtapa(long nanos, long comandos) {
+			this.nanos += nanos;
+			this.comandos += comandos;
+		}
+
+		Medicao medicao() {
+			int requisicoes = amostras.requisicoes();
+			return new Medicao(requisicoes, amostras.erros(), arredondar(requisicoes / (nanos / 1e9)),
+					arredondar(amostras.percentil(0.50)), arredondar(amostras.percentil(0.95)), arredondar(amostras.percentil(0.99)),
+					arredondar(comandos / (double) requisicoes));
+		}
+
+		private static double arredondar(double valor) {
+			return Math.round(valor * 10) / 10.0;
+		}
+	}
+
+	private record Dados(List<Long> produtos, List<ClienteHttp.Sessao> sessoes) {
+	}
+
+	@Test
+	void repetirDiasDeConfeitaria() throws Exception {
+		ClienteHttp http = new ClienteHttp("http://localhost:" + porta);
+		LocalDate hoje = LocalDate.now();
+		List<Long> produtos = semear(hoje);
+		List<ClienteHttp.Sessao> sessoes = new ArrayList<>(CONCORRENCIA);
+		for (int i = 0; i < CONCORRENCIA; i++) {
+			sessoes.add(http.entrar("dia-" + i, SENHA));
+		}
+		Dados dados = new Dados(produtos, sessoes);
+
+		repetirDia(http, dados, hoje, VENDAS / 10, new LinkedHashMap<>());
+		Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+		for (int dia = 1; dia <= DIAS; dia++) {
+			repetirDia(http, dados, hoje.plusDays(dia), VENDAS, endpoints);
+		}
+
+		Map<String, Medicao> medicoes = new LinkedHashMap<>();
+		endpoints.forEach((endpoint, resultados) -> medicoes.put(endpoint, resultados.medicao()));
+		Referencia atual = new Referencia(new Parametros(CONCORRENCIA, DIAS, VENDAS, HISTORICO_DIAS), medicoes);
+		log.info("Carga de {} dia(s) com {} vendas e {} usuários simultâneos:{}", DIAS, VENDAS, CONCORRENCIA, tabela(medicoes));
+
+		medicoes.forEach((endpoint, medicao) -> assertEquals(0, medicao.erros(), () -> "Requisições com erro em " + endpoint + ": " + medicao));
+		ObjectMapper json = new ObjectMapper();
+		if (GRAVAR_BASELINE) {
+			Files.createDirectories(BASELINE.toAbsolutePath().getParent());
+			json.writerWithDefaultPrettyPrinter().writeValue(BASELINE.toFile(), atual);
+			log.info("Referência gravada em {}", BASELINE);
+		} else if (Files.exists(BASELINE)) {
+			compararComReferencia(atual, json.readValue(BASELINE.toFile(), Referencia.class));
+		} else {
+			log.warn("Sem referência em {}; grave uma com -Dcarga.baseline.gravar=true", BASELINE);
+		}
+	}
+
+	/**
+	 * Um dia de confeitaria: produção da manhã, caixa, pedidos e relatórios, nessa ordem e uma etapa de cada vez.
+	 */
+	private void repetirDia(ClienteHttp http, Dados dados, LocalDate data, int vendas, Map<String, Endpoint> endpoints) {
+		String dia = data.toString();
+
+		List<Function<ClienteHttp.Sessao, Chamada>> registros = new ArrayList<>();
+		int quantidade = Math.max(10, vendas * 6 / dados.produtos().size());
+		for (int inicio = 0; inicio < dados.produtos().size(); inicio += PRODUTOS_POR_REGISTRO) {
+			Map<String, String> campos = new LinkedHashMap<>();
+			campos.put("dataProducao", dia);
+			List<Long> lote = dados.produtos().subList(inicio, Math.min(inicio + PRODUTOS_POR_REGISTRO, dados.produtos().size()));
+			for (int i = 0; i < lote.size(); i++) {
+				campos.put("produtos[" + i + "].produtoId", String.valueOf(lote.get(i)));
+				campos.put("produtos[" + i + "].quantidade", String.valueOf(quantidade));
+			}
+			registros.add(sessao -> new Chamada(http.post("/producao/diaria", sessao, campos), "/producao/diaria"));
+		}
+		executar("POST /producao/diaria", CONCORRENCIA, registros, dados.sessoes(), http, endpoints);
+
+		List<Long> lotes = jdbcTemplate.queryForList("SELECT id FROM producao WHERE data_producao = ? ORDER BY id", Long.class, data);
+		List<Function<ClienteHttp.Sessao, Chamada>> caixa = new ArrayList<>(vendas);
+		for (int i = 0; i < vendas; i++) {
+			Map<String, String> campos = Map.of(
+					"producaoId", String.valueOf(lotes.get(aleatorio.nextInt(lotes.size()))),
+					"quantidade", String.valueOf(1 + aleatorio.nextInt(3)),
+					"valorVenda", String.valueOf(8 + aleatorio.nextInt(33)),
+					"formaPagamento", FORMAS_PAGAMENTO.get(aleatorio.nextInt(FORMAS_PAGAMENTO.size())),
+					"dataVenda", dia);
+			caixa.add(sessao -> new Chamada(http.post("/venda/nova", sessao, campos), "/vendas"));
+		}
+		executar("POST /venda/nova", CONCORRENCIA, caixa, dados.sessoes(), http, endpoints);
+
+		List<Function<ClienteHttp.Sessao, Chamada>> pedidosNovos = new ArrayList<>();
+		for (int i = 0; i < PEDIDOS_NOVOS_DIA; i++) {
+			Map<String, String> campos = Map.of(
+					"cliente", "Cliente " + aleatorio.nextInt(500),
+					"dataEntrega", data.plusDays(1 + aleatorio.nextInt(7)).toString(),
+					"itens[0].produtoId", String.valueOf(dados.produtos().get(aleatorio.nextInt(dados.produtos().size()))),
+					"itens[0].quantidade", String.valueOf(1 + aleatorio.nextInt(20)));
+			pedidosNovos.add(sessao -> new Chamada(http.post("/pedido/salvar", sessao, campos), "/pedidos"));
+		}
+		executar("POST /pedido/salvar", CONCORRENCIA, pedidosNovos, dados.sessoes(), http, endpoints);
+
+		// Os pedidos a entregar nos próximos dois dias entram em produção; a tela redireciona para /pedidos mesmo quando
+		// a mudança é recusada, então o resultado é conferido no banco
+		List<Long> aEntregar = jdbcTemplate.queryForList("SELECT id FROM pedido WHERE status = ? AND data_entrega BETWEEN ? AND ? ORDER BY id",
+				Long.class, StatusPedido.PENDENTE.getDescricao(), data, data.plusDays(2));
+		List<Function<ClienteHttp.Sessao, Chamada>> mudancas = aEntregar.stream()
+				.<Function<ClienteHttp.Sessao, Chamada>>map(id -> sessao -> new Chamada(
+						http.post("/pedido/atualizar-status/" + id, sessao, Map.of("status", StatusPedido.EM_PRODUCAO.name())), "/pedidos"))
+				.toList();
+		executar("POST /pedido/atualizar-status", CONCORRENCIA, mudancas, dados.sessoes(), http, endpoints);
+		if (!aEntregar.isEmpty()) {
+			Integer emProducao = jdbcTemplate.queryForObject("SELECT count(*) FROM pedido WHERE status = ? AND data_entrega BETWEEN ? AND ?",
+					Integer.class, StatusPedido.EM_PRODUCAO.getDescricao(), data, data.plusDays(2));
+			assertTrue(emProducao >= aEntregar.size(), () -> "Pedidos que não mudaram de status: " + (aEntregar.size() - emProducao));
+		}
+
+		String periodo = "?dataInicio=" + data.minusDays(29) + "&dataFim=" + dia;
+		executar("GET /relatorio/vendas", CONCORRENCIA_RELATORIOS, visualizacoes(http, "/relatorio/vendas" + periodo), dados.sessoes(), http, endpoints);
+		executar("GET /api/vendas/eventos", CONCORRENCIA_RELATORIOS, visualizacoes(http, "/api/vendas/eventos"), dados.sessoes(), http, endpoints);
+		executar("GET /api/producao/eventos", CONCORRENCIA_RELATORIOS, visualizacoes(http, "/api/producao/eventos"), dados.sessoes(), http, endpoints);
+		executar("GET /pedidos", CONCORRENCIA_RELATORIOS, visualizacoes(http, "/pedidos?status=" + StatusPedido.EM_PRODUCAO.name()), dados.sessoes(), http, endpoints);
+	}
+
+	private static List<Function<ClienteHttp.Sessao, Chamada>> visualizacoes(ClienteHttp http, String caminho) {
+		return Collections.nCopies(VISUALIZACOES_RELATORIO, sessao -> new Chamada(http.get(caminho, sessao), null));
+	}
+
+	/**
+	 * Roda as chamadas de uma etapa com {@code concorrencia} usuários, cada um pegando a próxima chamada da lista assim
+	 * que termina a anterior, e soma aos resultados do endpoint as latências e os comandos SQL da etapa.
+	 */
+	private void executar(String endpoint, int concorrencia, List<Function<ClienteHttp.Sessao, Chamada>> chamadas,
+						  List<ClienteHttp.Sessao> sessoes, ClienteHttp http, Map<String, Endpoint> endpoints) {
+		Endpoint resultados = endpoints.computeIfAbsent(endpoint, chave -> new Endpoint());
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		AtomicInteger proxima = new AtomicInteger();
+		long comandos = estatisticas.getPrepareStatementCount();
+		long inicio = System.nanoTime();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < Math.min(concorrencia, chamadas.size()); i++) {
+				ClienteHttp.Sessao sessao = sessoes.get(i % sessoes.size());
+				executor.submit(() -> {
+					for (int n = proxima.getAndIncrement(); n < chamadas.size(); n = proxima.getAndIncrement()) {
+						Chamada chamada = chamadas.get(n).apply(sessao);
+						http.requisitar(resultados.amostras, chamada.requisicao(), chamada.destino());
+					}
+				});
+			}
+		}
+		resultados.concluirEtapa(System.nanoTime() - inicio, estatisticas.getPrepareStatementCount() - comandos);
+	}
+
+	/**
+	 * Falha se algum endpoint ficou mais lento (p95), com vazão menor ou com mais comandos SQL por requisição que a
+	 * referência. Tempos variam de uma execução para outra, por isso só contam acima da tolerância; os comandos SQL
+	 * quase não variam, e mais de 10% a mais costuma ser uma consulta nova por item (N+1).
+	 */
+	private static void compararComReferencia(Referencia atual, Referencia referencia) {
+		if (!atual.parametros().equals(referencia.parametros())) {
+			log.warn("Referência em {} gravada com outros parâmetros ({}); comparação ignorada", BASELINE, referencia.parametros());
+			return;
+		}
+		List<String> regressoes = new ArrayList<>();
+		referencia.endpoints().forEach((endpoint, antes) -> {
+			Medicao depois = atual.endpoints().get(endpoint);
+			if (depois == null) {
+				regressoes.add(endpoint + ": não foi executado");
+				return;
+			}
+			// Folga fixa de 5 ms: em p95 de poucos milissegundos, qualquer pausa do GC passaria da tolerância
+			if (depois.p95() > antes.p95() * TOLERANCIA + 5) {
+				regressoes.add(endpoint + ": p95 " + antes.p95() + " -> " + depois.p95() + " ms");
+			}
+			if (depois.porSegundo() < antes.porSegundo() / TOLERANCIA) {
+				regressoes.add(endpoint + ": vazão " + antes.porSegundo() + " -> " + depois.porSegundo() + " req/s");
+			}
+			if (depois.sqlPorRequisicao() > antes.sqlPorRequisicao() * 1.1 + 0.5) {
+				regressoes.add(endpoint + ": SQL por requisição " + antes.sqlPorRequisicao() + " -> " + depois.sqlPorRequisicao());
+			}
+		});
+		assertTrue(regressoes.isEmpty(), () -> "Regressões em relação a " + BASELINE + ":\n" + String.join("\n", regressoes));
+	}
+
+	private static String tabela(Map<String, Medicao> medicoes) {
+		StringBuilder tabela = new StringBuilder(String.format("%n%-30s %12s %9s %8s %8s %8s %8s %7s", "endpoint", "requisições", "req/s", "p50 ms", "p95 ms", "p99 ms", "SQL/req", "erros"));
+		medicoes.forEach((endpoint, medicao) -> tabela.append(String.format("%n%-30s %12d %9.1f %8.1f %8.1f %8.1f %8.1f %7d", endpoint, medicao.requisicoes(),
+				medicao.porSegundo(), medicao.p50(), medicao.p95(), medicao.p99(), medicao.sqlPorRequisicao(), medicao.erros())));
+		return tabela.toString();
+	}
+
+	/**
+	 * Usuários do teste e o histórico dos últimos dias, do {@link GeradorDados}: produção e vendas até ontem e pedidos
+	 * pendentes a partir de hoje.
+	 *
+	 * @return Os IDs dos produtos.
+	 */
+	private List<Long> semear(LocalDate hoje) {
+		usuarioRepository.saveAll(ClienteHttp.usuarios("dia", "Atendente", CONCORRENCIA, SENHA));
+
+		geradorDados.gerar(new GeradorProperties(HISTORICO_DIAS, hoje.minusDays(1), MATERIAS_PRIMAS, PRODUTOS, VENDAS_HISTORICO_DIA,
+				PEDIDOS_DIA, ORCAMENTOS_DIA, 4, 1000, 49));
+		return jdbcTemplate.queryForList("SELECT id FROM produto ORDER BY id", Long.class);
+	}
+}
@@ -0,0 +1,62 @@
+package com.ifsp.projeto.controller;
+
+import com.ifsp.projeto.config.LoginProperties;
+import com.ifsp.projeto.config.SenhaIndisponivelException;
+import com.ifsp.projeto.repository.UsuarioRepository;
+import com.ifsp.projeto.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fora do login, uma senha recusada pelo executor de BCrypt vira 503 com {@code Retry-After}, e não página de erro 500.
+ */
+class SenhaExceptionHandlerTest {
+
+	private UsuarioRepository usuarioRepository;
+	private PasswordEncoder passwordEncoder;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void criar() {
+		usuarioRepository = mock(UsuarioRepository.class);
+		passwordEncoder = mock(PasswordEncoder.class);
+		UsuarioService usuarioService = new UsuarioService(usuarioRepository, passwordEncoder, mock(UserCache.class));
+		LoginProperties properties = new LoginProperties(5, 20, Duration.ofMinutes(5), 1000,
+				new LoginProperties.Bcrypt(2, 50, Duration.ofSeconds(5), Duration.ofSeconds(3)));
+		mockMvc = MockMvcBuilders.standaloneSetup(new UsuarioController(usuarioService))
+				.setControllerAdvice(new SenhaExceptionHandler(properties))
+				.build();
+	}
+
+	@Test
+	void cadastroComBcryptSaturadoRespondeServicoIndisponivel() throws Exception {
+		when(passwordEncoder.encode(any())).thenThrow(new SenhaIndisponivelException("Sistema ocupado verificando senhas.", null));
+
+		mockMvc.perform(post("/salvarUsuario")
+						.param("nome", "Ana")
+						.param("login", "ana")
+						.param("senha", "segredo")
+						.param("confirmarSenha", "segredo"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Retry-After", "3"))
+				.andExpect(content().string("Sistema ocupado no momento. Tente novamente em instantes."));
+
+		verify(usuarioRepository, never()).save(any());
+	}
+}
@@ -0,0 +1,77 @@
+package com.ifsp.projeto.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.ifsp.projeto.model.StatusPedido.CANCELADO;
+import static com.ifsp.projeto.model.StatusPedido.EM_PRODUCAO;
+import static com.ifsp.projeto.model.StatusPedido.ENTREGUE;
+import static com.ifsp.projeto.model.StatusPedido.PENDENTE;
+import static com.ifsp.projeto.model.StatusPedido.PRONTO_PARA_ENTREGA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatusPedidoTest {
+
+	private static final Map<StatusPedido, Set<StatusPedido>> TRANSICOES = Map.of(
+			PENDENTE, EnumSet.of(EM_PRODUCAO, CANCELADO),
+			EM_PRODUCAO, EnumSet.of(PRONTO_PARA_ENTREGA, CANCELADO),
+			PRONTO_PARA_ENTREGA, EnumSet.of(ENTREGUE, CANCELADO),
+			ENTREGUE, EnumSet.noneOf(StatusPedido.class),
+			CANCELADO, EnumSet.noneOf(StatusPedido.class));
+
+	@ParameterizedTest
+	@EnumSource(StatusPedido.class)
+	void podeMudarSoParaAsProximasSituacoes(StatusPedido origem) {
+		for (StatusPedido destino : StatusPedido.values()) {
+			assertEquals(TRANSICOES.get(origem).contains(destino), origem.podeMudarPara(destino), origem + " -> " + destino);
+		}
+	}
+
+	@Test
+	void origensPermitidasSaoAsQuePodemMudarParaODestino() {
+		assertEquals(EnumSet.noneOf(StatusPedido.class), StatusPedido.origensPermitidas(PENDENTE));
+		assertEquals(EnumSet.of(PENDENTE), StatusPedido.origensPermitidas(EM_PRODUCAO));
+		assertEquals(EnumSet.of(PRONTO_PARA_ENTREGA), StatusPedido.origensPermitidas(ENTREGUE));
+		assertEquals(EnumSet.of(PENDENTE, EM_PRODUCAO, PRONTO_PARA_ENTREGA), StatusPedido.origensPermitidas(CANCELADO));
+	}
+
+	@Test
+	void finalizadosNaoTemProximasSituacoes() {
+		assertEquals(EnumSet.of(ENTREGUE, CANCELADO), StatusPedido.finalizados());
+	}
+
+	@Test
+	void destinosSaoAsSituacoesAlcancaveisSemAPendente() {
+		assertEquals(EnumSet.of(EM_PRODUCAO, PRONTO_PARA_ENTREGA, ENTREGUE, CANCELADO), StatusPedido.destinos());
+	}
+
+	@Test
+	void converteNomeOuDescricao() {
+		assertEquals(EM_PRODUCAO, StatusPedido.of("EM_PRODUCAO"));
+		assertEquals(EM_PRODUCAO, StatusPedido.of("Em produção"));
+		assertEquals(PRONTO_PARA_ENTREGA, StatusPedido.of(" pronto para entrega "));
+	}
+
+	@ParameterizedTest
+	@NullSource
+	@ValueSource(strings = {"", "Aguardando", "em_producao"})
+	void recusaTextoQueNaoCorrespondeANenhumaSituacao(String valor) {
+		assertThrows(IllegalArgumentException.class, () -> StatusPedido.of(valor));
+	}
+
+	@ParameterizedTest
+	@EnumSource(StatusPedido.class)
+	void gravaELeAMesmaSituacaoPelaDescricao(StatusPedido status) {
+		StatusPedidoConverter converter = new StatusPedidoConverter();
+		assertEquals(status.getDescricao(), converter.convertToDatabaseColumn(status));
+		assertEquals(status, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(status)));
+	}
+}
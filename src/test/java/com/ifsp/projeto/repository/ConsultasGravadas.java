@@ -0,0 +1,102 @@
+package com.ifsp.projeto.repository;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Grava o SQL de cada comando preparado executado pelo DataSource da aplicação, com os parâmetros na ordem dos
+ * {@code ?}, para os testes conferirem o SQL que o Hibernate realmente gera a partir dos repositórios.
+ * Registrado como {@link BeanPostProcessor}, envolve o bean {@code dataSource}.
+ */
+final class ConsultasGravadas implements BeanPostProcessor {
+
+	/** Um comando executado e os valores dos seus parâmetros. */
+	record Consulta(String sql, List<Object> parametros) {
+	}
+
+	private final List<Consulta> consultas = new CopyOnWriteArrayList<>();
+	private volatile boolean gravando;
+
+	/**
+	 * Executa a ação e devolve os comandos que ela enviou ao banco.
+	 */
+	List<Consulta> durante(Runnable acao) {
+		consultas.clear();
+		gravando = true;
+		try {
+			acao.run();
+		} finally {
+			gravando = false;
+		}
+		return List.copyOf(consultas);
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+			return envolver(DataSource.class, dataSource, (alvo, metodo, args) -> {
+				Object resultado = metodo.invoke(alvo, args);
+				return resultado instanceof Connection conexao ? envolver(Connection.class, conexao, this::conexao) : resultado;
+			});
+		}
+		return bean;
+	}
+
+	private Object conexao(Object alvo, Method metodo, Object[] args) throws Throwable {
+		Object resultado = metodo.invoke(alvo, args);
+		if (resultado instanceof PreparedStatement comando && metodo.getName().equals("prepareStatement")) {
+			return envolver(PreparedStatement.class, comando, new Parametros((String) args[0]));
+		}
+		return resultado;
+	}
+
+	/** Guarda os parâmetros atribuídos ao comando e grava o comando quando ele é executado. */
+	private final class Parametros implements Invocador {
+		private final String sql;
+		private final TreeMap<Integer, Object> valores = new TreeMap<>();
+
+		Parametros(String sql) {
+			this.sql = sql;
+		}
+
+		@Override
+		public Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+			String nome = metodo.getName();
+			if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+				valores.put(indice, nome.equals("setNull") ? null : args[1]);
+			} else if (nome.equals("clearParameters")) {
+				valores.clear();
+			} else if (nome.startsWith("execute") && gravando) {
+				consultas.add(new Consulta(sql, new ArrayList<>(valores.values())));
+			}
+			return metodo.invoke(alvo, args);
+		}
+	}
+
+	@FunctionalInterface
+	private interface Invocador {
+		Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable;
+	}
+
+	private static <T> T envolver(Class<T> tipo, T alvo, Invocador invocador) {
+		InvocationHandler handler = (proxy, metodo, args) -> {
+			try {
+				return invocador.invocar(alvo, metodo, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		};
+		return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, handler));
+	}
+}
@@ -0,0 +1,141 @@
+package com.ifsp.projeto.repository;
+
+import com.ifsp.projeto.model.Producao;
+import com.ifsp.projeto.model.Produto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mede a importação de 10 mil lotes de produção em um MySQL real, comparando o comportamento antigo (IDENTITY: um
+ * INSERT por vez, cada um esperando a resposta do banco) com o atual (IDs da tabela sequencia_id e INSERTs em lote
+ * reescritos pelo driver). As duas formas tiram os IDs da sequencia_id, como o GeradorDados; se a comparação usasse o
+ * AUTO_INCREMENT da coluna, o Hibernate voltaria a entregar IDs já usados. Os resultados, em inserções por segundo,
+ * saem no log. Roda só com -Dbenchmark=true e Docker disponível:
+ * <pre>mvn test -Dtest=ImportacaoProducaoBenchmarkTest -Dbenchmark=true</pre>
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ImportacaoProducaoBenchmarkTest {
+
+	private static final Logger log = LoggerFactory.getLogger(ImportacaoProducaoBenchmarkTest.class);
+
+	private static final int LOTES = 10_000;
+	private static final int AQUECIMENTO = 1_000;
+	private static final int ALOCACAO_IDS = 50;
+	private static final String INSERT = "INSERT INTO producao (id, produto_id, quantidade, data_producao) VALUES (?, ?, ?, ?)";
+
+	@Container
+	@ServiceConnection
+	static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0").withUrlParam("rewriteBatchedStatements", "true");
+
+	@Autowired
+	ProdutoRepository produtoRepository;
+
+	@Autowired
+	ProducaoRepository producaoRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void importarProducao() {
+		Produto produto = new Produto();
+		produto.setNome("Bolo de benchmark");
+		produto.setTipo("Outros");
+		produto.setRendimento(1);
+		Long produtoId = transactionTemplate.execute(status -> produtoRepository.save(produto).getId());
+
+		inserirUmPorVez(produtoId, AQUECIMENTO);
+		importarEmLote(produtoId, AQUECIMENTO);
+		jdbcTemplate.update("DELETE FROM producao");
+
+		double antes = inserirUmPorVez(produtoId, LOTES);
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estatisticas.clear();
+		double depois = importarEmLote(produtoId, LOTES);
+		long comandos = estatisticas.getPrepareStatementCount();
+
+		log.info("Importação de {} lotes de produção: IDENTITY (um INSERT por vez) {} inserções/s; IDs em tabela + lote {} inserções/s ({}x), {} comandos preparados",
+				LOTES, Math.round(antes), Math.round(depois), String.format("%.1f", depois / antes), comandos);
+		assertEquals(2L * LOTES, producaoRepository.count());
+		// Com IDENTITY seriam pelo menos LOTES comandos; em lote são alguns por bloco de 50
+		assertTrue(comandos < LOTES / 10, () -> "Os INSERTs não foram agrupados em lote: " + comandos + " comandos preparados");
+	}
+
+	/**
+	 * Reproduz o que o Hibernate fazia com IDENTITY: cada INSERT é executado sozinho, esperando a resposta do banco.
+	 * Os IDs são reservados de uma vez na sequencia_id, para não colidirem com os que o Hibernate entrega depois.
+	 */
+	private double inserirUmPorVez(Long produtoId, int quantidade) {
+		long inicio = System.nanoTime();
+		transactionTemplate.executeWithoutResult(status -> {
+			long primeiroId = reservarIds(quantidade);
+			Date hoje = Date.valueOf(LocalDate.now());
+			for (int i = 0; i < quantidade; i++) {
+				jdbcTemplate.update(INSERT, primeiroId + i, produtoId, i % 20 + 1, hoje);
+			}
+		});
+		return porSegundo(quantidade, inicio);
+	}
+
+	/**
+	 * Reserva {@code quantidade} IDs de producao como o GeradorDados: a reserva começa no próximo bloco que o otimizador
+	 * pooled entregaria e empurra o valor gravado para depois dela.
+	 *
+	 * @return O primeiro ID reservado.
+	 */
+	private long reservarIds(int quantidade) {
+		long valor = jdbcTemplate.queryForObject("SELECT proximo_valor FROM sequencia_id WHERE entidade = 'producao' FOR UPDATE", Long.class);
+		jdbcTemplate.update("UPDATE sequencia_id SET proximo_valor = ? WHERE entidade = 'producao'", valor + quantidade);
+		return valor - ALOCACAO_IDS + 1;
+	}
+
+	private double importarEmLote(Long produtoId, int quantidade) {
+		long inicio = System.nanoTime();
+		transactionTemplate.executeWithoutResult(status -> {
+			Produto produto = produtoRepository.getReferenceById(produtoId);
+			List<Producao> lotes = new ArrayList<>(quantidade);
+			for (int i = 0; i < quantidade; i++) {
+				Producao producao = new Producao();
+				producao.setProduto(produto);
+				producao.setQuantidade(i % 20 + 1);
+				producao.setDataProducao(LocalDate.now());
+				lotes.add(producao);
+			}
+			producaoRepository.saveAll(lotes);
+		});
+		return porSegundo(quantidade, inicio);
+	}
+
+	private static double porSegundo(int quantidade, long inicio) {
+		return quantidade / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+	}
+}
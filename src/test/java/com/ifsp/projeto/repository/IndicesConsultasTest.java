@@ -0,0 +1,221 @@
+package com.ifsp.projeto.repository;
+
+import com.ifsp.projeto.model.StatusPedido;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chama os métodos mais frequentes dos repositórios em um MySQL real com o esquema das migrações, roda EXPLAIN no SQL
+ * que o Hibernate gerou para cada um (gravado pelo {@link ConsultasGravadas}, com os mesmos parâmetros) e falha se algum
+ * comando voltar a ler uma tabela inteira (type = ALL). Cada teste leva o nome do método do repositório que cobre.
+ * Precisa de Docker; sem ele, a classe é ignorada.
+ */
+@SpringBootTest
+@Import(IndicesConsultasTest.Gravacao.class)
+@Testcontainers(disabledWithoutDocker = true)
+class IndicesConsultasTest {
+
+	private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+	private static final int DIAS = 200;
+
+	@Container
+	@ServiceConnection
+	static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+	@TestConfiguration
+	static class Gravacao {
+
+		@Bean
+		static ConsultasGravadas consultasGravadas() {
+			return new ConsultasGravadas();
+		}
+	}
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	ConsultasGravadas consultasGravadas;
+
+	@Autowired
+	VendaRepository vendaRepository;
+
+	@Autowired
+	ItemVendaRepository itemVendaRepository;
+
+	@Autowired
+	ProducaoRepository producaoRepository;
+
+	@Autowired
+	PedidoRepository pedidoRepository;
+
+	@Autowired
+	ItemPedidoRepository itemPedidoRepository;
+
+	@Autowired
+	MateriaPrimaRepository materiaPrimaRepository;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	ReceitaVersaoRepository receitaVersaoRepository;
+
+	@BeforeEach
+	void popular() {
+		if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM venda", Integer.class) > 0) {
+			return;
+		}
+		// Volume suficiente para o otimizador preferir os índices a uma varredura das tabelas
+		inserir("INSERT INTO materia_prima (nome, unidade, quantidade, quantidade_minima, valor) VALUES (?, ?, 1000, 10, 0.5)", 500,
+				i -> new Object[]{"Matéria-prima " + i, i % 2 == 0 ? "g" : "ml"});
+		inserir("INSERT INTO usuario (nome, login, fone, senha, pergunta_secreta, resposta_secreta, role, enabled) VALUES (?, ?, '1', 'x', 'p', 'r', 'USER', 1)", 500,
+				i -> new Object[]{"Usuário " + i, "usuario" + i});
+		inserir("INSERT INTO produto (nome, tipo, preco, rendimento) VALUES (?, 'Outros', 10, 1)", 200,
+				i -> new Object[]{"Produto " + i});
+		inserir("INSERT INTO receita_versao (produto_id, numero, data_criacao) VALUES (?, ?, ?)", 1000,
+				i -> new Object[]{i % 200 + 1, i / 200 + 1, Timestamp.valueOf(LocalDateTime.now())});
+		inserir("INSERT INTO producao (produto_id, quantidade, data_producao, custo_unitario) VALUES (?, 10, ?, 1)", 4000,
+				i -> new Object[]{i % 200 + 1, dia(i)});
+		inserir("INSERT INTO venda (data_venda, doado, quantidade, valor_venda, forma_pagamento) VALUES (?, 0, 2, 20, 'pix')", 4000,
+				i -> new Object[]{dia(i)});
+		inserir("INSERT INTO item_venda (producao_id, venda_id, quantidade, valor_unitario, valor_total, custo_unitario) VALUES (?, ?, 1, 10, 10, 1)", 8000,
+				i -> new Object[]{i % 4000 + 1, i / 2 + 1});
+		String[] status = {"Pendente", "Em produção", "Pronto para entrega", "Entregue", "Cancelado"};
+		inserir("INSERT INTO pedido (cliente, cliente_busca, data_entrega, status) VALUES (?, ?, ?, ?)", 4000,
+				i -> new Object[]{"Cliente " + i, "cliente " + i, dia(i), status[i % status.length]});
+		inserir("INSERT INTO item_pedido (pedido_id, produto_id, quantidade, valor_unitario) VALUES (?, ?, 1, 10)", 8000,
+				i -> new Object[]{i / 2 + 1, i % 200 + 1});
+		jdbcTemplate.execute("ANALYZE TABLE materia_prima, usuario, produto, receita_versao, producao, venda, item_venda, pedido, item_pedido");
+	}
+
+	@Test
+	void vendaFindByDataVenda() {
+		assertSemVarreduraCompleta(() -> vendaRepository.findByDataVenda(dia(10).toLocalDate()));
+	}
+
+	@Test
+	void vendaFindByDataVendaBetweenWithDetailsOrderByDataVendaDesc() {
+		assertSemVarreduraCompleta(() -> vendaRepository.findByDataVendaBetweenWithDetailsOrderByDataVendaDesc(dia(10).toLocalDate(), dia(16).toLocalDate()));
+	}
+
+	@Test
+	void vendaRecalcularTotais() {
+		List<List<Map<String, Object>>> planos = assertSemVarreduraCompleta(() -> transactionTemplate.executeWithoutResult(status -> vendaRepository.recalcularTotais(List.of(42L))));
+		assertCobertaPeloIndice(planos, "idx_item_venda_venda_totais");
+	}
+
+	@Test
+	void producaoFindByDataProducao() {
+		assertSemVarreduraCompleta(() -> producaoRepository.findByDataProducao(dia(10).toLocalDate()));
+	}
+
+	@Test
+	void itemVendaSumQuantidadeByProducaoId() {
+		List<List<Map<String, Object>>> planos = assertSemVarreduraCompleta(() -> itemVendaRepository.sumQuantidadeByProducaoId(42L));
+		assertCobertaPeloIndice(planos, "idx_item_venda_producao_quantidade");
+	}
+
+	@Test
+	void itemVendaFindMargensPorProdutoBetween() {
+		assertSemVarreduraCompleta(() -> itemVendaRepository.findMargensPorProdutoBetween(dia(10).toLocalDate(), dia(16).toLocalDate()));
+	}
+
+	@Test
+	void pedidoFindUpcomingPedidoIds() {
+		assertSemVarreduraCompleta(() -> pedidoRepository.findUpcomingPedidoIds(dia(10).toLocalDate(), dia(17).toLocalDate(), StatusPedido.finalizados(), PageRequest.of(0, 10)));
+	}
+
+	@Test
+	void itemPedidoFindSemProducaoByDataEntregaAndStatus() {
+		assertSemVarreduraCompleta(() -> itemPedidoRepository.findSemProducaoByDataEntregaAndStatus(dia(10).toLocalDate(), StatusPedido.PENDENTE));
+	}
+
+	@Test
+	void materiaPrimaFindByNomeAndUnidade() {
+		assertSemVarreduraCompleta(() -> materiaPrimaRepository.findByNomeAndUnidade("Matéria-prima 42", "g"));
+	}
+
+	@Test
+	void usuarioFindByLogin() {
+		assertSemVarreduraCompleta(() -> usuarioRepository.findByLogin("usuario42"));
+	}
+
+	@Test
+	void receitaVersaoFindUltimoNumeroByProdutoId() {
+		assertSemVarreduraCompleta(() -> receitaVersaoRepository.findUltimoNumeroByProdutoId(42L));
+	}
+
+	/**
+	 * Executa a chamada do repositório, sem os caches do Hibernate, e roda EXPLAIN em cada comando que ela enviou ao banco.
+	 *
+	 * @return O plano de cada comando, na ordem de execução.
+	 */
+	private List<List<Map<String, Object>>> assertSemVarreduraCompleta(Runnable chamada) {
+		entityManagerFactory.getCache().evictAll();
+		List<ConsultasGravadas.Consulta> consultas = consultasGravadas.durante(chamada);
+		assertFalse(consultas.isEmpty(), "A chamada não enviou nenhum comando ao banco");
+		List<List<Map<String, Object>>> planos = new ArrayList<>();
+		for (ConsultasGravadas.Consulta consulta : consultas) {
+			List<Map<String, Object>> plano = jdbcTemplate.queryForList("EXPLAIN " + consulta.sql(), consulta.parametros().toArray());
+			for (Map<String, Object> linha : plano) {
+				assertNotEquals("ALL", linha.get("type"), () -> "Varredura completa da tabela " + linha.get("table") + " em: " + consulta.sql() + "\nPlano: " + plano);
+			}
+			planos.add(plano);
+		}
+		return planos;
+	}
+
+	private static void assertCobertaPeloIndice(List<List<Map<String, Object>>> planos, String indice) {
+		Map<String, Object> linha = planos.stream()
+				.flatMap(List::stream)
+				.filter(passo -> indice.equals(passo.get("key")))
+				.findFirst()
+				.orElseThrow(() -> new AssertionError("O índice " + indice + " não foi usado. Planos: " + planos));
+		assertTrue(String.valueOf(linha.get("Extra")).contains("Using index"), () -> "A consulta deveria ser respondida só pelo índice. Planos: " + planos);
+	}
+
+	private void inserir(String sql, int quantidade, IntFunction<Object[]> linha) {
+		List<Object[]> linhas = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			linhas.add(linha.apply(i));
+		}
+		jdbcTemplate.batchUpdate(sql, linhas);
+	}
+
+	private static Date dia(int i) {
+		return Date.valueOf(INICIO.plusDays(i % DIAS));
+	}
+}
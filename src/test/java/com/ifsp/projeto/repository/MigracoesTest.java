@@ -0,0 +1,92 @@
+package com.ifsp.projeto.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Atualiza pelas migrações do Flyway um banco criado pela versão anterior a elas (esquema da V1, sem histórico do Flyway),
+ * como acontece na primeira inicialização em produção, e confere os dados depois da atualização. Roda no H2 em modo
+ * MySQL, sem Docker.
+ */
+class MigracoesTest {
+
+	private DriverManagerDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void criarBancoDaVersaoAnterior() {
+		dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__esquema_inicial.sql")).execute(dataSource);
+	}
+
+	@Test
+	void juntaMateriasPrimasDuplicadasAntesDaRestricaoUnica() {
+		jdbcTemplate.update("INSERT INTO materia_prima (id, nome, unidade, quantidade, quantidade_minima, valor) VALUES (1, 'Farinha', 'g', 1000, 200, 0.004)");
+		jdbcTemplate.update("INSERT INTO materia_prima (id, nome, unidade, quantidade, quantidade_minima, valor) VALUES (2, 'Farinha', 'g', 3000, 500, 0.008)");
+		jdbcTemplate.update("INSERT INTO materia_prima (id, nome, unidade, quantidade, quantidade_minima, valor) VALUES (3, 'Açúcar', 'g', 500, 100, 0.005)");
+		jdbcTemplate.update("INSERT INTO materia_prima (id, nome, unidade, quantidade, quantidade_minima, valor) VALUES (4, 'Farinha', 'g', 0, null, null)");
+		jdbcTemplate.update("INSERT INTO produto (id, nome, tipo, preco, rendimento) VALUES (1, 'Bolo', 'Massa', 30, 10)");
+		jdbcTemplate.update("INSERT INTO ingrediente (id, produto_id, materia_prima_id, quantidade) VALUES (1, 1, 2, 500)");
+		jdbcTemplate.update("INSERT INTO ingrediente (id, produto_id, materia_prima_id, quantidade) VALUES (2, 1, 3, 200)");
+
+		migrar();
+
+		List<Map<String, Object>> materiasPrimas = jdbcTemplate.queryForList("SELECT id, quantidade, quantidade_minima, valor FROM materia_prima ORDER BY id");
+		assertEquals(2, materiasPrimas.size(), () -> "Matérias-primas: " + materiasPrimas);
+		Map<String, Object> farinha = materiasPrimas.get(0);
+		assertEquals(1L, ((Number) farinha.get("id")).longValue());
+		assertEquals(4000.0, ((Number) farinha.get("quantidade")).doubleValue(), 1e-9);
+		assertEquals(500.0, ((Number) farinha.get("quantidade_minima")).doubleValue(), 1e-9);
+		// (1000 × 0,004 + 3000 × 0,008) / 4000; o registro sem valor não entra na média
+		assertEquals(0.007, ((Number) farinha.get("valor")).doubleValue(), 1e-9);
+		assertEquals(List.of(1L, 3L), jdbcTemplate.queryForList("SELECT materia_prima_id FROM ingrediente ORDER BY id", Long.class));
+
+		assertThrows(Exception.class, () -> jdbcTemplate.update("INSERT INTO materia_prima (id, nome, unidade, quantidade) VALUES (5, 'Farinha', 'g', 1)"));
+	}
+
+	@Test
+	void normalizaStatusDosPedidosGravadosComTextoLivre() {
+		String[] gravados = {"Pendente", " em produção ", "EM_PRODUCAO", "Pronto", "ENTREGUE", "cancelado", "Aguardando cliente", "", null};
+		for (int i = 0; i < gravados.length; i++) {
+			jdbcTemplate.update("INSERT INTO pedido (id, cliente, data_entrega, status) VALUES (?, 'Cliente', '2024-05-10', ?)", i + 1, gravados[i]);
+		}
+
+		migrar();
+
+		assertEquals(List.of("Pendente", "Em produção", "Em produção", "Pronto para entrega", "Entregue", "Cancelado", "Pendente", "Pendente", "Pendente"),
+				jdbcTemplate.queryForList("SELECT status FROM pedido ORDER BY id", String.class));
+	}
+
+	@Test
+	void comecaAsSequenciasDeIdDepoisDosRegistrosExistentes() {
+		jdbcTemplate.update("INSERT INTO produto (id, nome, tipo, preco, rendimento) VALUES (120, 'Bolo', 'Massa', 30, 10)");
+
+		migrar();
+
+		// Bloco do otimizador pooled: do valor gravado menos 49 até o valor gravado
+		assertEquals(170L, jdbcTemplate.queryForObject("SELECT proximo_valor FROM sequencia_id WHERE entidade = 'produto'", Long.class));
+		assertEquals(50L, jdbcTemplate.queryForObject("SELECT proximo_valor FROM sequencia_id WHERE entidade = 'venda'", Long.class));
+	}
+
+	private void migrar() {
+		Flyway.configure()
+				.dataSource(dataSource)
+				.baselineOnMigrate(true)
+				.baselineVersion("1")
+				.load()
+				.migrate();
+	}
+}
@@ -0,0 +1,165 @@
+package com.ifsp.projeto.service;
+
+import com.ifsp.projeto.controller.dto.ItemOrcamentoDTO;
+import com.ifsp.projeto.controller.dto.OrcamentoRequest;
+import com.ifsp.projeto.controller.dto.PrecoCalculadoDTO;
+import com.ifsp.projeto.model.ItemOrcamento;
+import com.ifsp.projeto.model.ItemPedido;
+import com.ifsp.projeto.model.Orcamento;
+import com.ifsp.projeto.model.Pedido;
+import com.ifsp.projeto.model.Produto;
+import com.ifsp.projeto.repository.ItemOrcamentoRepository;
+import com.ifsp.projeto.repository.ItemPedidoRepository;
+import com.ifsp.projeto.repository.OrcamentoRepository;
+import com.ifsp.projeto.repository.PedidoRepository;
+import com.ifsp.projeto.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrcamentoServiceTest {
+
+	private static final LocalDate ENTREGA = LocalDate.of(2024, 5, 10);
+
+	private OrcamentoRepository orcamentoRepository;
+	private PedidoRepository pedidoRepository;
+	private ItemPedidoRepository itemPedidoRepository;
+	private ProdutoRepository produtoRepository;
+	private ItemOrcamentoRepository itemOrcamentoRepository;
+	private PrecificacaoService precificacaoService;
+	private OrcamentoService orcamentoService;
+
+	@BeforeEach
+	void criar() {
+		orcamentoRepository = mock(OrcamentoRepository.class);
+		pedidoRepository = mock(PedidoRepository.class);
+		itemPedidoRepository = mock(ItemPedidoRepository.class);
+		produtoRepository = mock(ProdutoRepository.class);
+		itemOrcamentoRepository = mock(ItemOrcamentoRepository.class);
+		precificacaoService = mock(PrecificacaoService.class);
+		orcamentoService = new OrcamentoService(orcamentoRepository, produtoRepository, itemOrcamentoRepository,
+				pedidoRepository, itemPedidoRepository, precificacaoService);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void converteOrcamentoPendenteEmPedidoComOPrecoAcordado() {
+		when(orcamentoRepository.updateStatusByIdAndStatus(1L, "Pendente", "Aprovado")).thenReturn(1);
+		when(orcamentoRepository.findByIdWithItens(1L)).thenReturn(Optional.of(orcamento(3.0)));
+
+		Pedido pedido = orcamentoService.aprovarEConverter(1L, ENTREGA);
+
+		assertEquals("Cliente", pedido.getCliente());
+		assertEquals(ENTREGA, pedido.getDataEntrega());
+		ArgumentCaptor<List<ItemPedido>> itens = ArgumentCaptor.forClass(List.class);
+		verify(itemPedidoRepository).saveAll(itens.capture());
+		assertEquals(3, itens.getValue().get(0).getQuantidade());
+		// 10% de desconto do orçamento sobre o preço unitário de 20
+		assertEquals(18.0, itens.getValue().get(0).getValorUnitario(), 1e-9);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void pedidoConvertidoDeOrcamentoComDescontoSomaOValorFinal() {
+		// Com 10% de desconto, 13,03 vira 11,727 e 8,45 vira 7,605: os centavos precisam ser os mesmos no orçamento e no pedido
+		when(produtoRepository.findExistingIds(any())).thenReturn(Set.of(1L, 2L));
+		when(produtoRepository.getReferenceById(any())).thenAnswer(chamada -> produto(chamada.getArgument(0)));
+		when(precificacaoService.calcularPreco(1L, 3)).thenReturn(Optional.of(new PrecoCalculadoDTO(1L, 3, 5.0, 0, 13.03, 39.09)));
+		when(precificacaoService.calcularPreco(2L, 7)).thenReturn(Optional.of(new PrecoCalculadoDTO(2L, 7, 3.0, 0, 8.45, 59.15)));
+		when(orcamentoRepository.save(any())).thenAnswer(chamada -> chamada.getArgument(0));
+		OrcamentoRequest request = new OrcamentoRequest();
+		request.setCliente("Cliente");
+		request.setDesconto(10.0);
+		request.setItens(List.of(itemRequest(1L, 3), itemRequest(2L, 7)));
+
+		Orcamento orcamento = orcamentoService.salvarOrcamento(request);
+		ArgumentCaptor<List<ItemOrcamento>> itensOrcamento = ArgumentCaptor.forClass(List.class);
+		verify(itemOrcamentoRepository).saveAll(itensOrcamento.capture());
+		orcamento.setItens(itensOrcamento.getValue());
+		when(orcamentoRepository.updateStatusByIdAndStatus(1L, "Pendente", "Aprovado")).thenReturn(1);
+		when(orcamentoRepository.findByIdWithItens(1L)).thenReturn(Optional.of(orcamento));
+		orcamentoService.aprovarEConverter(1L, ENTREGA);
+
+		ArgumentCaptor<List<ItemPedido>> itensPedido = ArgumentCaptor.forClass(List.class);
+		verify(itemPedidoRepository).saveAll(itensPedido.capture());
+		for (ItemPedido item : itensPedido.getValue()) {
+			assertEquals(PrecificacaoService.arredondar(item.getValorUnitario()), item.getValorUnitario(), 1e-9, "Preço acordado com fração de centavo");
+		}
+		double totalPedido = itensPedido.getValue().stream().mapToDouble(item -> item.getValorUnitario() * item.getQuantidade()).sum();
+		assertEquals(orcamento.getValorFinal(), PrecificacaoService.arredondar(totalPedido), 1e-9);
+	}
+
+	@Test
+	void rejeitaASegundaAprovacaoDoMesmoOrcamento() {
+		// A primeira aprovação já trocou o status: o UPDATE condicional não encontra mais o orçamento pendente
+		when(orcamentoRepository.updateStatusByIdAndStatus(1L, "Pendente", "Aprovado")).thenReturn(0);
+		when(orcamentoRepository.existsById(1L)).thenReturn(true);
+
+		IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, () -> orcamentoService.aprovarEConverter(1L, ENTREGA));
+
+		assertEquals("Apenas orçamentos pendentes podem ser aprovados.", erro.getMessage());
+		verify(pedidoRepository, never()).save(any());
+	}
+
+	@Test
+	void informaQuandoOOrcamentoNaoExiste() {
+		IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, () -> orcamentoService.aprovarEConverter(9L, ENTREGA));
+
+		assertEquals("Orçamento não encontrado", erro.getMessage());
+	}
+
+	@Test
+	void rejeitaQuantidadeFracionariaEmVezDeArredondar() {
+		when(orcamentoRepository.updateStatusByIdAndStatus(1L, "Pendente", "Aprovado")).thenReturn(1);
+		when(orcamentoRepository.findByIdWithItens(1L)).thenReturn(Optional.of(orcamento(2.5)));
+
+		assertThrows(IllegalArgumentException.class, () -> orcamentoService.aprovarEConverter(1L, ENTREGA));
+
+		verify(pedidoRepository, never()).save(any());
+		verify(itemPedidoRepository, never()).saveAll(any());
+	}
+
+	private static ItemOrcamentoDTO itemRequest(Long produtoId, int quantidade) {
+		ItemOrcamentoDTO item = new ItemOrcamentoDTO();
+		item.setProdutoId(produtoId);
+		item.setQuantidade(quantidade);
+		return item;
+	}
+
+	private static Produto produto(Long id) {
+		Produto produto = new Produto();
+		produto.setId(id);
+		produto.setNome("Produto " + id);
+		return produto;
+	}
+
+	private static Orcamento orcamento(double quantidade) {
+		Produto produto = new Produto();
+		produto.setId(1L);
+		produto.setNome("Bolo");
+		ItemOrcamento item = new ItemOrcamento();
+		item.setProduto(produto);
+		item.setQuantidade(quantidade);
+		item.setValorUnitario(20.0);
+		Orcamento orcamento = new Orcamento();
+		orcamento.setId(1L);
+		orcamento.setCliente("Cliente");
+		orcamento.setStatus("Aprovado");
+		orcamento.setDesconto(10.0);
+		orcamento.setItens(List.of(item));
+		return orcamento;
+	}
+}
@@ -0,0 +1,71 @@
+package com.ifsp.projeto.service;
+
+import com.ifsp.projeto.controller.dto.AtualizacaoStatusResultado;
+import com.ifsp.projeto.model.StatusPedido;
+import com.ifsp.projeto.repository.PedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PedidoServiceTest {
+
+	private PedidoRepository pedidoRepository;
+	private PedidoService pedidoService;
+
+	@BeforeEach
+	void criar() {
+		pedidoRepository = mock(PedidoRepository.class);
+		pedidoService = new PedidoService(pedidoRepository, null, null);
+	}
+
+	@Test
+	void atualizaSoOsPedidosEmSituacaoCompativelERejeitaOsDemais() {
+		Set<StatusPedido> origens = EnumSet.of(StatusPedido.EM_PRODUCAO);
+		when(pedidoRepository.lockIdsByIdInAndStatusIn(Set.of(1L, 2L, 3L, 4L), origens)).thenReturn(List.of(1L, 3L));
+		when(pedidoRepository.updateStatusByIdInAndStatusIn(List.of(1L, 3L), origens, StatusPedido.PRONTO_PARA_ENTREGA)).thenReturn(2);
+
+		// O 2 está em outra situação, o 4 não existe e o 3 repetido conta uma vez só
+		AtualizacaoStatusResultado resultado = pedidoService.atualizarStatusEmLote(List.of(1L, 2L, 3L, 3L, 4L), "Pronto para entrega");
+
+		assertEquals(List.of(1L, 3L), resultado.atualizados());
+		assertEquals(List.of(2L, 4L), resultado.rejeitados());
+		verify(pedidoRepository).updateStatusByIdInAndStatusIn(List.of(1L, 3L), origens, StatusPedido.PRONTO_PARA_ENTREGA);
+	}
+
+	@Test
+	void rejeitaTodosSemIrAoBancoQuandoNenhumaSituacaoLevaAoDestino() {
+		AtualizacaoStatusResultado resultado = pedidoService.atualizarStatusEmLote(List.of(1L, 2L), "Pendente");
+
+		assertEquals(List.of(), resultado.atualizados());
+		assertEquals(List.of(1L, 2L), resultado.rejeitados());
+		verify(pedidoRepository, never()).lockIdsByIdInAndStatusIn(any(), any());
+		verify(pedidoRepository, never()).updateStatusByIdInAndStatusIn(any(), any(), any());
+	}
+
+	@Test
+	void naoAtualizaQuandoNenhumPedidoPodeMudar() {
+		when(pedidoRepository.lockIdsByIdInAndStatusIn(any(), any())).thenReturn(List.of());
+
+		AtualizacaoStatusResultado resultado = pedidoService.atualizarStatusEmLote(List.of(7L), "Entregue");
+
+		assertEquals(List.of(7L), resultado.rejeitados());
+		verify(pedidoRepository, never()).updateStatusByIdInAndStatusIn(any(), any(), any());
+	}
+
+	@Test
+	void recusaListaVaziaEStatusInvalido() {
+		assertThrows(IllegalArgumentException.class, () -> pedidoService.atualizarStatusEmLote(List.of(), "Entregue"));
+		assertThrows(IllegalArgumentException.class, () -> pedidoService.atualizarStatusEmLote(List.of(1L), "Aguardando"));
+	}
+}
@@ -0,0 +1,85 @@
+package com.ifsp.projeto.service;
+
+import com.ifsp.projeto.config.PrecificacaoProperties;
+import com.ifsp.projeto.controller.dto.CustoProdutoDTO;
+import com.ifsp.projeto.controller.dto.PrecoCalculadoDTO;
+import com.ifsp.projeto.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PrecificacaoServiceTest {
+
+	private ProdutoRepository produtoRepository;
+	private PrecificacaoService precificacaoService;
+
+	@BeforeEach
+	void criar() {
+		produtoRepository = mock(ProdutoRepository.class);
+		// Faixas fora de ordem de propósito: o serviço escolhe a maior atingida
+		PrecificacaoProperties properties = new PrecificacaoProperties(Map.of("Massa", 1.30),
+				List.of(new PrecificacaoProperties.Faixa(50, 10), new PrecificacaoProperties.Faixa(10, 5)));
+		precificacaoService = new PrecificacaoService(produtoRepository, properties, 1.50);
+		when(produtoRepository.findCustos()).thenReturn(List.of(
+				new CustoProdutoDTO(1L, "Bolo", "Massa", 2.0),
+				new CustoProdutoDTO(2L, "Torta", "Massa", 3.33),
+				new CustoProdutoDTO(3L, "Brigadeiro", "Outros", 1.111)));
+		precificacaoService.reconstruirTabela();
+	}
+
+	@ParameterizedTest
+	@CsvSource({"0, 0", "1, 0", "9.99, 0", "10, 5", "49.99, 5", "50, 10", "1000, 10"})
+	void aplicaODescontoDaMaiorFaixaAtingida(double quantidade, double desconto) {
+		assertEquals(desconto, precificacaoService.descontoPara(quantidade));
+	}
+
+	@Test
+	void usaOMarkupPadraoParaTiposSemMarkupProprio() {
+		assertEquals(1.30, precificacaoService.markupPara("Massa"));
+		assertEquals(1.50, precificacaoService.markupPara("Outros"));
+		assertEquals(1.50, precificacaoService.markupPara(null));
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			// produto, quantidade, desconto, valor unitário, valor total
+			"1, 1, 0, 2.60, 2.60",
+			"1, 10, 5, 2.47, 24.70",
+			"1, 50, 10, 2.34, 117.00",
+			"2, 3, 0, 4.33, 12.99",
+			// 1,111 × 1,5 = 1,6665: o total parte do unitário já arredondado (3 × 1,67), não de 3 × 1,6665
+			"3, 3, 0, 1.67, 5.01"})
+	void arredondaOUnitarioEOTotalEmCentavos(long produtoId, double quantidade, double desconto, double valorUnitario, double valorTotal) {
+		PrecoCalculadoDTO preco = precificacaoService.calcularPreco(produtoId, quantidade).orElseThrow();
+
+		assertEquals(desconto, preco.desconto());
+		assertEquals(valorUnitario, preco.valorUnitario(), 1e-9);
+		assertEquals(valorTotal, preco.valorTotal(), 1e-9);
+	}
+
+	@Test
+	void naoCalculaPrecoDeProdutoForaDaTabela() {
+		assertTrue(precificacaoService.calcularPreco(99L, 1).isEmpty());
+		assertTrue(precificacaoService.custoUnitario(99L).isEmpty());
+	}
+
+	@Test
+	void passaAUsarOsNovosCustosDepoisDeReconstruirATabela() {
+		when(produtoRepository.findCustos()).thenReturn(List.of(new CustoProdutoDTO(1L, "Bolo", "Massa", 4.0)));
+
+		precificacaoService.reconstruirTabela();
+
+		assertEquals(4.0, precificacaoService.custoUnitario(1L).orElseThrow());
+		assertEquals(5.20, precificacaoService.calcularPreco(1L, 1).orElseThrow().valorUnitario(), 1e-9);
+		assertTrue(precificacaoService.custoUnitario(2L).isEmpty());
+	}
+}
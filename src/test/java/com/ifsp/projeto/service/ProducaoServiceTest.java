@@ -0,0 +1,174 @@
+package com.ifsp.projeto.service;
+
+import com.ifsp.projeto.controller.dto.ProducaoDTO;
+import com.ifsp.projeto.model.IngredienteReceita;
+import com.ifsp.projeto.model.ItemPedido;
+import com.ifsp.projeto.model.MateriaPrima;
+import com.ifsp.projeto.model.Pedido;
+import com.ifsp.projeto.model.Producao;
+import com.ifsp.projeto.model.Produto;
+import com.ifsp.projeto.model.ReceitaVersao;
+import com.ifsp.projeto.model.StatusPedido;
+import com.ifsp.projeto.repository.ItemPedidoRepository;
+import com.ifsp.projeto.repository.ItemVendaRepository;
+import com.ifsp.projeto.repository.MateriaPrimaRepository;
+import com.ifsp.projeto.repository.PedidoRepository;
+import com.ifsp.projeto.repository.ProducaoRepository;
+import com.ifsp.projeto.repository.ProdutoRepository;
+import com.ifsp.projeto.repository.ReceitaVersaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProducaoServiceTest {
+
+	private static final LocalDate DATA = LocalDate.of(2024, 5, 10);
+	private static final Set<StatusPedido> PENDENTE = EnumSet.of(StatusPedido.PENDENTE);
+
+	private ItemPedidoRepository itemPedidoRepository;
+	private PedidoRepository pedidoRepository;
+	private ProducaoRepository producaoRepository;
+	private ReceitaVersaoRepository receitaVersaoRepository;
+	private MateriaPrimaRepository materiaPrimaRepository;
+	private ProdutoRepository produtoRepository;
+	private ProducaoService producaoService;
+
+	private ItemPedido itemDoPedido1;
+	private ItemPedido itemDoPedido2;
+
+	@BeforeEach
+	void criar() {
+		itemPedidoRepository = mock(ItemPedidoRepository.class);
+		pedidoRepository = mock(PedidoRepository.class);
+		producaoRepository = mock(ProducaoRepository.class);
+		receitaVersaoRepository = mock(ReceitaVersaoRepository.class);
+		materiaPrimaRepository = mock(MateriaPrimaRepository.class);
+		produtoRepository = mock(ProdutoRepository.class);
+		producaoService = new ProducaoService(producaoRepository, receitaVersaoRepository, materiaPrimaRepository,
+				mock(ItemVendaRepository.class), itemPedidoRepository, pedidoRepository, produtoRepository, mock(PrecificacaoService.class));
+
+		Produto bolo = new Produto();
+		bolo.setId(1L);
+		bolo.setNome("Bolo");
+		MateriaPrima farinha = new MateriaPrima();
+		farinha.setId(1L);
+		farinha.setNome("Farinha");
+		farinha.setValor(0.01);
+		when(receitaVersaoRepository.findAtuaisByProdutoIdIn(any())).thenReturn(List.of(new ReceitaVersao(bolo, 1, List.of(new IngredienteReceita(farinha, 100.0)))));
+
+		itemDoPedido1 = item(1L, bolo, 2);
+		itemDoPedido2 = item(2L, bolo, 3);
+		when(itemPedidoRepository.findSemProducaoByDataEntregaAndStatus(DATA, StatusPedido.PENDENTE)).thenReturn(List.of(itemDoPedido1, itemDoPedido2));
+	}
+
+	@Test
+	void produzSoOsPedidosQueContinuamPendentesDepoisDeTravados() {
+		// O pedido 2 foi produzido por uma execução simultânea enquanto esta esperava a trava
+		when(pedidoRepository.lockIdsByIdInAndStatusIn(Set.of(1L, 2L), PENDENTE)).thenReturn(List.of(1L));
+		when(pedidoRepository.updateStatusByIdInAndStatusIn(Set.of(1L), PENDENTE, StatusPedido.EM_PRODUCAO)).thenReturn(1);
+		when(materiaPrimaRepository.baixarEstoqueSeDisponivel(1L, 200.0)).thenReturn(1);
+
+		List<Producao> lotes = producaoService.registrarProducaoDosPedidos(DATA);
+
+		assertEquals(1, lotes.size());
+		assertEquals(2, lotes.get(0).getQuantidade());
+		assertSame(lotes.get(0), itemDoPedido1.getProducao());
+		assertNull(itemDoPedido2.getProducao());
+		verify(materiaPrimaRepository).baixarEstoqueSeDisponivel(1L, 200.0);
+	}
+
+	@Test
+	void naoProduzNadaQuandoOutraExecucaoJaAtendeuTodosOsPedidos() {
+		when(pedidoRepository.lockIdsByIdInAndStatusIn(anyCollection(), any())).thenReturn(List.of());
+
+		assertTrue(producaoService.registrarProducaoDosPedidos(DATA).isEmpty());
+
+		verify(materiaPrimaRepository, never()).baixarEstoqueSeDisponivel(any(), anyDouble());
+		verify(producaoRepository, never()).saveAll(any());
+		verify(pedidoRepository, never()).updateStatusByIdInAndStatusIn(any(), any(), any());
+	}
+
+	@Test
+	void falhaParaDesfazerTudoQuandoAlgumPedidoDeixouDeEstarPendente() {
+		when(pedidoRepository.lockIdsByIdInAndStatusIn(Set.of(1L, 2L), PENDENTE)).thenReturn(List.of(1L, 2L));
+		when(pedidoRepository.updateStatusByIdInAndStatusIn(Set.of(1L, 2L), PENDENTE, StatusPedido.EM_PRODUCAO)).thenReturn(1);
+		when(materiaPrimaRepository.baixarEstoqueSeDisponivel(1L, 500.0)).thenReturn(1);
+
+		assertThrows(IllegalStateException.class, () -> producaoService.registrarProducaoDosPedidos(DATA));
+	}
+
+	@Test
+	void recusaQuandoOEstoqueGravadoNaoCobreANecessidade() {
+		// Outra transação baixou a farinha depois da leitura: o UPDATE condicional não encontra estoque suficiente
+		when(pedidoRepository.lockIdsByIdInAndStatusIn(Set.of(1L, 2L), PENDENTE)).thenReturn(List.of(1L, 2L));
+		when(materiaPrimaRepository.baixarEstoqueSeDisponivel(1L, 500.0)).thenReturn(0);
+		when(materiaPrimaRepository.findQuantidadeById(1L)).thenReturn(Optional.of(300.0));
+
+		IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, () -> producaoService.registrarProducaoDosPedidos(DATA));
+
+		assertEquals(String.format("Estoque de 'Farinha' insuficiente. Necessário: %.2f, Disponível: %.2f", 500.0, 300.0), erro.getMessage());
+		verify(producaoRepository, never()).saveAll(any());
+		verify(pedidoRepository, never()).updateStatusByIdInAndStatusIn(any(), any(), any());
+	}
+
+	@Test
+	void recusaAProducaoDosPedidosQuandoUmProdutoNaoTemReceita() {
+		Produto torta = new Produto();
+		torta.setId(2L);
+		torta.setNome("Torta");
+		when(itemPedidoRepository.findSemProducaoByDataEntregaAndStatus(DATA, StatusPedido.PENDENTE)).thenReturn(List.of(itemDoPedido1, item(2L, torta, 1)));
+		when(pedidoRepository.lockIdsByIdInAndStatusIn(Set.of(1L, 2L), PENDENTE)).thenReturn(List.of(1L, 2L));
+
+		IllegalStateException erro = assertThrows(IllegalStateException.class, () -> producaoService.registrarProducaoDosPedidos(DATA));
+
+		assertEquals("O produto 'Torta' não tem receita cadastrada. Cadastre a receita antes de registrar a produção.", erro.getMessage());
+		verify(materiaPrimaRepository, never()).baixarEstoqueSeDisponivel(any(), anyDouble());
+		verify(pedidoRepository, never()).updateStatusByIdInAndStatusIn(any(), any(), any());
+	}
+
+	@Test
+	void registroManualDeProdutoSemReceitaApareceNaValidacaoEFalha() {
+		Produto torta = new Produto();
+		torta.setId(2L);
+		torta.setNome("Torta");
+		when(produtoRepository.findById(2L)).thenReturn(Optional.of(torta));
+		when(receitaVersaoRepository.findAtualByProdutoId(2L)).thenReturn(Optional.empty());
+		ProducaoDTO producao = new ProducaoDTO();
+		producao.setProdutoId(2L);
+		producao.setQuantidade(4);
+		String mensagem = "O produto 'Torta' não tem receita cadastrada. Cadastre a receita antes de registrar a produção.";
+
+		assertEquals(List.of(mensagem), producaoService.validarEstoque(List.of(producao)));
+		IllegalStateException erro = assertThrows(IllegalStateException.class, () -> producaoService.registrarProducao(List.of(producao), DATA));
+		assertEquals(mensagem, erro.getMessage());
+		verify(producaoRepository, never()).save(any());
+	}
+
+	private static ItemPedido item(Long pedidoId, Produto produto, int quantidade) {
+		Pedido pedido = new Pedido();
+		pedido.setId(pedidoId);
+		ItemPedido item = new ItemPedido();
+		item.setPedido(pedido);
+		item.setProduto(produto);
+		item.setQuantidade(quantidade);
+		return item;
+	}
+}
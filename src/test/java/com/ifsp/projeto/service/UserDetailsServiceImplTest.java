@@ -0,0 +1,128 @@
+package com.ifsp.projeto.service;
+
+import com.ifsp.projeto.config.CacheUsuarios;
+import com.ifsp.projeto.model.Usuario;
+import com.ifsp.projeto.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDetailsServiceImplTest {
+
+	private UsuarioRepository usuarioRepository;
+	private CacheUsuarios cacheUsuarios;
+	private UserDetailsServiceImpl userDetailsService;
+
+	@BeforeEach
+	void criar() {
+		usuarioRepository = mock(UsuarioRepository.class);
+		cacheUsuarios = new CacheUsuarios(new ConcurrentMapCache("usuarios"));
+		userDetailsService = new UserDetailsServiceImpl(usuarioRepository, cacheUsuarios);
+	}
+
+	@AfterEach
+	void limpar() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void guardaOUsuarioLidoEOUsaNaProximaTentativa() {
+		when(usuarioRepository.findByLogin("ana")).thenReturn(Optional.of(usuario("ana", "hash-1", true)));
+
+		userDetailsService.loadUserByUsername("ana");
+		assertEquals("hash-1", userDetailsService.loadUserByUsername("ana").getPassword());
+
+		verify(usuarioRepository, times(1)).findByLogin("ana");
+	}
+
+	@Test
+	void naoGuardaAContaLidaAntesDeOAdministradorAlterala() {
+		// O login lê a conta antiga; antes de ele terminar, o administrador redefine a senha e remove o login do cache
+		when(usuarioRepository.findByLogin("ana")).thenAnswer(consulta -> {
+			Optional<Usuario> antiga = Optional.of(usuario("ana", "hash-antigo", true));
+			cacheUsuarios.removeUserFromCache("ana");
+			return antiga;
+		});
+
+		userDetailsService.loadUserByUsername("ana");
+
+		assertNull(cacheUsuarios.getUserFromCache("ana"), "A senha antiga não pode voltar para o cache depois da remoção");
+		when(usuarioRepository.findByLogin("ana")).thenReturn(Optional.of(usuario("ana", "hash-novo", true)));
+		assertEquals("hash-novo", userDetailsService.loadUserByUsername("ana").getPassword());
+		assertNotNull(cacheUsuarios.getUserFromCache("ana"));
+	}
+
+	@Test
+	void naoGuardaQuandoARemocaoChegaEntreALeituraEOCommitDoLogin() {
+		when(usuarioRepository.findByLogin("ana")).thenReturn(Optional.of(usuario("ana", "hash-antigo", true)));
+		TransactionSynchronizationManager.initSynchronization();
+
+		userDetailsService.loadUserByUsername("ana");
+		var commitDoLogin = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		// A transação do administrador termina antes da do login
+		cacheUsuarios.removeUserFromCache("ana");
+		commitDoLogin.forEach(TransactionSynchronization::afterCommit);
+
+		assertNull(cacheUsuarios.getUserFromCache("ana"));
+	}
+
+	@Test
+	void gravaNoCacheSoDepoisDoCommit() {
+		when(usuarioRepository.findByLogin("ana")).thenReturn(Optional.of(usuario("ana", "hash-1", true)));
+		TransactionSynchronizationManager.initSynchronization();
+
+		userDetailsService.loadUserByUsername("ana");
+		assertNull(cacheUsuarios.getUserFromCache("ana"));
+
+		confirmar();
+		assertNotNull(cacheUsuarios.getUserFromCache("ana"));
+	}
+
+	@Test
+	void guardaLoginInexistenteERecusaContaDesativada() {
+		when(usuarioRepository.findByLogin("ninguem")).thenReturn(Optional.empty());
+		when(usuarioRepository.findByLogin("bruno")).thenReturn(Optional.of(usuario("bruno", "hash", false)));
+
+		assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ninguem"));
+		assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ninguem"));
+		assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("bruno"));
+
+		verify(usuarioRepository, times(1)).findByLogin("ninguem");
+	}
+
+	/**
+	 * Executa os afterCommit registrados, como o gerenciador de transações faria no commit.
+	 */
+	private static void confirmar() {
+		var sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		sincronizacoes.forEach(TransactionSynchronization::afterCommit);
+	}
+
+	private static Usuario usuario(String login, String senha, boolean ativo) {
+		Usuario usuario = new Usuario();
+		usuario.setLogin(login);
+		usuario.setSenha(senha);
+		usuario.setRole("USER");
+		usuario.setEnabled(ativo);
+		return usuario;
+	}
+}